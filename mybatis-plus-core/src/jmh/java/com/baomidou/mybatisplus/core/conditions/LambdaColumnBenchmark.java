@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.core.conditions;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.core.toolkit.LambdaUtils;
+import com.baomidou.mybatisplus.core.toolkit.support.ColumnCache;
+import com.baomidou.mybatisplus.core.toolkit.support.LambdaMeta;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.baomidou.mybatisplus.core.toolkit.support.SerializedLambda;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.ibatis.reflection.property.PropertyNamer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * lambda 字段解析基准测试
+ * <p>
+ * legacy* 为原实现的每次调用开销: 序列化解析 lambda 与每个字段的 methodToProperty、Class.forName、toUpperCase
+ * </p>
+ *
+ * @since 3.3.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LambdaColumnBenchmark {
+
+    private static final SFunction<BenchEntity, ?> NAME = BenchEntity::getName;
+
+    private Map<String, ColumnCache> columnMap;
+    private SerializedLambda lambda;
+
+    @Setup
+    public void setup() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), BenchEntity.class);
+        columnMap = LambdaUtils.getColumnMap(BenchEntity.class);
+        lambda = SerializedLambda.resolve(NAME);
+    }
+
+    @Benchmark
+    public SerializedLambda legacyResolveBySerialization() {
+        return SerializedLambda.resolveBySerialization(NAME);
+    }
+
+    @Benchmark
+    public SerializedLambda resolveByWriteReplace() {
+        return SerializedLambda.resolve(NAME);
+    }
+
+    /**
+     * 原实现 lambda 已缓存时每个字段引用的开销
+     */
+    @Benchmark
+    public ColumnCache legacyColumnLookup() {
+        String fieldName = PropertyNamer.methodToProperty(lambda.getImplMethodName());
+        Map<String, ColumnCache> map = LambdaUtils.getColumnMap(lambda.getInstantiatedType());
+        return map.get(LambdaUtils.formatKey(fieldName));
+    }
+
+    @Benchmark
+    public ColumnCache cachedColumnLookup() {
+        LambdaMeta meta = LambdaUtils.getLambdaMeta(NAME);
+        return meta.getColumnCache(columnMap);
+    }
+
+    @Benchmark
+    public String lambdaQueryWrapperEq() {
+        return new LambdaQueryWrapper<BenchEntity>().eq(BenchEntity::getName, "mp").getSqlSegment();
+    }
+
+    public static class BenchEntity {
+
+        private Long id;
+        private String name;
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
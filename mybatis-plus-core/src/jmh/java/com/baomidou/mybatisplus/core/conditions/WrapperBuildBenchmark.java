@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.core.conditions;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * wrapper 构建基准测试
+ * <p>
+ * 构建 5 ~ 15 个条件的常见 wrapper 并生成 sqlSegment, 建议配合 -prof gc 观察每次操作的分配量;
+ * legacyFormatSql 为原 formatSqlIfNeed 的 String.format + String.replace 实现
+ * </p>
+ *
+ * @since 3.3.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WrapperBuildBenchmark {
+
+    private static final List<Long> IDS = Arrays.asList(1L, 2L, 3L, 4L, 5L);
+
+    @Param({"5", "10", "15"})
+    private int conditions;
+
+    @Setup
+    public void setup() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), BenchEntity.class);
+    }
+
+    @Benchmark
+    public String queryWrapper() {
+        QueryWrapper<BenchEntity> wrapper = new QueryWrapper<>();
+        for (int i = 0; i < conditions; i++) {
+            switch (i % 5) {
+                case 0:
+                    wrapper.eq("name", "mp");
+                    break;
+                case 1:
+                    wrapper.like("name", "mp");
+                    break;
+                case 2:
+                    wrapper.in("id", IDS);
+                    break;
+                case 3:
+                    wrapper.between("age", 18, 30);
+                    break;
+                default:
+                    wrapper.apply("age > {0} and age < {1}", 1, 100);
+                    break;
+            }
+        }
+        return wrapper.orderByDesc("id").getSqlSegment();
+    }
+
+    @Benchmark
+    public String lambdaQueryWrapper() {
+        LambdaQueryWrapper<BenchEntity> wrapper = new LambdaQueryWrapper<>();
+        for (int i = 0; i < conditions; i++) {
+            switch (i % 3) {
+                case 0:
+                    wrapper.eq(BenchEntity::getName, "mp");
+                    break;
+                case 1:
+                    wrapper.ge(BenchEntity::getAge, 18);
+                    break;
+                default:
+                    wrapper.in(BenchEntity::getId, IDS);
+                    break;
+            }
+        }
+        return wrapper.orderByDesc(BenchEntity::getId).getSqlSegment();
+    }
+
+    @Benchmark
+    public String formatSql() {
+        return new QueryWrapper<BenchEntity>().apply("age > {0} and age < {1}", 1, 100).getSqlSegment();
+    }
+
+    /**
+     * 原实现: 每个参数两次 String.format 与一次 String.replace
+     */
+    @Benchmark
+    public String legacyFormatSql() {
+        Map<String, Object> paramNameValuePairs = new HashMap<>(16);
+        Object[] params = {1, 100};
+        String sqlStr = "age > {0} and age < {1}";
+        for (int i = 0; i < params.length; ++i) {
+            String genParamName = Constants.WRAPPER_PARAM + (i + 1);
+            sqlStr = sqlStr.replace(String.format("{%s}", i),
+                String.format(Constants.WRAPPER_PARAM_FORMAT, Constants.WRAPPER, genParamName));
+            paramNameValuePairs.put(genParamName, params[i]);
+        }
+        return "(" + sqlStr + ")";
+    }
+
+    public static class BenchEntity {
+
+        private Long id;
+        private String name;
+        private Integer age;
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Integer getAge() {
+            return age;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.core.conditions;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.SerializationUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * wrapper 复制基准测试
+ * <p>
+ * legacySerializationClone 为原 clone 的 Java 序列化深复制
+ * </p>
+ *
+ * @since 3.3.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WrapperCloneBenchmark {
+
+    private QueryWrapper<Object> base;
+
+    @Setup
+    public void setup() {
+        base = new QueryWrapper<>().select("id", "name", "age")
+            .eq("tenant_id", 1).eq("deleted", 0).ge("age", 18).le("age", 60)
+            .like("name", "mp").in("type", Arrays.asList(1, 2, 3))
+            .and(i -> i.eq("status", 1).or().isNull("status"))
+            .orderByDesc("id").last("limit 100");
+        base.getSqlSegment();
+    }
+
+    @Benchmark
+    public QueryWrapper<Object> legacySerializationClone() {
+        return SerializationUtils.clone(base);
+    }
+
+    @Benchmark
+    public QueryWrapper<Object> structuralClone() {
+        return base.clone();
+    }
+
+    /**
+     * 复制后追加条件并生成 sql, 即按请求追加过滤条件的常见用法
+     */
+    @Benchmark
+    public String structuralCloneAndFilter() {
+        return base.clone().eq("owner_id", 7).getSqlSegment();
+    }
+}
@@ -20,6 +20,7 @@ import com.baomidou.mybatisplus.core.executor.MybatisBatchExecutor;
 import com.baomidou.mybatisplus.core.executor.MybatisCachingExecutor;
 import com.baomidou.mybatisplus.core.executor.MybatisReuseExecutor;
 import com.baomidou.mybatisplus.core.executor.MybatisSimpleExecutor;
+import com.baomidou.mybatisplus.core.parser.IStaticSqlPreparer;
 import com.baomidou.mybatisplus.core.toolkit.GlobalConfigUtils;
 import lombok.Getter;
 import lombok.Setter;
@@ -29,6 +30,7 @@ import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
 import org.apache.ibatis.scripting.LanguageDriver;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ExecutorType;
@@ -58,6 +60,23 @@ public class MybatisConfiguration extends Configuration {
     @Getter
     private GlobalConfig globalConfig = GlobalConfigUtils.defaults();
 
+    /**
+     * 批量执行器是否按 sql 分组复用 Statement
+     * <p>
+     * 开启后两次 flushStatements 之间 sql 相同的语句尽量合并为同一个 JDBC 批次, 不再只与上一条语句比较;
+     * 执行顺序按各组首次出现的顺序, 合并到更早的组意味着语句被提前执行.
+     * 为避免改变结果(例如同一行先删后插再删、先插父表再插子表、同一行先后更新为不同的值),
+     * 只有之后打开的各组都属于同一个 MappedStatement 且不包含相同主键的实体时才合并到更早的组,
+     * 其余情况与原生 BatchExecutor 一样只与上一条语句合并.
+     * 执行器无法感知触发器、外键级联等数据库侧的依赖, 存在这类依赖的语句之间仍需自行调用 flushStatements
+     * </p>
+     *
+     * @since 3.3.2
+     */
+    @Setter
+    @Getter
+    private boolean groupBatchBySql = false;
+
     /**
      * 初始化调用
      */
@@ -85,6 +104,12 @@ public class MybatisConfiguration extends Configuration {
             return;
         }
         super.addMappedStatement(ms);
+        // 静态 SQL 预解析
+        for (Interceptor interceptor : getInterceptors()) {
+            if (interceptor instanceof IStaticSqlPreparer) {
+                ((IStaticSqlPreparer) interceptor).prepareStaticSql(ms);
+            }
+        }
     }
 
     /**
@@ -155,7 +180,7 @@ public class MybatisConfiguration extends Configuration {
         executorType = executorType == null ? ExecutorType.SIMPLE : executorType;
         Executor executor;
         if (ExecutorType.BATCH == executorType) {
-            executor = new MybatisBatchExecutor(this, transaction);
+            executor = new MybatisBatchExecutor(this, transaction, groupBatchBySql);
         } else if (ExecutorType.REUSE == executorType) {
             executor = new MybatisReuseExecutor(this, transaction);
         } else {
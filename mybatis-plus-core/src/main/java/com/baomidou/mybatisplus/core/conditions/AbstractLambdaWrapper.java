@@ -20,9 +20,9 @@ import com.baomidou.mybatisplus.core.toolkit.Assert;
 import com.baomidou.mybatisplus.core.toolkit.LambdaUtils;
 import com.baomidou.mybatisplus.core.toolkit.StringPool;
 import com.baomidou.mybatisplus.core.toolkit.support.ColumnCache;
+import com.baomidou.mybatisplus.core.toolkit.support.LambdaMeta;
 import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.baomidou.mybatisplus.core.toolkit.support.SerializedLambda;
-import org.apache.ibatis.reflection.property.PropertyNamer;
 
 import java.util.Arrays;
 import java.util.Map;
@@ -60,31 +60,27 @@ public abstract class AbstractLambdaWrapper<T, Children extends AbstractLambdaWr
     }
 
     protected String columnToString(SFunction<T, ?> column, boolean onlyColumn) {
-        return getColumn(LambdaUtils.resolve(column), onlyColumn);
+        return getColumn(LambdaUtils.getLambdaMeta(column), onlyColumn);
     }
 
     /**
-     * 获取 SerializedLambda 对应的列信息，从 lambda 表达式中推测实体类
+     * 获取 lambda 对应的列信息，从 lambda 表达式中推测实体类
      * <p>
      * 如果获取不到列信息，那么本次条件组装将会失败
      *
-     * @param lambda     lambda 表达式
+     * @param meta       lambda 元信息
      * @param onlyColumn 如果是，结果: "name", 如果否： "name" as "name"
      * @return 列
      * @throws com.baomidou.mybatisplus.core.exceptions.MybatisPlusException 获取不到列信息时抛出异常
      * @see SerializedLambda#getImplClass()
      * @see SerializedLambda#getImplMethodName()
      */
-    private String getColumn(SerializedLambda lambda, boolean onlyColumn) throws MybatisPlusException {
-        String fieldName = PropertyNamer.methodToProperty(lambda.getImplMethodName());
-        Class<?> aClass = lambda.getInstantiatedType();
-        if (!initColumnMap) {
-            columnMap = LambdaUtils.getColumnMap(aClass);
-        }
-        Assert.notNull(columnMap, "can not find lambda cache for this entity [%s]", aClass.getName());
-        ColumnCache columnCache = columnMap.get(LambdaUtils.formatKey(fieldName));
+    private String getColumn(LambdaMeta meta, boolean onlyColumn) throws MybatisPlusException {
+        Map<String, ColumnCache> map = initColumnMap ? columnMap : LambdaUtils.getColumnMap(meta.getInstantiatedType());
+        Assert.notNull(map, "can not find lambda cache for this entity [%s]", meta.getInstantiatedType().getName());
+        ColumnCache columnCache = meta.getColumnCache(map);
         Assert.notNull(columnCache, "can not find lambda cache for this property [%s] of entity [%s]",
-            fieldName, aClass.getName());
+            meta.getPropertyName(), meta.getInstantiatedType().getName());
         return onlyColumn ? columnCache.getColumn() : columnCache.getColumnSelect();
     }
 
@@ -21,15 +21,22 @@ import com.baomidou.mybatisplus.core.conditions.interfaces.Join;
 import com.baomidou.mybatisplus.core.conditions.interfaces.Nested;
 import com.baomidou.mybatisplus.core.conditions.segments.MergeSegments;
 import com.baomidou.mybatisplus.core.enums.SqlKeyword;
+import com.baomidou.mybatisplus.core.config.GlobalConfig;
 import com.baomidou.mybatisplus.core.enums.SqlLike;
+import com.baomidou.mybatisplus.core.handlers.SqlArrayTypeHandler;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
 import com.baomidou.mybatisplus.core.toolkit.*;
 import com.baomidou.mybatisplus.core.toolkit.sql.SqlUtils;
 import com.baomidou.mybatisplus.core.toolkit.sql.StringEscape;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.StringJoiner;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiPredicate;
 import java.util.function.Consumer;
@@ -49,6 +56,19 @@ import static java.util.stream.Collectors.joining;
 public abstract class AbstractWrapper<T, R, Children extends AbstractWrapper<T, R, Children>> extends Wrapper<T>
     implements Compare<Children, R>, Nested<Children, Children>, Join<Children>, Func<Children, R> {
 
+    /**
+     * 无法确定全局配置时的 IN 列表拆分个数
+     */
+    private static final int DEFAULT_IN_LIST_CHUNK_SIZE = 1000;
+    /**
+     * 参数占位符前缀: #{ew.paramNameValuePairs.MPGENVAL
+     */
+    private static final String PARAM_PLACEHOLDER_PREFIX = StringPool.HASH_LEFT_BRACE + Constants.WRAPPER
+        + ".paramNameValuePairs." + Constants.WRAPPER_PARAM;
+    /**
+     * 当前线程正在复制出的 wrapper, 复制期间片段生成的参数写入该 wrapper, 不修改被复制的 wrapper
+     */
+    private static final ThreadLocal<AbstractWrapper<?, ?, ?>> COPY_TARGET = new ThreadLocal<>();
     /**
      * 占位符
      */
@@ -77,6 +97,12 @@ public abstract class AbstractWrapper<T, R, Children extends AbstractWrapper<T,
      * 实体类型(主要用于确定泛型以及取TableInfo缓存)
      */
     private Class<T> entityClass;
+    /**
+     * 是否补齐 IN 列表参数个数, 为 null 时使用实体所属的全局配置
+     *
+     * @since 3.3.2
+     */
+    protected Boolean inListPadding;
 
     @Override
     public T getEntity() {
@@ -102,6 +128,48 @@ public abstract class AbstractWrapper<T, R, Children extends AbstractWrapper<T,
         return typedThis;
     }
 
+    /**
+     * 设置当前 wrapper 是否补齐 IN 列表参数个数, 覆盖全局配置
+     *
+     * @param inListPadding 是否补齐
+     * @return children
+     * @see SqlUtils#paddedInListSize(int)
+     * @since 3.3.2
+     */
+    public Children inListPadding(boolean inListPadding) {
+        this.inListPadding = inListPadding;
+        return typedThis;
+    }
+
+    /**
+     * 是否补齐 IN 列表参数个数
+     * <p>
+     * 未单独设置时取实体类对应的全局配置 {@code DbConfig#inListPadding}, 无法确定实体类时不补齐
+     * </p>
+     */
+    protected boolean isInListPadding() {
+        if (null != inListPadding) {
+            return inListPadding;
+        }
+        GlobalConfig.DbConfig dbConfig = currentDbConfig();
+        return null != dbConfig && dbConfig.isInListPadding();
+    }
+
+    /**
+     * 实体类对应的全局数据库配置
+     *
+     * @return 无法确定实体类时返回 null
+     * @since 3.3.2
+     */
+    protected GlobalConfig.DbConfig currentDbConfig() {
+        Class<T> clazz = getEntityClass();
+        TableInfo tableInfo = null == clazz ? null : TableInfoHelper.getTableInfo(clazz);
+        if (null == tableInfo || null == tableInfo.getConfiguration()) {
+            return null;
+        }
+        return GlobalConfigUtils.getGlobalConfig(tableInfo.getConfiguration()).getDbConfig();
+    }
+
     @Override
     public <V> Children allEq(boolean condition, Map<R, V> params, boolean null2IsNull) {
         if (condition && CollectionUtils.isNotEmpty(params)) {
@@ -188,8 +256,8 @@ public abstract class AbstractWrapper<T, R, Children extends AbstractWrapper<T,
 
     @Override
     public Children between(boolean condition, R column, Object val1, Object val2) {
-        return doIt(condition, () -> columnToString(column), BETWEEN, () -> formatSql("{0}", val1), AND,
-            () -> formatSql("{0}", val2));
+        return doIt(condition, () -> columnToString(column), BETWEEN, () -> formatParam(val1), AND,
+            () -> formatParam(val2));
     }
 
     @Override
@@ -268,7 +336,20 @@ public abstract class AbstractWrapper<T, R, Children extends AbstractWrapper<T,
 
     @Override
     public Children in(boolean condition, R column, Collection<?> coll) {
-        return doIt(condition, () -> columnToString(column), IN, inExpression(coll));
+        if (!condition) {
+            return typedThis;
+        }
+        GlobalConfig.DbConfig dbConfig = currentDbConfig();
+        if (null != dbConfig && dbConfig.isInListArrayBinding()) {
+            // col = ANY(?), 整个集合绑定为一个数组参数
+            return doIt(true, APPLY, () -> columnToString(column) + " = ANY(" + formatArrayParam(coll) + StringPool.RIGHT_BRACKET);
+        }
+        int chunkSize = null == dbConfig ? DEFAULT_IN_LIST_CHUNK_SIZE : dbConfig.getInListChunkSize();
+        if (chunkSize > 0 && coll.size() > chunkSize) {
+            // (col IN (...) OR col IN (...)), 以 APPLY 开头使 notIn 的 NOT 作用于整个括号
+            return doIt(true, APPLY, inChunkExpression(column, coll, chunkSize));
+        }
+        return doIt(true, () -> columnToString(column), IN, inExpression(coll, Integer.MAX_VALUE));
     }
 
     @Override
@@ -341,7 +422,7 @@ public abstract class AbstractWrapper<T, R, Children extends AbstractWrapper<T,
      * <p>拼接 LIKE 以及 值</p>
      */
     protected Children likeValue(boolean condition, R column, Object val, SqlLike sqlLike) {
-        return doIt(condition, () -> columnToString(column), LIKE, () -> formatSql("{0}", SqlUtils.concatLike(val, sqlLike)));
+        return doIt(condition, () -> columnToString(column), LIKE, () -> formatParam(SqlUtils.concatLike(val, sqlLike)));
     }
 
     /**
@@ -353,7 +434,7 @@ public abstract class AbstractWrapper<T, R, Children extends AbstractWrapper<T,
      * @param val        条件值
      */
     protected Children addCondition(boolean condition, R column, SqlKeyword sqlKeyword, Object val) {
-        return doIt(condition, () -> columnToString(column), sqlKeyword, () -> formatSql("{0}", val));
+        return doIt(condition, () -> columnToString(column), sqlKeyword, () -> formatParam(val));
     }
 
     /**
@@ -364,6 +445,7 @@ public abstract class AbstractWrapper<T, R, Children extends AbstractWrapper<T,
     protected Children addNestedCondition(boolean condition, Consumer<Children> consumer) {
         if (condition) {
             final Children instance = instance();
+            instance.inListPadding = this.inListPadding;
             consumer.accept(instance);
             return doIt(true, BRACKET, instance);
         }
@@ -409,24 +491,140 @@ public abstract class AbstractWrapper<T, R, Children extends AbstractWrapper<T,
             return null;
         }
         if (ArrayUtils.isNotEmpty(params)) {
+            AbstractWrapper<?, ?, ?> target = paramTarget();
+            int seq = target.paramNameSeq.getAndAdd(params.length);
             for (int i = 0; i < params.length; ++i) {
-                String genParamName = Constants.WRAPPER_PARAM + paramNameSeq.incrementAndGet();
-                sqlStr = sqlStr.replace(String.format("{%s}", i),
-                    String.format(Constants.WRAPPER_PARAM_FORMAT, Constants.WRAPPER, genParamName));
-                paramNameValuePairs.put(genParamName, params[i]);
+                target.paramNameValuePairs.put(Constants.WRAPPER_PARAM + (seq + i + 1), params[i]);
+            }
+            // 单次扫描替换 {i}, 不再逐个参数 String.format 与 String.replace
+            StringBuilder sql = null;
+            int from = 0;
+            int open = sqlStr.indexOf(StringPool.LEFT_BRACE);
+            while (open >= 0) {
+                int close = sqlStr.indexOf(StringPool.RIGHT_BRACE, open + 1);
+                if (close < 0) {
+                    break;
+                }
+                int index = placeholderIndex(sqlStr, open + 1, close);
+                if (index >= 0 && index < params.length) {
+                    if (null == sql) {
+                        sql = new StringBuilder(sqlStr.length() + params.length * PARAM_PLACEHOLDER_PREFIX.length());
+                    }
+                    sql.append(sqlStr, from, open).append(PARAM_PLACEHOLDER_PREFIX).append(seq + index + 1)
+                        .append(StringPool.RIGHT_BRACE);
+                    from = close + 1;
+                    open = sqlStr.indexOf(StringPool.LEFT_BRACE, from);
+                } else {
+                    open = sqlStr.indexOf(StringPool.LEFT_BRACE, open + 1);
+                }
+            }
+            if (null != sql) {
+                return sql.append(sqlStr, from, sqlStr.length()).toString();
             }
         }
         return sqlStr;
     }
 
+    /**
+     * 格式化单个参数, 等同于 formatSql("{0}", val)
+     *
+     * @param val 参数值
+     * @return #{ew.paramNameValuePairs.MPGENVALn}
+     */
+    protected final String formatParam(Object val) {
+        AbstractWrapper<?, ?, ?> target = paramTarget();
+        int seq = target.paramNameSeq.incrementAndGet();
+        target.paramNameValuePairs.put(Constants.WRAPPER_PARAM + seq, val);
+        return PARAM_PLACEHOLDER_PREFIX + seq + StringPool.RIGHT_BRACE;
+    }
+
+    /**
+     * 生成的参数写入的 wrapper, 复制期间为复制出的 wrapper
+     */
+    private AbstractWrapper<?, ?, ?> paramTarget() {
+        AbstractWrapper<?, ?, ?> target = COPY_TARGET.get();
+        return null == target ? this : target;
+    }
+
+    /**
+     * 解析 {i} 中的下标 i, 写法需与 String.valueOf(i) 一致
+     *
+     * @return 下标, 不是下标返回 -1
+     */
+    private static int placeholderIndex(String sqlStr, int start, int end) {
+        int length = end - start;
+        if (length < 1 || length > 9 || (length > 1 && sqlStr.charAt(start) == '0')) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = start; i < end; i++) {
+            char c = sqlStr.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index;
+    }
+
     /**
      * 获取in表达式 包含括号
      *
+     * @param value   集合
+     * @param maxSize 补齐后的最大个数
+     */
+    private ISqlSegment inExpression(Collection<?> value, int maxSize) {
+        return () -> {
+            int padded = isInListPadding() ? Math.min(SqlUtils.paddedInListSize(value.size()), maxSize) : value.size();
+            if (padded == value.size()) {
+                return value.stream().map(this::formatParam)
+                    .collect(joining(StringPool.COMMA, StringPool.LEFT_BRACKET, StringPool.RIGHT_BRACKET));
+            }
+            // 补齐的位置重复最后一个值的参数占位符
+            StringJoiner joiner = new StringJoiner(StringPool.COMMA, StringPool.LEFT_BRACKET, StringPool.RIGHT_BRACKET);
+            String last = null;
+            for (Object i : value) {
+                last = formatParam(i);
+                joiner.add(last);
+            }
+            for (int i = value.size(); i < padded; i++) {
+                joiner.add(last);
+            }
+            return joiner.toString();
+        };
+    }
+
+    /**
+     * 获取拆分后的 in 表达式: (col IN (...) OR col IN (...))
+     *
+     * @param column    字段
+     * @param value     集合
+     * @param chunkSize 每个 IN 列表的最大个数
+     */
+    private ISqlSegment inChunkExpression(R column, Collection<?> value, int chunkSize) {
+        return () -> {
+            String columnSql = columnToString(column) + StringPool.SPACE + IN.getSqlSegment() + StringPool.SPACE;
+            List<?> list = new ArrayList<>(value);
+            StringJoiner joiner = new StringJoiner(StringPool.SPACE + OR.getSqlSegment() + StringPool.SPACE,
+                StringPool.LEFT_BRACKET, StringPool.RIGHT_BRACKET);
+            for (int i = 0; i < list.size(); i += chunkSize) {
+                List<?> chunk = list.subList(i, Math.min(i + chunkSize, list.size()));
+                joiner.add(columnSql + inExpression(chunk, chunkSize).getSqlSegment());
+            }
+            return joiner.toString();
+        };
+    }
+
+    /**
+     * 格式化为数组参数, 由 {@link SqlArrayTypeHandler} 绑定
+     *
      * @param value 集合
+     * @return #{ew.paramNameValuePairs.MPGENVALn,typeHandler=...}
      */
-    private ISqlSegment inExpression(Collection<?> value) {
-        return () -> value.stream().map(i -> formatSql("{0}", i))
-            .collect(joining(StringPool.COMMA, StringPool.LEFT_BRACKET, StringPool.RIGHT_BRACKET));
+    private String formatArrayParam(Collection<?> value) {
+        String param = formatParam(value);
+        return param.substring(0, param.length() - 1) + StringPool.COMMA + "typeHandler="
+            + SqlArrayTypeHandler.class.getName() + StringPool.RIGHT_BRACE;
     }
 
     /**
@@ -468,7 +666,9 @@ public abstract class AbstractWrapper<T, R, Children extends AbstractWrapper<T,
 
     @Override
     public String getSqlSegment() {
-        return expression.getSqlSegment() + lastSql.getStringValue();
+        // 作为嵌套条件被复制时只渲染, 不写入缓存
+        String sqlSegment = null == COPY_TARGET.get() ? expression.getSqlSegment() : expression.peekSqlSegment();
+        return sqlSegment + lastSql.getStringValue();
     }
 
     @Override
@@ -512,9 +712,47 @@ public abstract class AbstractWrapper<T, R, Children extends AbstractWrapper<T,
         return Arrays.stream(columns).map(this::columnToString).collect(joining(StringPool.COMMA));
     }
 
+    /**
+     * 结构复制, 替代原先的序列化深复制
+     * <p>
+     * 条件片段固化为当前的 sql 片段后复制, 参数、参数序号与 lastSql 等各自独立, entity 为同一引用;
+     * 复制过程不修改当前 wrapper, 未再修改的 wrapper 可在多个线程中同时复制
+     * </p>
+     */
     @Override
     @SuppressWarnings("all")
     public Children clone() {
-        return SerializationUtils.clone(typedThis);
+        return copyTo(instance());
+    }
+
+    /**
+     * 复制条件与参数到新实例
+     *
+     * @param clone 新实例
+     * @return clone
+     * @since 3.3.2
+     */
+    protected Children copyTo(Children clone) {
+        // 先复制参数, 固化片段时产生的新参数只写入 clone
+        clone.paramNameSeq = new AtomicInteger(paramNameSeq.get());
+        clone.paramNameValuePairs = new HashMap<>(paramNameValuePairs);
+        AbstractWrapper<?, ?, ?> previous = COPY_TARGET.get();
+        COPY_TARGET.set(clone);
+        try {
+            clone.expression = expression.copy();
+        } finally {
+            if (null == previous) {
+                COPY_TARGET.remove();
+            } else {
+                COPY_TARGET.set(previous);
+            }
+        }
+        clone.lastSql = new SharedString(lastSql.getStringValue());
+        clone.sqlComment = new SharedString(sqlComment.getStringValue());
+        clone.sqlFirst = new SharedString(sqlFirst.getStringValue());
+        clone.inListPadding = inListPadding;
+        clone.setEntity(entity);
+        clone.setEntityClass(entityClass);
+        return clone;
     }
 }
@@ -129,6 +129,13 @@ public class LambdaQueryWrapper<T> extends AbstractLambdaWrapper<T, LambdaQueryW
             new MergeSegments(), SharedString.emptyString(), SharedString.emptyString(), SharedString.emptyString());
     }
 
+    @Override
+    public LambdaQueryWrapper<T> clone() {
+        LambdaQueryWrapper<T> clone = super.clone();
+        clone.sqlSelect = null == sqlSelect ? null : new SharedString(sqlSelect.getStringValue());
+        return clone;
+    }
+
     @Override
     public void clear() {
         super.clear();
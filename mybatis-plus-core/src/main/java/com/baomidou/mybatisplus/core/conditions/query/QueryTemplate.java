@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.core.conditions.query;
+
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.conditions.segments.MergeSegments;
+import com.baomidou.mybatisplus.core.toolkit.Assert;
+import com.baomidou.mybatisplus.core.toolkit.ExceptionUtils;
+import com.baomidou.mybatisplus.core.toolkit.StringPool;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 预编译的查询模板
+ * <p>
+ * 由 wrapper 构建一次, 条件值使用 {@link #param(int)} 占位, 之后每次 {@link #bind(Object...)} 只绑定参数值,
+ * 不再构建条件片段、解析 lambda 与拼接 sql, 且每次得到的 sql 文本完全相同
+ * </p>
+ * <p>
+ * 例: QueryTemplate&lt;User&gt; t = Wrappers.template(w -&gt; w.eq(User::getOrg, param(1)).ge(User::getAge, param(2)));
+ * userMapper.selectList(t.bind("mp", 18));
+ * </p>
+ * <p>
+ * 占位参数可用于 eq、ne、gt、ge、lt、le、between、like 系列、apply 等单值参数, like 系列绑定的值不能为 null;
+ * in 与 notIn 的参数个数在编译时即已确定, 占位参数只能代替其中的单个值, 绑定时不能传入集合或数组,
+ * 按数组绑定的 in 不能使用占位参数; 模板不可变, 线程安全
+ * </p>
+ *
+ * @since 3.3.2
+ */
+public final class QueryTemplate<T> implements Serializable {
+
+    private static final long serialVersionUID = -3178466380725463216L;
+
+    private final String sqlSegment;
+    private final String customSqlSegment;
+    private final String sqlSelect;
+    private final String sqlFirst;
+    private final String sqlComment;
+    private final boolean emptyOfNormal;
+    /**
+     * 固定的参数
+     */
+    private final Map<String, Object> constants;
+    /**
+     * 需要绑定的参数名
+     */
+    private final String[] names;
+    /**
+     * 参数名对应的占位参数下标(从 0 开始)
+     */
+    private final int[] indexes;
+    /**
+     * 字符串模板(例如 like 的 %值%), null 表示直接使用绑定值
+     */
+    private final String[] patterns;
+    private final int paramCount;
+
+    private QueryTemplate(AbstractWrapper<T, ?, ?> wrapper) {
+        Assert.isNull(wrapper.getEntity(), "query template does not support entity conditions");
+        this.sqlSegment = wrapper.getSqlSegment();
+        this.customSqlSegment = wrapper.getCustomSqlSegment();
+        this.sqlSelect = wrapper.getSqlSelect();
+        this.sqlFirst = wrapper.getSqlFirst();
+        this.sqlComment = wrapper.getSqlComment();
+        this.emptyOfNormal = wrapper.isEmptyOfNormal();
+        Map<String, Object> constants = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        List<String> patterns = new ArrayList<>();
+        int paramCount = 0;
+        for (Map.Entry<String, Object> entry : wrapper.getParamNameValuePairs().entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Collection) {
+                // 按数组绑定的 in, 整个集合是一个参数, 元素个数编译时即已确定
+                for (Object element : (Collection<?>) value) {
+                    if (element instanceof Param) {
+                        throw ExceptionUtils.mpe("query template param(%s) can not be used in an array bound in/notIn",
+                            ((Param) element).index);
+                    }
+                }
+            }
+            Param param = value instanceof Param ? (Param) value : Param.find(value);
+            if (null == param) {
+                constants.put(entry.getKey(), value);
+                continue;
+            }
+            names.add(entry.getKey());
+            indexes.add(param.index - 1);
+            patterns.add(value instanceof Param ? null : (String) value);
+            paramCount = Math.max(paramCount, param.index);
+        }
+        for (int i = 1; i <= paramCount; i++) {
+            if (!indexes.contains(i - 1)) {
+                throw ExceptionUtils.mpe("query template param(%s) is not used", i);
+            }
+        }
+        this.constants = Collections.unmodifiableMap(constants);
+        this.names = names.toArray(new String[0]);
+        this.indexes = indexes.stream().mapToInt(Integer::intValue).toArray();
+        this.patterns = patterns.toArray(new String[0]);
+        this.paramCount = paramCount;
+    }
+
+    /**
+     * 编译 wrapper 为查询模板, 编译后 wrapper 不应再被修改
+     *
+     * @param wrapper 使用 {@link #param(int)} 占位的 wrapper
+     * @return 查询模板
+     */
+    public static <T> QueryTemplate<T> compile(AbstractWrapper<T, ?, ?> wrapper) {
+        return new QueryTemplate<>(wrapper);
+    }
+
+    /**
+     * 占位参数
+     *
+     * @param index 下标, 从 1 开始
+     * @return 占位参数
+     */
+    public static Param param(int index) {
+        Assert.isTrue(index > 0, "query template param index must start from 1, but got %s", index);
+        return new Param(index);
+    }
+
+    /**
+     * 绑定参数值
+     *
+     * @param values 参数值, 顺序与 param 下标一致
+     * @return 可直接传入 mapper 的 wrapper
+     */
+    public Wrapper<T> bind(Object... values) {
+        int length = null == values ? 0 : values.length;
+        Assert.isTrue(length == paramCount, "query template requires %s params, but got %s", paramCount, length);
+        Map<String, Object> paramNameValuePairs = new HashMap<>((constants.size() + names.length) * 4 / 3 + 1);
+        paramNameValuePairs.putAll(constants);
+        for (int i = 0; i < names.length; i++) {
+            Object value = values[indexes[i]];
+            if (value instanceof Collection || (null != value && value.getClass().isArray())) {
+                throw ExceptionUtils.mpe("query template param(%s) binds a single value, in/notIn values are fixed when compiled",
+                    indexes[i] + 1);
+            }
+            if (null != patterns[i]) {
+                Assert.notNull(value, "query template param(%s) is used in a like pattern and must not be null", indexes[i] + 1);
+                value = patterns[i].replace(Param.token(indexes[i] + 1), String.valueOf(value));
+            }
+            paramNameValuePairs.put(names[i], value);
+        }
+        return new BoundWrapper<>(this, paramNameValuePairs);
+    }
+
+    public String getSqlSegment() {
+        return sqlSegment;
+    }
+
+    public int getParamCount() {
+        return paramCount;
+    }
+
+    /**
+     * 占位参数
+     */
+    public static final class Param implements Serializable {
+
+        private static final long serialVersionUID = 4283412563213461597L;
+        private static final String TOKEN_PREFIX = "{mp-template-param-";
+
+        private final int index;
+
+        private Param(int index) {
+            this.index = index;
+        }
+
+        private static String token(int index) {
+            return TOKEN_PREFIX + index + StringPool.RIGHT_BRACE;
+        }
+
+        /**
+         * 查找字符串参数(例如 like 拼接后的值)中的占位参数
+         */
+        private static Param find(Object value) {
+            if (value instanceof String) {
+                String str = (String) value;
+                int start = str.indexOf(TOKEN_PREFIX);
+                if (start >= 0) {
+                    int end = str.indexOf(StringPool.RIGHT_BRACE, start);
+                    return new Param(Integer.parseInt(str.substring(start + TOKEN_PREFIX.length(), end)));
+                }
+            }
+            return null;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        @Override
+        public String toString() {
+            return token(index);
+        }
+    }
+
+    /**
+     * 绑定参数后的 wrapper, 只读
+     */
+    private static final class BoundWrapper<T> extends Wrapper<T> {
+
+        private static final long serialVersionUID = -6102536455862046208L;
+
+        private final QueryTemplate<T> template;
+        private final Map<String, Object> paramNameValuePairs;
+
+        private BoundWrapper(QueryTemplate<T> template, Map<String, Object> paramNameValuePairs) {
+            this.template = template;
+            this.paramNameValuePairs = paramNameValuePairs;
+        }
+
+        @Override
+        public T getEntity() {
+            return null;
+        }
+
+        @Override
+        public String getSqlSelect() {
+            return template.sqlSelect;
+        }
+
+        @Override
+        public String getSqlFirst() {
+            return template.sqlFirst;
+        }
+
+        @Override
+        public String getSqlComment() {
+            return template.sqlComment;
+        }
+
+        @Override
+        public MergeSegments getExpression() {
+            return null;
+        }
+
+        @Override
+        public String getCustomSqlSegment() {
+            return template.customSqlSegment;
+        }
+
+        @Override
+        public boolean isEmptyOfNormal() {
+            return template.emptyOfNormal;
+        }
+
+        @Override
+        public String getSqlSegment() {
+            return template.sqlSegment;
+        }
+
+        public Map<String, Object> getParamNameValuePairs() {
+            return paramNameValuePairs;
+        }
+
+        @Override
+        public void clear() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -99,8 +99,9 @@ public class QueryWrapper<T> extends AbstractWrapper<T, String, QueryWrapper<T>>
      * 返回一个支持 lambda 函数写法的 wrapper
      */
     public LambdaQueryWrapper<T> lambda() {
-        return new LambdaQueryWrapper<>(getEntity(), getEntityClass(), sqlSelect, paramNameSeq, paramNameValuePairs,
-            expression, lastSql, sqlComment, sqlFirst);
+        LambdaQueryWrapper<T> wrapper = new LambdaQueryWrapper<>(getEntity(), getEntityClass(), sqlSelect, paramNameSeq,
+            paramNameValuePairs, expression, lastSql, sqlComment, sqlFirst);
+        return null == inListPadding ? wrapper : wrapper.inListPadding(inListPadding);
     }
 
     /**
@@ -115,6 +116,13 @@ public class QueryWrapper<T> extends AbstractWrapper<T, String, QueryWrapper<T>>
             SharedString.emptyString(), SharedString.emptyString(), SharedString.emptyString());
     }
 
+    @Override
+    public QueryWrapper<T> clone() {
+        QueryWrapper<T> clone = super.clone();
+        clone.sqlSelect = null == sqlSelect ? null : new SharedString(sqlSelect.getStringValue());
+        return clone;
+    }
+
     @Override
     public void clear() {
         super.clear();
@@ -16,10 +16,13 @@
 package com.baomidou.mybatisplus.core.conditions.segments;
 
 import com.baomidou.mybatisplus.core.conditions.ISqlSegment;
+import com.baomidou.mybatisplus.core.enums.SqlKeyword;
+import com.baomidou.mybatisplus.core.enums.WrapperKeyword;
 import com.baomidou.mybatisplus.core.toolkit.StringPool;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -56,7 +59,22 @@ public abstract class AbstractISegmentList extends ArrayList<ISqlSegment> implem
      */
     @Override
     public boolean addAll(Collection<? extends ISqlSegment> c) {
-        List<ISqlSegment> list = new ArrayList<>(c);
+        return addList(new ArrayList<>(c));
+    }
+
+    /**
+     * 添加 SQL 片段数组, 直接构建可修改的集合(预留 not 的位置), 不经过 Arrays.asList 再复制
+     *
+     * @param sqlSegments 元素数组
+     * @return 是否添加成功
+     */
+    boolean addAll(ISqlSegment[] sqlSegments) {
+        List<ISqlSegment> list = new ArrayList<>(sqlSegments.length + 1);
+        Collections.addAll(list, sqlSegments);
+        return addList(list);
+    }
+
+    private boolean addList(List<ISqlSegment> list) {
         boolean goon = transformList(list, list.get(0), list.get(list.size() - 1));
         if (goon) {
             cacheSqlSegment = false;
@@ -94,6 +112,50 @@ public abstract class AbstractISegmentList extends ArrayList<ISqlSegment> implem
         flushLastValue(this);
     }
 
+    /**
+     * 复制 source 的片段与状态
+     * <p>
+     * 关键字以外的片段固化为当前的 sql 片段后放入当前集合, source 保持不变
+     * </p>
+     *
+     * @param source 源集合
+     */
+    void copyFrom(AbstractISegmentList source) {
+        ensureCapacity(source.size());
+        lastValue = source.lastValue;
+        for (ISqlSegment segment : source) {
+            if (!(segment instanceof SqlKeyword || segment instanceof WrapperKeyword || segment instanceof FrozenSegment)) {
+                ISqlSegment frozen = new FrozenSegment(segment.getSqlSegment());
+                if (segment == source.lastValue) {
+                    lastValue = frozen;
+                }
+                segment = frozen;
+            }
+            super.add(segment);
+        }
+        flushLastValue = source.flushLastValue;
+        sqlSegment = source.sqlSegment;
+        cacheSqlSegment = source.cacheSqlSegment;
+    }
+
+    /**
+     * 当前的 sql 片段, 不写入缓存也不修改集合
+     *
+     * @return sql 片段
+     */
+    String peekSqlSegment() {
+        return cacheSqlSegment ? sqlSegment : peekChildrenSqlSegment();
+    }
+
+    /**
+     * 与 {@link #childrenSqlSegment()} 结果一致, 但不修改集合
+     *
+     * @return sqlSegment
+     */
+    String peekChildrenSqlSegment() {
+        return childrenSqlSegment();
+    }
+
     @Override
     public String getSqlSegment() {
         if (cacheSqlSegment) {
@@ -120,4 +182,23 @@ public abstract class AbstractISegmentList extends ArrayList<ISqlSegment> implem
         sqlSegment = EMPTY;
         cacheSqlSegment = true;
     }
+
+    /**
+     * 固化后的 sql 片段, 不可变, 可在复制出的 wrapper 之间共享
+     */
+    private static final class FrozenSegment implements ISqlSegment {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String sqlSegment;
+
+        FrozenSegment(String sqlSegment) {
+            this.sqlSegment = sqlSegment;
+        }
+
+        @Override
+        public String getSqlSegment() {
+            return sqlSegment;
+        }
+    }
 }
@@ -20,9 +20,6 @@ import com.baomidou.mybatisplus.core.toolkit.StringPool;
 import lombok.AccessLevel;
 import lombok.Getter;
 
-import java.util.Arrays;
-import java.util.List;
-
 /**
  * 合并 SQL 片段
  *
@@ -44,16 +41,15 @@ public class MergeSegments implements ISqlSegment {
     private boolean cacheSqlSegment = true;
 
     public void add(ISqlSegment... iSqlSegments) {
-        List<ISqlSegment> list = Arrays.asList(iSqlSegments);
-        ISqlSegment firstSqlSegment = list.get(0);
+        ISqlSegment firstSqlSegment = iSqlSegments[0];
         if (MatchSegment.ORDER_BY.match(firstSqlSegment)) {
-            orderBy.addAll(list);
+            orderBy.addAll(iSqlSegments);
         } else if (MatchSegment.GROUP_BY.match(firstSqlSegment)) {
-            groupBy.addAll(list);
+            groupBy.addAll(iSqlSegments);
         } else if (MatchSegment.HAVING.match(firstSqlSegment)) {
-            having.addAll(list);
+            having.addAll(iSqlSegments);
         } else {
-            normal.addAll(list);
+            normal.addAll(iSqlSegments);
         }
         cacheSqlSegment = false;
     }
@@ -74,6 +70,45 @@ public class MergeSegments implements ISqlSegment {
         return sqlSegment;
     }
 
+    /**
+     * 当前的 sql 片段, 与 {@link #getSqlSegment()} 结果一致但不写入缓存, 也不修改各片段集合
+     *
+     * @return sql 片段
+     * @since 3.3.2
+     */
+    public String peekSqlSegment() {
+        if (cacheSqlSegment) {
+            return sqlSegment;
+        }
+        if (normal.isEmpty()) {
+            if (!groupBy.isEmpty() || !orderBy.isEmpty()) {
+                return groupBy.peekSqlSegment() + having.peekSqlSegment() + orderBy.peekSqlSegment();
+            }
+            return sqlSegment;
+        }
+        return normal.peekSqlSegment() + groupBy.peekSqlSegment() + having.peekSqlSegment() + orderBy.peekSqlSegment();
+    }
+
+    /**
+     * 结构复制
+     * <p>
+     * 除关键字外的片段固化为当前的 sql 片段, 复制后的片段不再引用原 wrapper, 原 wrapper 的片段保持不变
+     * </p>
+     *
+     * @return 新的 MergeSegments
+     * @since 3.3.2
+     */
+    public MergeSegments copy() {
+        MergeSegments copy = new MergeSegments();
+        copy.normal.copyFrom(normal);
+        copy.groupBy.copyFrom(groupBy);
+        copy.having.copyFrom(having);
+        copy.orderBy.copyFrom(orderBy);
+        copy.sqlSegment = sqlSegment;
+        copy.cacheSqlSegment = cacheSqlSegment;
+        return copy;
+    }
+
     /**
      * 清理
      *
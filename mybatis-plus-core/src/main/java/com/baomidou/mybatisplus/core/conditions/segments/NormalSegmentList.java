@@ -19,7 +19,6 @@ import com.baomidou.mybatisplus.core.conditions.ISqlSegment;
 import com.baomidou.mybatisplus.core.enums.SqlKeyword;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * 普通片段
@@ -89,8 +88,30 @@ public class NormalSegmentList extends AbstractISegmentList {
         if (MatchSegment.AND_OR.match(lastValue)) {
             removeAndFlushLast();
         }
-        final String str = this.stream().map(ISqlSegment::getSqlSegment).collect(Collectors.joining(SPACE));
-        return (LEFT_BRACKET + str + RIGHT_BRACKET);
+        return joinSqlSegment(size());
+    }
+
+    @Override
+    String peekChildrenSqlSegment() {
+        // 末尾的 and 或者 or 不参与拼接, 但不移除
+        return joinSqlSegment(MatchSegment.AND_OR.match(lastValue) ? size() - 1 : size());
+    }
+
+    private String joinSqlSegment(int size) {
+        StringBuilder sql = new StringBuilder(size * 16).append(LEFT_BRACKET);
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sql.append(SPACE);
+            }
+            sql.append(get(i).getSqlSegment());
+        }
+        return sql.append(RIGHT_BRACKET).toString();
+    }
+
+    @Override
+    void copyFrom(AbstractISegmentList source) {
+        super.copyFrom(source);
+        executeNot = ((NormalSegmentList) source).executeNot;
     }
 
     @Override
@@ -89,7 +89,7 @@ public class LambdaUpdateWrapper<T> extends AbstractLambdaWrapper<T, LambdaUpdat
     @Override
     public LambdaUpdateWrapper<T> set(boolean condition, SFunction<T, ?> column, Object val) {
         if (condition) {
-            sqlSet.add(String.format("%s=%s", columnToString(column), formatSql("{0}", val)));
+            sqlSet.add(columnToString(column) + StringPool.EQUALS + formatParam(val));
         }
         return typedThis;
     }
@@ -116,6 +116,12 @@ public class LambdaUpdateWrapper<T> extends AbstractLambdaWrapper<T, LambdaUpdat
             new MergeSegments(), SharedString.emptyString(), SharedString.emptyString(), SharedString.emptyString());
     }
 
+    @Override
+    public LambdaUpdateWrapper<T> clone() {
+        return copyTo(new LambdaUpdateWrapper<>(getEntity(), getEntityClass(), null == sqlSet ? null : new ArrayList<>(sqlSet),
+            null, null, null, null, null, null));
+    }
+
     @Override
     public void clear() {
         super.clear();
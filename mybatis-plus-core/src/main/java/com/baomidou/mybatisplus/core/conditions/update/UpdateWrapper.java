@@ -77,7 +77,7 @@ public class UpdateWrapper<T> extends AbstractWrapper<T, String, UpdateWrapper<T
     @Override
     public UpdateWrapper<T> set(boolean condition, String column, Object val) {
         if (condition) {
-            sqlSet.add(String.format("%s=%s", column, formatSql("{0}", val)));
+            sqlSet.add(column + StringPool.EQUALS + formatParam(val));
         }
         return typedThis;
     }
@@ -94,8 +94,9 @@ public class UpdateWrapper<T> extends AbstractWrapper<T, String, UpdateWrapper<T
      * 返回一个支持 lambda 函数写法的 wrapper
      */
     public LambdaUpdateWrapper<T> lambda() {
-        return new LambdaUpdateWrapper<>(getEntity(), getEntityClass(), sqlSet, paramNameSeq, paramNameValuePairs,
-            expression, lastSql, sqlComment, sqlFirst);
+        LambdaUpdateWrapper<T> wrapper = new LambdaUpdateWrapper<>(getEntity(), getEntityClass(), sqlSet, paramNameSeq,
+            paramNameValuePairs, expression, lastSql, sqlComment, sqlFirst);
+        return null == inListPadding ? wrapper : wrapper.inListPadding(inListPadding);
     }
 
     @Override
@@ -104,6 +105,12 @@ public class UpdateWrapper<T> extends AbstractWrapper<T, String, UpdateWrapper<T
             SharedString.emptyString(), SharedString.emptyString(), SharedString.emptyString());
     }
 
+    @Override
+    public UpdateWrapper<T> clone() {
+        return copyTo(new UpdateWrapper<>(getEntity(), null == sqlSet ? null : new ArrayList<>(sqlSet), null, null,
+            null, null, null, null));
+    }
+
     @Override
     public void clear() {
         super.clear();
@@ -170,5 +170,56 @@ public class GlobalConfig implements Serializable {
          * @since 3.1.2
          */
         private FieldStrategy selectStrategy = FieldStrategy.NOT_NULL;
+        /**
+         * 是否补齐 IN 列表参数个数(默认 false)
+         * <p>
+         * 开启后 wrapper 的 in/notIn 与 selectBatchIds 的参数个数补齐到 8、16、32... (最多 1000),
+         * 多出的位置重复最后一个值, 使同一字段只产生少数几种 SQL, 提高数据库与驱动的预编译语句缓存命中率
+         * </p>
+         *
+         * @since 3.3.2
+         */
+        private boolean inListPadding = false;
+        /**
+         * IN 列表拆分个数(默认 1000, 小于等于 0 不拆分)
+         * <p>
+         * wrapper 的 in/notIn 参数个数超过该值时拆分为 (col IN (...) OR col IN (...)),
+         * 以避开 Oracle 单个 IN 列表 1000 个的限制
+         * </p>
+         *
+         * @since 3.3.2
+         */
+        private int inListChunkSize = 1000;
+        /**
+         * IN 列表是否绑定为一个数组参数(默认 false, 仅 PostgreSQL 等支持 ANY(数组) 的数据库可开启)
+         * <p>
+         * 开启后 wrapper 的 in/notIn 与 selectBatchIds 生成 col = ANY(?), 由 {@link com.baomidou.mybatisplus.core.handlers.SqlArrayTypeHandler} 绑定数组,
+         * 无论参数多少都只有一种 SQL
+         * </p>
+         *
+         * @since 3.3.2
+         */
+        private boolean inListArrayBinding = false;
+        /**
+         * IService.saveBatch 是否使用多行 insert(默认 false)
+         * <p>
+         * 开启后为每个 mapper 注入 insertMultiRow, saveBatch 按插入字段分组后生成 INSERT INTO t (...) VALUES (...),(...),
+         * 每条语句的行数受 batchSize 与数据库绑定参数个数上限限制;
+         * 数据库不支持多行 VALUES、主键为数据库自增或 sequence 时仍逐条 insert
+         * </p>
+         *
+         * @since 3.3.2
+         */
+        private boolean multiRowInsert = false;
+        /**
+         * IService.updateBatchById 是否按 set 字段分组(默认 false)
+         * <p>
+         * 开启后按实体 set 字段(非 null 字段)是否一致分组, 同组数据连续执行, 使每组 sql 相同的语句合并为同一个 JDBC 批次;
+         * 存在重复主键时不分组, 按传入顺序执行
+         * </p>
+         *
+         * @since 3.3.2
+         */
+        private boolean groupUpdateBatch = false;
     }
 }
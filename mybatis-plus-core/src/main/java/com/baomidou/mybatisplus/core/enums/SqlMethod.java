@@ -26,6 +26,7 @@ public enum SqlMethod {
      * 插入
      */
     INSERT_ONE("insert", "插入一条数据（选择字段插入）", "<script>\nINSERT INTO %s %s VALUES %s\n</script>"),
+    INSERT_MULTI_ROW("insertMultiRow", "批量插入数据（按第一条数据选择字段插入）", "<script>\nINSERT INTO %s %s VALUES %s\n</script>"),
     UPSERT_ONE("upsert", "Phoenix插入一条数据（选择字段插入）", "<script>\nUPSERT INTO %s %s VALUES %s\n</script>"),
 
     /**
@@ -15,6 +15,10 @@
  */
 package com.baomidou.mybatisplus.core.executor;
 
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.baomidou.mybatisplus.core.toolkit.ReflectionKit;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.BatchExecutorException;
 import org.apache.ibatis.executor.BatchResult;
@@ -35,10 +39,21 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * 重写执行器 {@link org.apache.ibatis.executor.BatchExecutor}
+ * <p>
+ * 开启按 sql 分组({@link com.baomidou.mybatisplus.core.MybatisConfiguration#isGroupBatchBySql()})时,
+ * 同一 MappedStatement 且 sql 相同的语句在两次 flushStatements 之间尽量复用同一个 Statement, 各组按首次出现的顺序执行.
+ * 合并到更早的组会使语句提前执行, 因此只在不改变执行结果时合并:
+ * 之后打开的各组都属于同一个 MappedStatement, 且都不包含相同主键的实体;
+ * 参数不是实体(或 et 参数)、主键值为空时只与上一条语句比较, 与原生 BatchExecutor 一致
+ * </p>
  *
  * @author nieqiurong 2019/4/14.
  */
@@ -49,9 +64,32 @@ public class MybatisBatchExecutor extends AbstractBaseExecutor {
     private final List<BatchResult> batchResultList = new ArrayList<>();
     private String currentSql;
     private MappedStatement currentStatement;
+    /**
+     * 是否按 sql 分组
+     */
+    private final boolean groupBySql;
+    /**
+     * 按 sql 分组时 MappedStatement 与 sql 对应的最近一个 Statement 的下标
+     */
+    private final Map<MappedStatement, Map<String, Integer>> statementIndexes = new HashMap<>();
+    /**
+     * 按 sql 分组时各 Statement 中实体的主键值, 存在无法确定主键的语句时为 null
+     */
+    private final List<Set<Object>> statementKeys = new ArrayList<>();
 
     public MybatisBatchExecutor(Configuration configuration, Transaction transaction) {
+        this(configuration, transaction, false);
+    }
+
+    /**
+     * @param configuration 配置
+     * @param transaction   事务
+     * @param groupBySql    是否按 sql 分组
+     * @since 3.3.2
+     */
+    public MybatisBatchExecutor(Configuration configuration, Transaction transaction, boolean groupBySql) {
         super(configuration, transaction);
+        this.groupBySql = groupBySql;
     }
 
     @Override
@@ -61,13 +99,17 @@ public class MybatisBatchExecutor extends AbstractBaseExecutor {
         final BoundSql boundSql = handler.getBoundSql();
         final String sql = boundSql.getSql();
         final Statement stmt;
-        if (sql.equals(currentSql) && ms.equals(currentStatement)) {
-            int last = statementList.size() - 1;
-            stmt = statementList.get(last);
+        final Object key = groupBySql ? entityKey(parameterObject) : null;
+        final int index = statementIndex(ms, sql, key);
+        if (index >= 0) {
+            stmt = statementList.get(index);
             applyTransactionTimeout(stmt);
             handler.parameterize(stmt);//fix Issues 322
-            BatchResult batchResult = batchResultList.get(last);
+            BatchResult batchResult = batchResultList.get(index);
             batchResult.addParameterObject(parameterObject);
+            if (groupBySql) {
+                statementKeys.set(index, addKey(statementKeys.get(index), key));
+            }
         } else {
             Connection connection = getConnection(ms.getStatementLog());
             stmt = handler.prepare(connection, transaction.getTimeout());
@@ -77,6 +119,10 @@ public class MybatisBatchExecutor extends AbstractBaseExecutor {
             handler.parameterize(stmt);    //fix Issues 322
             currentSql = sql;
             currentStatement = ms;
+            if (groupBySql) {
+                statementIndexes.computeIfAbsent(ms, k -> new HashMap<>()).put(sql, statementList.size());
+                statementKeys.add(addKey(new HashSet<>(), key));
+            }
             statementList.add(stmt);
             batchResultList.add(new BatchResult(ms, sql, parameterObject));
         }
@@ -84,6 +130,80 @@ public class MybatisBatchExecutor extends AbstractBaseExecutor {
         return BATCH_UPDATE_RETURN_VALUE;
     }
 
+    /**
+     * 查找可复用的 Statement
+     *
+     * @param ms  MappedStatement
+     * @param sql sql
+     * @param key 实体主键值, 无法确定时为 null
+     * @return Statement 下标, 没有时返回 -1
+     */
+    private int statementIndex(MappedStatement ms, String sql, Object key) {
+        if (sql.equals(currentSql) && ms.equals(currentStatement)) {
+            return statementList.size() - 1;
+        }
+        if (groupBySql && null != key) {
+            Map<String, Integer> indexes = statementIndexes.get(ms);
+            Integer index = null == indexes ? null : indexes.get(sql);
+            if (null != index && canMoveBefore(index, ms, key)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 语句合并到 index 对应的组时, 会在之后打开的各组之前执行;
+     * 这些组都属于同一个 MappedStatement 且不包含相同主键时, 执行结果不变
+     *
+     * @param index Statement 下标
+     * @param ms    MappedStatement
+     * @param key   实体主键值
+     * @return 是否可以合并
+     */
+    private boolean canMoveBefore(int index, MappedStatement ms, Object key) {
+        for (int i = index + 1, n = statementList.size(); i < n; i++) {
+            Set<Object> keys = statementKeys.get(i);
+            if (null == keys || keys.contains(key) || !ms.equals(batchResultList.get(i).getMappedStatement())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 记录主键值, 主键无法确定时该组不再允许之后的语句越过
+     */
+    private Set<Object> addKey(Set<Object> keys, Object key) {
+        if (null == keys || null == key) {
+            return null;
+        }
+        keys.add(key);
+        return keys;
+    }
+
+    /**
+     * 参数中实体的主键值
+     *
+     * @param parameterObject 参数, 实体或者包含 et 的 Map
+     * @return 主键值, 无法确定时返回 null
+     */
+    private Object entityKey(Object parameterObject) {
+        Object entity = parameterObject;
+        if (parameterObject instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) parameterObject;
+            entity = map.containsKey(Constants.ENTITY) ? map.get(Constants.ENTITY) : null;
+        }
+        if (null == entity) {
+            return null;
+        }
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(entity.getClass());
+        if (null == tableInfo || !tableInfo.havePK()) {
+            return null;
+        }
+        return ReflectionKit.getFieldValue(entity, tableInfo.getKeyProperty());
+    }
+
     @Override
     public <E> List<E> doQuery(MappedStatement ms, Object parameterObject, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql)
         throws SQLException {
@@ -166,6 +286,8 @@ public class MybatisBatchExecutor extends AbstractBaseExecutor {
                 closeStatement(stmt);
             }
             currentSql = null;
+            statementIndexes.clear();
+            statementKeys.clear();
             statementList.clear();
             batchResultList.clear();
         }
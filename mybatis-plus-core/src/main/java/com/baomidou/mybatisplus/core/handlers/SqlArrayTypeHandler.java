@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.core.handlers;
+
+import com.baomidou.mybatisplus.core.toolkit.ExceptionUtils;
+import com.baomidou.mybatisplus.core.toolkit.StringPool;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 集合/数组 与 {@link Array} 的类型处理器
+ * <p>
+ * 用于 PostgreSQL 的 col = ANY(?) 写法, 将整个集合绑定为一个数组参数, 数组类型按第一个非 null 元素推断
+ * </p>
+ *
+ * @since 3.3.2
+ */
+public class SqlArrayTypeHandler extends BaseTypeHandler<Object> {
+
+    private static final Map<Class<?>, String> TYPE_NAMES = new HashMap<>();
+
+    static {
+        TYPE_NAMES.put(Long.class, "bigint");
+        TYPE_NAMES.put(Integer.class, "integer");
+        TYPE_NAMES.put(Short.class, "smallint");
+        TYPE_NAMES.put(String.class, "varchar");
+        TYPE_NAMES.put(BigDecimal.class, "numeric");
+        TYPE_NAMES.put(Double.class, "float8");
+        TYPE_NAMES.put(Float.class, "float4");
+        TYPE_NAMES.put(Boolean.class, "boolean");
+        TYPE_NAMES.put(UUID.class, "uuid");
+        TYPE_NAMES.put(java.util.Date.class, "timestamp");
+        TYPE_NAMES.put(Timestamp.class, "timestamp");
+        TYPE_NAMES.put(LocalDateTime.class, "timestamp");
+        TYPE_NAMES.put(LocalDate.class, "date");
+    }
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, Object parameter, JdbcType jdbcType) throws SQLException {
+        if (parameter instanceof Array) {
+            ps.setArray(i, (Array) parameter);
+            return;
+        }
+        Object[] values = toArray(parameter);
+        String typeName = resolveTypeName(values);
+        if (null == typeName) {
+            // 空集合或元素全为 null 时无法推断类型, 以未指定类型的数组字面量绑定, 由数据库按列类型推断
+            ps.setObject(i, emptyArrayLiteral(values.length), Types.OTHER);
+            return;
+        }
+        // Array 需在语句执行时仍然有效, 不能在绑定后立即 free, 随 statement 关闭释放
+        ps.setArray(i, ps.getConnection().createArrayOf(typeName, values));
+    }
+
+    @Override
+    public Object getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return extractArray(rs.getArray(columnName));
+    }
+
+    @Override
+    public Object getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return extractArray(rs.getArray(columnIndex));
+    }
+
+    @Override
+    public Object getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return extractArray(cs.getArray(columnIndex));
+    }
+
+    protected Object[] toArray(Object parameter) {
+        if (parameter instanceof Collection) {
+            return ((Collection<?>) parameter).toArray();
+        }
+        if (parameter instanceof Object[]) {
+            return (Object[]) parameter;
+        }
+        throw ExceptionUtils.mpe("Unsupported array parameter type: %s", parameter.getClass().getName());
+    }
+
+    /**
+     * 数据库数组元素类型名, 按第一个非 null 元素推断
+     *
+     * @param values 数组元素
+     * @return 类型名, 空数组或元素全为 null 时返回 null
+     */
+    protected String resolveTypeName(Object[] values) {
+        Object first = Arrays.stream(values).filter(Objects::nonNull).findFirst().orElse(null);
+        if (null == first) {
+            return null;
+        }
+        String typeName = TYPE_NAMES.get(first.getClass());
+        if (null == typeName) {
+            throw ExceptionUtils.mpe("Unsupported array element type: %s", first.getClass().getName());
+        }
+        return typeName;
+    }
+
+    /**
+     * 全部为 null 的数组字面量, 如 {} 或 {NULL,NULL}
+     */
+    private String emptyArrayLiteral(int length) {
+        return StringPool.LEFT_BRACE + String.join(StringPool.COMMA, Collections.nCopies(length, "NULL")) + StringPool.RIGHT_BRACE;
+    }
+
+    private Object extractArray(Array array) throws SQLException {
+        if (null == array) {
+            return null;
+        }
+        try {
+            return array.getArray();
+        } finally {
+            array.free();
+        }
+    }
+}
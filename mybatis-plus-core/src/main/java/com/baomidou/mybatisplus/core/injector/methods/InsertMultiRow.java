@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.core.injector.methods;
+
+import com.baomidou.mybatisplus.core.enums.SqlMethod;
+import com.baomidou.mybatisplus.core.injector.AbstractMethod;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.toolkit.GlobalConfigUtils;
+import com.baomidou.mybatisplus.core.toolkit.sql.SqlScriptUtils;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlSource;
+
+/**
+ * 批量插入数据（按第一条数据选择字段插入）
+ * <p>
+ * 参数为实体集合, 字段是否插入按第一条数据判断, 调用方需保证同一批数据插入的字段一致(见 TableFieldInfo#isInsertColumn);
+ * 主键为数据库自增或 sequence 时不回写主键.
+ * 仅在开启 {@link com.baomidou.mybatisplus.core.config.GlobalConfig.DbConfig#isMultiRowInsert()} 时注入
+ * </p>
+ *
+ * @since 3.3.2
+ */
+@SuppressWarnings("all")
+public class InsertMultiRow extends AbstractMethod {
+
+    /**
+     * if 条件判断的对象: 第一条数据
+     */
+    private static final String FIRST_ROW_PREFIX = "list[0].";
+
+    @Override
+    public MappedStatement injectMappedStatement(Class<?> mapperClass, Class<?> modelClass, TableInfo tableInfo) {
+        if (!GlobalConfigUtils.getGlobalConfig(configuration).getDbConfig().isMultiRowInsert()) {
+            return null;
+        }
+        SqlMethod sqlMethod = SqlMethod.INSERT_MULTI_ROW;
+        String columnScript = SqlScriptUtils.convertTrim(tableInfo.getAllInsertSqlColumnMaybeIf(FIRST_ROW_PREFIX),
+            LEFT_BRACKET, RIGHT_BRACKET, null, COMMA);
+        String rowScript = SqlScriptUtils.convertTrim(tableInfo.getAllInsertSqlPropertyMaybeIf(ENTITY_DOT, FIRST_ROW_PREFIX),
+            LEFT_BRACKET, RIGHT_BRACKET, null, COMMA);
+        String valuesScript = SqlScriptUtils.convertForeach(rowScript, "list", null, ENTITY, COMMA);
+        String sql = String.format(sqlMethod.getSql(), tableInfo.getTableName(), columnScript, valuesScript);
+        SqlSource sqlSource = languageDriver.createSqlSource(configuration, sql, modelClass);
+        return this.addInsertMappedStatement(mapperClass, modelClass, getMethod(sqlMethod), sqlSource,
+            new NoKeyGenerator(), null, null);
+    }
+}
@@ -15,10 +15,14 @@
  */
 package com.baomidou.mybatisplus.core.injector.methods;
 
+import com.baomidou.mybatisplus.core.config.GlobalConfig;
 import com.baomidou.mybatisplus.core.enums.SqlMethod;
+import com.baomidou.mybatisplus.core.handlers.SqlArrayTypeHandler;
 import com.baomidou.mybatisplus.core.injector.AbstractMethod;
 import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.toolkit.GlobalConfigUtils;
 import com.baomidou.mybatisplus.core.toolkit.sql.SqlScriptUtils;
+import com.baomidou.mybatisplus.core.toolkit.sql.SqlUtils;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.SqlSource;
 
@@ -33,9 +37,21 @@ public class SelectBatchByIds extends AbstractMethod {
     @Override
     public MappedStatement injectMappedStatement(Class<?> mapperClass, Class<?> modelClass, TableInfo tableInfo) {
         SqlMethod sqlMethod = SqlMethod.SELECT_BATCH_BY_IDS;
-        SqlSource sqlSource = languageDriver.createSqlSource(configuration, String.format(sqlMethod.getSql(),
-            sqlSelectColumns(tableInfo, false), tableInfo.getTableName(), tableInfo.getKeyColumn(),
-            SqlScriptUtils.convertForeach("#{item}", COLLECTION, null, "item", COMMA),
+        GlobalConfig.DbConfig dbConfig = GlobalConfigUtils.getGlobalConfig(configuration).getDbConfig();
+        String sql = sqlMethod.getSql();
+        String ids;
+        if (dbConfig.isInListArrayBinding()) {
+            // key = ANY(?), 整个集合绑定为一个数组参数
+            sql = sql.replace(" IN (%s)", " = ANY(%s)");
+            ids = SqlScriptUtils.safeParam(COLLECTION + COMMA + "typeHandler=" + SqlArrayTypeHandler.class.getName());
+        } else {
+            // 开启 IN 列表补齐时通过 OGNL 静态方法补齐参数个数
+            String collection = dbConfig.isInListPadding()
+                ? AT + SqlUtils.class.getName() + AT + "padInList" + LEFT_BRACKET + COLLECTION + RIGHT_BRACKET : COLLECTION;
+            ids = SqlScriptUtils.convertForeach("#{item}", collection, null, "item", COMMA);
+        }
+        SqlSource sqlSource = languageDriver.createSqlSource(configuration, String.format(sql,
+            sqlSelectColumns(tableInfo, false), tableInfo.getTableName(), tableInfo.getKeyColumn(), ids,
             tableInfo.getLogicDeleteSql(true, true)), Object.class);
         return addSelectMappedStatementForTable(mapperClass, getMethod(sqlMethod), sqlSource, tableInfo);
     }
@@ -89,6 +89,16 @@ public interface IPage<T> extends Serializable {
         return true;
     }
 
+    /**
+     * 使用延迟关联(先按主键分页再回表)优化深分页【 默认：false 】
+     *
+     * @return true 是 / false 否
+     * @since 3.3.2
+     */
+    default boolean deferredJoin() {
+        return false;
+    }
+
     /**
      * 计算当前分页偏移量
      */
@@ -139,6 +149,26 @@ public interface IPage<T> extends Serializable {
         return false;
     }
 
+    /**
+     * 设置总记录数是否为估算值
+     *
+     * @param estimated 是否估算
+     * @since 3.3.2
+     */
+    default void totalEstimated(boolean estimated) {
+
+    }
+
+    /**
+     * 总记录数是否为估算值
+     *
+     * @return 是否估算
+     * @since 3.3.2
+     */
+    default boolean isTotalEstimated() {
+        return false;
+    }
+
     /**
      * 分页记录列表
      *
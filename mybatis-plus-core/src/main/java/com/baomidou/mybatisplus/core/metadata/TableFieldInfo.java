@@ -19,6 +19,7 @@ import com.baomidou.mybatisplus.annotation.*;
 import com.baomidou.mybatisplus.core.MybatisConfiguration;
 import com.baomidou.mybatisplus.core.config.GlobalConfig;
 import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.baomidou.mybatisplus.core.toolkit.ReflectionKit;
 import com.baomidou.mybatisplus.core.toolkit.StringUtils;
 import com.baomidou.mybatisplus.core.toolkit.sql.SqlScriptUtils;
 import lombok.*;
@@ -332,11 +333,23 @@ public class TableFieldInfo implements Constants {
      * @return sql 脚本片段
      */
     public String getInsertSqlPropertyMaybeIf(final String prefix) {
-        String sqlScript = getInsertSqlProperty(prefix);
-        if (withInsertFill) {
-            return sqlScript;
-        }
-        return convertIf(sqlScript, property, insertStrategy);
+        return getInsertSqlPropertyMaybeIf(prefix, null);
+    }
+
+    /**
+     * 获取 insert 时候插入值 sql 脚本片段
+     * <p>insert into table (字段) values (值)</p>
+     * <p>位于 "值" 部位</p>
+     *
+     * <li> 根据规则会生成 if 标签, if 条件判断 ifPrefix 对应的对象 </li>
+     *
+     * @param prefix   值的前缀
+     * @param ifPrefix if 条件的前缀
+     * @return sql 脚本片段
+     * @since 3.3.2
+     */
+    public String getInsertSqlPropertyMaybeIf(final String prefix, final String ifPrefix) {
+        return convertInsertIf(getInsertSqlProperty(prefix), ifPrefix);
     }
 
     /**
@@ -362,11 +375,75 @@ public class TableFieldInfo implements Constants {
      * @return sql 脚本片段
      */
     public String getInsertSqlColumnMaybeIf() {
-        final String sqlScript = getInsertSqlColumn();
+        return getInsertSqlColumnMaybeIf(null);
+    }
+
+    /**
+     * 获取 insert 时候字段 sql 脚本片段
+     * <p>insert into table (字段) values (值)</p>
+     * <p>位于 "字段" 部位</p>
+     *
+     * <li> 根据规则会生成 if 标签, if 条件判断 ifPrefix 对应的对象 </li>
+     *
+     * @param ifPrefix if 条件的前缀
+     * @return sql 脚本片段
+     * @since 3.3.2
+     */
+    public String getInsertSqlColumnMaybeIf(final String ifPrefix) {
+        return convertInsertIf(getInsertSqlColumn(), ifPrefix);
+    }
+
+    /**
+     * 按 insert 时的规则给 sql 脚本片段加上 if 标签
+     *
+     * <li> if 条件与 {@link #getInsertSqlColumnMaybeIf(String)} 一致, 用于拼接与 insert 字段对应的其他片段 </li>
+     *
+     * @param sqlScript sql 脚本片段
+     * @param ifPrefix  if 条件的前缀
+     * @return sql 脚本片段, insert 时不插入该字段则返回 null
+     * @since 3.3.2
+     */
+    public String convertInsertIf(final String sqlScript, final String ifPrefix) {
         if (withInsertFill) {
             return sqlScript;
         }
-        return convertIf(sqlScript, property, insertStrategy);
+        return convertIf(sqlScript, convertIfProperty(ifPrefix, property), insertStrategy);
+    }
+
+    /**
+     * insert 时是否插入该字段, 与 {@link #getInsertSqlColumnMaybeIf()} 生成的 if 条件一致
+     *
+     * @param entity 实体
+     * @return 是否插入
+     * @since 3.3.2
+     */
+    public boolean isInsertColumn(Object entity) {
+        return isColumnIncluded(entity, withInsertFill, insertStrategy);
+    }
+
+    /**
+     * update 时是否 set 该字段, 与 {@link #getSqlSet(String)} 生成的 if 条件一致
+     *
+     * @param entity 实体
+     * @return 是否 set
+     * @since 3.3.2
+     */
+    public boolean isUpdateColumn(Object entity) {
+        return isColumnIncluded(entity, withUpdateFill, updateStrategy);
+    }
+
+    private boolean isColumnIncluded(Object entity, boolean withFill, FieldStrategy fieldStrategy) {
+        if (withFill || fieldStrategy == FieldStrategy.IGNORED) {
+            return true;
+        }
+        if (fieldStrategy == FieldStrategy.NEVER) {
+            return false;
+        }
+        Object value = ReflectionKit.getFieldValue(entity, property);
+        if (fieldStrategy == FieldStrategy.NOT_EMPTY && isCharSequence) {
+            return value != null && value.toString().length() > 0;
+        }
+        return value != null;
     }
 
     /**
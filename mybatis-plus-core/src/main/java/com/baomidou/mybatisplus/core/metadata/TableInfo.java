@@ -289,9 +289,25 @@ public class TableInfo implements Constants {
      * @return sql 脚本片段
      */
     public String getAllInsertSqlPropertyMaybeIf(final String prefix) {
+        return getAllInsertSqlPropertyMaybeIf(prefix, null);
+    }
+
+    /**
+     * 获取所有 insert 时候插入值 sql 脚本片段
+     * <p>insert into table (字段) values (值)</p>
+     * <p>位于 "值" 部位</p>
+     *
+     * <li> 自动选部位,根据规则会生成 if 标签, if 条件判断 ifPrefix 对应的对象 </li>
+     *
+     * @param prefix   值的前缀
+     * @param ifPrefix if 条件的前缀
+     * @return sql 脚本片段
+     * @since 3.3.2
+     */
+    public String getAllInsertSqlPropertyMaybeIf(final String prefix, final String ifPrefix) {
         final String newPrefix = prefix == null ? EMPTY : prefix;
         return getKeyInsertSqlProperty(newPrefix, true) + fieldList.stream()
-            .map(i -> i.getInsertSqlPropertyMaybeIf(newPrefix)).filter(Objects::nonNull).collect(joining(NEWLINE));
+            .map(i -> i.getInsertSqlPropertyMaybeIf(newPrefix, ifPrefix)).filter(Objects::nonNull).collect(joining(NEWLINE));
     }
 
     /**
@@ -304,7 +320,22 @@ public class TableInfo implements Constants {
      * @return sql 脚本片段
      */
     public String getAllInsertSqlColumnMaybeIf() {
-        return getKeyInsertSqlColumn(true) + fieldList.stream().map(TableFieldInfo::getInsertSqlColumnMaybeIf)
+        return getAllInsertSqlColumnMaybeIf(null);
+    }
+
+    /**
+     * 获取 insert 时候字段 sql 脚本片段
+     * <p>insert into table (字段) values (值)</p>
+     * <p>位于 "字段" 部位</p>
+     *
+     * <li> 自动选部位,根据规则会生成 if 标签, if 条件判断 ifPrefix 对应的对象 </li>
+     *
+     * @param ifPrefix if 条件的前缀
+     * @return sql 脚本片段
+     * @since 3.3.2
+     */
+    public String getAllInsertSqlColumnMaybeIf(final String ifPrefix) {
+        return getKeyInsertSqlColumn(true) + fieldList.stream().map(i -> i.getInsertSqlColumnMaybeIf(ifPrefix))
             .filter(Objects::nonNull).collect(joining(NEWLINE));
     }
 
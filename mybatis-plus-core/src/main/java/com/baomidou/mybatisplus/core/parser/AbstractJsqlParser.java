@@ -35,13 +35,19 @@ import org.apache.ibatis.reflection.MetaObject;
  * @author hubin
  * @since 2017-06-20
  */
-public abstract class AbstractJsqlParser implements ISqlParser {
+public abstract class AbstractJsqlParser implements ISqlStatementParser {
 
     /**
      * 日志
      */
     protected final Log logger = LogFactory.getLog(this.getClass());
 
+    /**
+     * 子类重写了 {@link #parser(MetaObject, String)} 或 {@link #processParser(Statement)} 时按字符串方式处理
+     */
+    private final boolean statementsSupported = !isOverridden(this.getClass(), "parser", MetaObject.class, String.class)
+        && !isOverridden(this.getClass(), "processParser", Statement.class);
+
     /**
      * 解析 SQL 方法
      *
@@ -77,6 +83,40 @@ public abstract class AbstractJsqlParser implements ISqlParser {
         return null;
     }
 
+    /**
+     * 处理已解析的 SQL 语法树, 不生成 SQL
+     *
+     * @param metaObject 元对象
+     * @param statements JsqlParser Statements
+     * @return 是否可能修改了语句
+     * @since 3.3.2
+     */
+    @Override
+    public boolean processStatements(MetaObject metaObject, Statements statements) {
+        boolean processed = false;
+        if (this.allowProcess(metaObject)) {
+            for (Statement statement : statements.getStatements()) {
+                if (null != statement) {
+                    processed |= this.processStatement(statement);
+                }
+            }
+        }
+        return processed;
+    }
+
+    @Override
+    public boolean supportsStatements() {
+        return this.statementsSupported;
+    }
+
+    private static boolean isOverridden(Class<?> clazz, String name, Class<?>... parameterTypes) {
+        try {
+            return clazz.getMethod(name, parameterTypes).getDeclaringClass() != AbstractJsqlParser.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
     /**
      * 执行 SQL 解析
      *
@@ -84,6 +124,20 @@ public abstract class AbstractJsqlParser implements ISqlParser {
      * @return
      */
     public SqlInfo processParser(Statement statement) {
+        this.processStatement(statement);
+        logger.debug("parser sql: " + statement.toString());
+        return SqlInfo.newInstance().setSql(statement.toString());
+    }
+
+    /**
+     * 按语句类型分发处理
+     * <p>子类能确定未修改语句时可返回 false, 避免重新生成 SQL</p>
+     *
+     * @param statement JsqlParser Statement
+     * @return 是否可能修改了语句 (未处理的语句类型返回 false)
+     * @since 3.3.2
+     */
+    protected boolean processStatement(Statement statement) {
         if (statement instanceof Insert) {
             this.processInsert((Insert) statement);
         } else if (statement instanceof Select) {
@@ -92,9 +146,10 @@ public abstract class AbstractJsqlParser implements ISqlParser {
             this.processUpdate((Update) statement);
         } else if (statement instanceof Delete) {
             this.processDelete((Delete) statement);
+        } else {
+            return false;
         }
-        logger.debug("parser sql: " + statement.toString());
-        return SqlInfo.newInstance().setSql(statement.toString());
+        return true;
     }
 
     /**
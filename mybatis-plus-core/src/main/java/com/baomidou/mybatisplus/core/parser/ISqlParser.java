@@ -47,4 +47,19 @@ public interface ISqlParser {
         // 默认 true 执行 SQL 解析, 可重写实现控制逻辑
         return true;
     }
+
+    /**
+     * 解析结果是否只取决于 SQL 本身
+     * <p>
+     * 返回 true 表示 parser 与 doFilter 的结果与执行参数、线程上下文无关(例如只做校验的解析器),
+     * 静态 SQL(RawSqlSource、StaticSqlSource)只在预解析或首次执行时解析一次.
+     * 只有排在解析器列表最前面的连续静态解析器会被缓存
+     * </p>
+     *
+     * @return true 是 / false 否
+     * @since 3.3.2
+     */
+    default boolean isStaticResult() {
+        return false;
+    }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.core.parser;
+
+import net.sf.jsqlparser.statement.Statements;
+import org.apache.ibatis.reflection.MetaObject;
+
+/**
+ * 基于语法树的 SQL 解析接口
+ * <p>
+ * 多个解析器共享同一次解析得到的 {@link Statements}, 依次在语法树上修改或校验,
+ * 全部执行完成后只生成一次 SQL
+ * </p>
+ *
+ * @since 3.3.2
+ */
+public interface ISqlStatementParser extends ISqlParser {
+
+    /**
+     * 处理已解析的 SQL 语法树
+     *
+     * @param metaObject 元对象
+     * @param statements JsqlParser Statements (可直接修改)
+     * @return 是否修改了语法树, 返回 false 时不会重新生成 SQL
+     */
+    boolean processStatements(MetaObject metaObject, Statements statements);
+
+    /**
+     * 当前是否按语法树方式处理, 返回 false 时按 {@link #parser(MetaObject, String)} 处理
+     *
+     * @return true 是 / false 否
+     */
+    default boolean supportsStatements() {
+        return true;
+    }
+}
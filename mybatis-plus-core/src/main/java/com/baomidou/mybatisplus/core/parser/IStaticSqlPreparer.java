@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.core.parser;
+
+import org.apache.ibatis.mapping.MappedStatement;
+
+/**
+ * 静态 SQL 预解析
+ * <p>
+ * 实现该接口的拦截器在 {@link com.baomidou.mybatisplus.core.MybatisConfiguration#addMappedStatement(MappedStatement)}
+ * 时被回调, 可对 SQL 固定不变的 MappedStatement 预先执行 SQL 解析, 避免运行时重复解析
+ * </p>
+ *
+ * @since 3.3.2
+ */
+public interface IStaticSqlPreparer {
+
+    /**
+     * 预解析 MappedStatement 的静态 SQL
+     *
+     * @param mappedStatement MappedStatement
+     */
+    void prepareStaticSql(MappedStatement mappedStatement);
+}
@@ -18,14 +18,14 @@ package com.baomidou.mybatisplus.core.toolkit;
 import com.baomidou.mybatisplus.core.metadata.TableInfo;
 import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
 import com.baomidou.mybatisplus.core.toolkit.support.ColumnCache;
+import com.baomidou.mybatisplus.core.toolkit.support.LambdaMeta;
 import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.baomidou.mybatisplus.core.toolkit.support.SerializedLambda;
 
-import java.lang.ref.WeakReference;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static java.util.Locale.ENGLISH;
 
@@ -43,13 +43,17 @@ public final class LambdaUtils {
     private static final Map<String, Map<String, ColumnCache>> COLUMN_CACHE_MAP = new ConcurrentHashMap<>();
 
     /**
-     * SerializedLambda 反序列化缓存
+     * lambda 解析缓存, 随 lambda 合成类一同回收
      */
-    private static final Map<Class<?>, WeakReference<SerializedLambda>> FUNC_CACHE = new ConcurrentHashMap<>();
+    private static final ClassValue<AtomicReference<LambdaMeta>> LAMBDA_CACHE = new ClassValue<AtomicReference<LambdaMeta>>() {
+        @Override
+        protected AtomicReference<LambdaMeta> computeValue(Class<?> type) {
+            return new AtomicReference<>();
+        }
+    };
 
     /**
      * 解析 lambda 表达式, 该方法只是调用了 {@link SerializedLambda#resolve(SFunction)} 中的方法，在此基础上加了缓存。
-     * 该缓存可能会在任意不定的时间被清除
      *
      * @param func 需要解析的 lambda 对象
      * @param <T>  类型，被调用的 Function 对象的目标类型
@@ -57,14 +61,26 @@ public final class LambdaUtils {
      * @see SerializedLambda#resolve(SFunction)
      */
     public static <T> SerializedLambda resolve(SFunction<T, ?> func) {
-        Class<?> clazz = func.getClass();
-        return Optional.ofNullable(FUNC_CACHE.get(clazz))
-                .map(WeakReference::get)
-                .orElseGet(() -> {
-                    SerializedLambda lambda = SerializedLambda.resolve(func);
-                    FUNC_CACHE.put(clazz, new WeakReference<>(lambda));
-                    return lambda;
-                });
+        return getLambdaMeta(func).getLambda();
+    }
+
+    /**
+     * 获取 lambda 表达式的解析结果及派生信息, 每个 lambda 合成类只解析一次
+     *
+     * @param func 需要解析的 lambda 对象
+     * @return lambda 元信息
+     * @since 3.3.2
+     */
+    public static LambdaMeta getLambdaMeta(SFunction<?, ?> func) {
+        AtomicReference<LambdaMeta> reference = LAMBDA_CACHE.get(func.getClass());
+        LambdaMeta meta = reference.get();
+        if (null == meta) {
+            meta = new LambdaMeta(SerializedLambda.resolve(func));
+            if (!reference.compareAndSet(null, meta)) {
+                meta = reference.get();
+            }
+        }
+        return meta;
     }
 
     /**
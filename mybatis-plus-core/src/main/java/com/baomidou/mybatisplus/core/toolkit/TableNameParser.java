@@ -15,12 +15,18 @@
  */
 package com.baomidou.mybatisplus.core.toolkit;
 
+import com.baomidou.mybatisplus.core.toolkit.support.LruCache;
+
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -29,6 +35,7 @@ import java.util.regex.Pattern;
  * https://github.com/mnadeem/sql-table-name-parser
  * Ultra light, Ultra fast parser to extract table name out SQLs, supports oracle dialect SQLs as well.
  * USE: new TableNameParser(sql).tables()
+ * <p>需要重复解析同一 SQL 时使用 {@link #parse(String)}, 解析结果与表名位置按 SQL 缓存</p>
  *
  * @author Nadeem Mohammad
  * @since 2019-04-22
@@ -64,13 +71,35 @@ public final class TableNameParser {
     private static final List<String> concerned = Arrays.asList(KEYWORD_TABLE, KEYWORD_INTO, KEYWORD_JOIN, KEYWORD_USING, KEYWORD_UPDATE);
     private static final List<String> ignored = Arrays.asList(TOKEN_PARAN_START, TOKEN_SET, TOKEN_OF, TOKEN_DUAL);
 
+    /**
+     * 解析结果缓存 (SQL -> TableNameParser)
+     */
+    private static final LruCache<String, TableNameParser> PARSER_CACHE = new LruCache<>(1024);
+
     private Map<String, String> tables = new HashMap<>();
+    private final String sql;
+    /**
+     * 表名在原 SQL 中的位置, 首次使用时计算
+     */
+    private volatile List<TableNameToken> tokens;
+
+    /**
+     * 获取 SQL 的表名解析结果, 按 SQL 缓存
+     *
+     * @param sql SQL
+     * @return 表名解析结果
+     * @since 3.3.2
+     */
+    public static TableNameParser parse(final String sql) {
+        return PARSER_CACHE.computeIfAbsent(sql, TableNameParser::new);
+    }
 
     /**
      * Extracts table names out of SQL
      * @param sql
      */
     public TableNameParser(final String sql) {
+        this.sql = sql;
         String noComments = removeComments(sql);
         String normalized = normalized(noComments);
         String cleansed = clean(normalized);
@@ -266,4 +295,125 @@ public final class TableNameParser {
     public Collection<String> tables() {
         return new HashSet<>(this.tables.values());
     }
+
+    /**
+     * 表名在原 SQL 中出现的位置(按出现顺序), 只匹配完整标识符, 忽略单引号字符串内的内容
+     *
+     * @return 表名位置
+     * @since 3.3.2
+     */
+    public List<TableNameToken> tokens() {
+        List<TableNameToken> result = this.tokens;
+        if (null == result) {
+            result = Collections.unmodifiableList(findTokens());
+            this.tokens = result;
+        }
+        return result;
+    }
+
+    private List<TableNameToken> findTokens() {
+        List<String> names = new ArrayList<>(new HashSet<>(this.tables.values()));
+        // 优先匹配较长的表名, 例如 db.user 先于 user
+        names.sort(Comparator.comparingInt(String::length).reversed());
+        List<TableNameToken> result = new ArrayList<>();
+        boolean quoted = false;
+        int length = sql.length();
+        for (int i = 0; i < length; i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+                continue;
+            }
+            if (quoted || (i > 0 && isIdentifierPart(sql.charAt(i - 1)))) {
+                continue;
+            }
+            for (String name : names) {
+                int end = i + name.length();
+                if (sql.startsWith(name, i) && (end == length || !isIdentifierPart(sql.charAt(end)))) {
+                    result.add(new TableNameToken(name, i, end));
+                    i = end - 1;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    /**
+     * 按表名位置一次性替换表名
+     *
+     * @param replacer 表名替换函数, 返回 null 表示不替换
+     * @return 替换后的 SQL
+     * @since 3.3.2
+     */
+    public String replace(Function<String, String> replacer) {
+        List<TableNameToken> tokens = tokens();
+        if (tokens.isEmpty()) {
+            return sql;
+        }
+        Map<String, String> replacements = new HashMap<>();
+        StringBuilder builder = null;
+        int last = 0;
+        for (TableNameToken token : tokens) {
+            String replacement = replacements.computeIfAbsent(token.getName(), name -> {
+                String value = replacer.apply(name);
+                return null == value ? name : value;
+            });
+            if (replacement.equals(token.getName())) {
+                continue;
+            }
+            if (null == builder) {
+                builder = new StringBuilder(sql.length() + 16);
+            }
+            builder.append(sql, last, token.getStart()).append(replacement);
+            last = token.getEnd();
+        }
+        if (null == builder) {
+            return sql;
+        }
+        return builder.append(sql, last, sql.length()).toString();
+    }
+
+    /**
+     * 表名位置
+     *
+     * @since 3.3.2
+     */
+    public static final class TableNameToken {
+
+        private final String name;
+        private final int start;
+        private final int end;
+
+        TableNameToken(String name, int start, int end) {
+            this.name = name;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * 表名
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * 起始位置(包含)
+         */
+        public int getStart() {
+            return start;
+        }
+
+        /**
+         * 结束位置(不包含)
+         */
+        public int getEnd() {
+            return end;
+        }
+    }
 }
@@ -17,6 +17,7 @@ package com.baomidou.mybatisplus.core.toolkit;
 
 import com.baomidou.mybatisplus.core.conditions.ISqlSegment;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryTemplate;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.segments.MergeSegments;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
@@ -24,6 +25,7 @@ import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Wrapper 条件构造
@@ -149,6 +151,35 @@ public final class Wrappers {
         return new LambdaUpdateWrapper<>(entityClass);
     }
 
+    /**
+     * 编译查询模板, 条件值使用 {@link QueryTemplate#param(int)} 占位
+     *
+     * @param consumer 构建条件
+     * @param <T>      实体类泛型
+     * @return QueryTemplate&lt;T&gt;
+     * @since 3.3.2
+     */
+    public static <T> QueryTemplate<T> template(Consumer<LambdaQueryWrapper<T>> consumer) {
+        LambdaQueryWrapper<T> wrapper = new LambdaQueryWrapper<>();
+        consumer.accept(wrapper);
+        return QueryTemplate.compile(wrapper);
+    }
+
+    /**
+     * 编译查询模板, 条件值使用 {@link QueryTemplate#param(int)} 占位
+     *
+     * @param entityClass 实体类class
+     * @param consumer    构建条件
+     * @param <T>         实体类泛型
+     * @return QueryTemplate&lt;T&gt;
+     * @since 3.3.2
+     */
+    public static <T> QueryTemplate<T> template(Class<T> entityClass, Consumer<LambdaQueryWrapper<T>> consumer) {
+        LambdaQueryWrapper<T> wrapper = new LambdaQueryWrapper<>(entityClass);
+        consumer.accept(wrapper);
+        return QueryTemplate.compile(wrapper);
+    }
+
     /**
      * 获取 EmptyWrapper&lt;T&gt;
      *
@@ -260,6 +291,14 @@ public final class Wrappers {
             throw new UnsupportedOperationException();
         }
 
+        /**
+         * 不包含任何条件且不可修改, 直接返回自身
+         */
+        @Override
+        public EmptyWrapper<T> clone() {
+            return this;
+        }
+
         @Override
         public void clear() {
             throw new UnsupportedOperationException();
@@ -18,6 +18,10 @@ package com.baomidou.mybatisplus.core.toolkit.sql;
 import com.baomidou.mybatisplus.core.enums.SqlLike;
 import com.baomidou.mybatisplus.core.toolkit.StringPool;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * SqlUtils工具类
  *
@@ -26,6 +30,15 @@ import com.baomidou.mybatisplus.core.toolkit.StringPool;
  */
 public class SqlUtils {
 
+    /**
+     * IN 列表补齐的最小个数
+     */
+    private static final int IN_LIST_PADDING_MIN = 8;
+    /**
+     * IN 列表补齐的最大个数 (Oracle IN 列表上限)
+     */
+    private static final int IN_LIST_PADDING_MAX = 1000;
+
     /**
      * 用%连接like
      *
@@ -42,4 +55,45 @@ public class SqlUtils {
                 return StringPool.PERCENT + str + StringPool.PERCENT;
         }
     }
+
+    /**
+     * 计算 IN 列表补齐后的个数: 不小于 size 的 8、16、32...,
+     * 最多补齐到 1000, 超过 1000 或为空时不补齐
+     *
+     * @param size 原个数
+     * @return 补齐后的个数
+     * @since 3.3.2
+     */
+    public static int paddedInListSize(int size) {
+        if (size <= 0 || size >= IN_LIST_PADDING_MAX) {
+            return size;
+        }
+        int padded = Math.max(IN_LIST_PADDING_MIN, Integer.highestOneBit(size - 1) << 1);
+        return Math.min(padded, IN_LIST_PADDING_MAX);
+    }
+
+    /**
+     * 重复最后一个元素, 将集合补齐到 {@link #paddedInListSize(int)} 个
+     *
+     * @param coll 原集合
+     * @return 补齐后的集合, 无需补齐时返回原集合
+     * @since 3.3.2
+     */
+    public static Collection<?> padInList(Collection<?> coll) {
+        if (null == coll) {
+            return null;
+        }
+        int size = coll.size();
+        int padded = paddedInListSize(size);
+        if (padded == size) {
+            return coll;
+        }
+        List<Object> list = new ArrayList<>(padded);
+        list.addAll(coll);
+        Object last = list.get(size - 1);
+        while (list.size() < padded) {
+            list.add(last);
+        }
+        return list;
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.core.toolkit.support;
+
+import com.baomidou.mybatisplus.core.toolkit.LambdaUtils;
+import org.apache.ibatis.reflection.property.PropertyNamer;
+
+import java.util.Map;
+
+/**
+ * lambda 解析结果及其派生信息的缓存, 每个 lambda 合成类一份
+ *
+ * @since 3.3.2
+ */
+public final class LambdaMeta {
+
+    private final SerializedLambda lambda;
+    /**
+     * 以下均为延迟计算, 并发时可能重复计算, 结果相同
+     */
+    private Class<?> instantiatedType;
+    private String propertyName;
+    private String propertyKey;
+    /**
+     * 最近一次查到的字段缓存, 字段映射被替换时失效
+     */
+    private volatile ColumnEntry columnEntry;
+
+    public LambdaMeta(SerializedLambda lambda) {
+        this.lambda = lambda;
+    }
+
+    public SerializedLambda getLambda() {
+        return lambda;
+    }
+
+    /**
+     * @return 实例化方法的类型
+     * @see SerializedLambda#getInstantiatedType()
+     */
+    public Class<?> getInstantiatedType() {
+        if (null == instantiatedType) {
+            instantiatedType = lambda.getInstantiatedType();
+        }
+        return instantiatedType;
+    }
+
+    /**
+     * @return getter 方法对应的属性名
+     */
+    public String getPropertyName() {
+        if (null == propertyName) {
+            propertyName = PropertyNamer.methodToProperty(lambda.getImplMethodName());
+        }
+        return propertyName;
+    }
+
+    /**
+     * 从字段映射中获取属性对应的字段, 结果按字段映射缓存
+     *
+     * @param columnMap 字段映射 {@link LambdaUtils#getColumnMap(Class)}
+     * @return 字段缓存, 不存在返回 null
+     */
+    public ColumnCache getColumnCache(Map<String, ColumnCache> columnMap) {
+        ColumnEntry entry = this.columnEntry;
+        if (null != entry && entry.columnMap == columnMap) {
+            return entry.columnCache;
+        }
+        if (null == propertyKey) {
+            propertyKey = LambdaUtils.formatKey(getPropertyName());
+        }
+        ColumnCache columnCache = columnMap.get(propertyKey);
+        if (null != columnCache) {
+            this.columnEntry = new ColumnEntry(columnMap, columnCache);
+        }
+        return columnCache;
+    }
+
+    private static final class ColumnEntry {
+
+        private final Map<String, ColumnCache> columnMap;
+        private final ColumnCache columnCache;
+
+        ColumnEntry(Map<String, ColumnCache> columnMap, ColumnCache columnCache) {
+            this.columnMap = columnMap;
+            this.columnCache = columnCache;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.core.toolkit.support;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 有界并发 LRU 缓存
+ * <p>
+ * 按 key 的 hash 分段,每段为一个按访问顺序排列的 {@link LinkedHashMap},超出容量时淘汰最久未使用的元素
+ * </p>
+ *
+ * @since 3.3.2
+ */
+public class LruCache<K, V> {
+
+    /**
+     * 最大分段数
+     */
+    private static final int MAX_SEGMENTS = 16;
+    /**
+     * 每段最少容纳元素个数,容量过小时不分段
+     */
+    private static final int MIN_SEGMENT_SIZE = 16;
+
+    private final Segment<K, V>[] segments;
+    private final int segmentMask;
+    private final int maximumSize;
+    private final boolean recordStats;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    public LruCache(int maximumSize) {
+        this(maximumSize, false);
+    }
+
+    /**
+     * @param maximumSize 最大缓存个数
+     * @param recordStats 是否记录命中统计
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public LruCache(int maximumSize, boolean recordStats) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be greater than 0");
+        }
+        this.maximumSize = maximumSize;
+        this.recordStats = recordStats;
+        int segmentCount = 1;
+        while (segmentCount < MAX_SEGMENTS && segmentCount * 2 * MIN_SEGMENT_SIZE <= maximumSize) {
+            segmentCount <<= 1;
+        }
+        this.segmentMask = segmentCount - 1;
+        this.segments = new Segment[segmentCount];
+        int segmentSize = (maximumSize + segmentCount - 1) / segmentCount;
+        for (int i = 0; i < segmentCount; i++) {
+            this.segments[i] = new Segment<>(segmentSize);
+        }
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & segmentMask];
+    }
+
+    /**
+     * 获取缓存值
+     *
+     * @param key 缓存 key
+     * @return 缓存值, 不存在返回 null
+     */
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        V value;
+        synchronized (segment) {
+            value = segment.get(key);
+        }
+        if (recordStats) {
+            if (value == null) {
+                missCount.increment();
+            } else {
+                hitCount.increment();
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 放入缓存, value 为 null 时不缓存
+     *
+     * @param key   缓存 key
+     * @param value 缓存值
+     */
+    public void put(K key, V value) {
+        if (value == null) {
+            return;
+        }
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+    }
+
+    /**
+     * 获取缓存值, 不存在时计算并放入缓存
+     * <p>
+     * 计算过程不持有锁, 并发情况下同一个 key 可能被重复计算, 以先放入的值为准
+     * </p>
+     *
+     * @param key             缓存 key
+     * @param mappingFunction 计算函数
+     * @return 缓存值
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        V newValue = mappingFunction.apply(key);
+        if (newValue == null) {
+            return null;
+        }
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            V existing = segment.putIfAbsent(key, newValue);
+            return existing == null ? newValue : existing;
+        }
+    }
+
+    /**
+     * 移除缓存
+     *
+     * @param key 缓存 key
+     * @return 被移除的值
+     */
+    public V remove(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.remove(key);
+        }
+    }
+
+    /**
+     * 清空缓存(不重置统计)
+     */
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * 当前缓存个数
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public boolean isRecordStats() {
+        return recordStats;
+    }
+
+    /**
+     * 命中次数 (需开启 recordStats)
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * 未命中次数 (需开启 recordStats)
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * 命中率, 无请求时返回 1.0
+     */
+    public double getHitRate() {
+        long hit = hitCount.sum();
+        long total = hit + missCount.sum();
+        return total == 0 ? 1.0D : (double) hit / total;
+    }
+
+    /**
+     * 按访问顺序排列的分段
+     */
+    private static class Segment<K, V> extends LinkedHashMap<K, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75F, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > capacity;
+        }
+    }
+}
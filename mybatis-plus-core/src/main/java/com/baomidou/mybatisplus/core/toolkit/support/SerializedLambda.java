@@ -20,6 +20,7 @@ import com.baomidou.mybatisplus.core.toolkit.ExceptionUtils;
 import com.baomidou.mybatisplus.core.toolkit.SerializationUtils;
 
 import java.io.*;
+import java.lang.reflect.Method;
 
 /**
  * 这个类是从 {@link java.lang.invoke.SerializedLambda} 里面 copy 过来的，
@@ -33,6 +34,7 @@ import java.io.*;
 public class SerializedLambda implements Serializable {
 
     private static final long serialVersionUID = 8025925345765570181L;
+    private static final Object[] EMPTY_ARGS = new Object[0];
 
     private Class<?> capturingClass;
     private String functionalInterfaceClass;
@@ -46,12 +48,61 @@ public class SerializedLambda implements Serializable {
     private Object[] capturedArgs;
 
     /**
-     * 通过反序列化转换 lambda 表达式，该方法只能序列化 lambda 表达式，不能序列化接口实现或者正常非 lambda 写法的对象
+     * 转换 lambda 表达式，该方法只能转换 lambda 表达式，不能转换接口实现或者正常非 lambda 写法的对象
+     * <p>
+     * 优先调用 lambda 合成类的 writeReplace 方法直接取得 {@link java.lang.invoke.SerializedLambda},
+     * 无法调用时使用 {@link #resolveBySerialization(SFunction)};
+     * 结果会被缓存, 不保留 lambda 捕获的参数, 避免缓存持有捕获的对象
+     * </p>
      *
      * @param lambda lambda对象
      * @return 返回解析后的 SerializedLambda
      */
     public static SerializedLambda resolve(SFunction<?, ?> lambda) {
+        Class<?> clazz = lambda.getClass();
+        if (!clazz.isSynthetic()) {
+            throw ExceptionUtils.mpe("该方法仅能传入 lambda 表达式产生的合成类");
+        }
+        try {
+            Method writeReplace = clazz.getDeclaredMethod("writeReplace");
+            writeReplace.setAccessible(true);
+            Object replacement = writeReplace.invoke(lambda);
+            if (replacement instanceof java.lang.invoke.SerializedLambda) {
+                return of((java.lang.invoke.SerializedLambda) replacement);
+            }
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+            // 无法访问 writeReplace (例如受模块限制), 退回序列化方式
+        }
+        SerializedLambda serializedLambda = resolveBySerialization(lambda);
+        serializedLambda.capturedArgs = EMPTY_ARGS;
+        return serializedLambda;
+    }
+
+    /**
+     * 从 JDK 的 SerializedLambda 复制字段, 不复制捕获的参数
+     */
+    private static SerializedLambda of(java.lang.invoke.SerializedLambda lambda) {
+        SerializedLambda serializedLambda = new SerializedLambda();
+        serializedLambda.functionalInterfaceClass = lambda.getFunctionalInterfaceClass();
+        serializedLambda.functionalInterfaceMethodName = lambda.getFunctionalInterfaceMethodName();
+        serializedLambda.functionalInterfaceMethodSignature = lambda.getFunctionalInterfaceMethodSignature();
+        serializedLambda.implClass = lambda.getImplClass();
+        serializedLambda.implMethodName = lambda.getImplMethodName();
+        serializedLambda.implMethodSignature = lambda.getImplMethodSignature();
+        serializedLambda.implMethodKind = lambda.getImplMethodKind();
+        serializedLambda.instantiatedMethodType = lambda.getInstantiatedMethodType();
+        serializedLambda.capturedArgs = EMPTY_ARGS;
+        return serializedLambda;
+    }
+
+    /**
+     * 通过序列化再反序列化转换 lambda 表达式
+     *
+     * @param lambda lambda对象
+     * @return 返回解析后的 SerializedLambda
+     * @since 3.3.2
+     */
+    public static SerializedLambda resolveBySerialization(SFunction<?, ?> lambda) {
         if (!lambda.getClass().isSynthetic()) {
             throw ExceptionUtils.mpe("该方法仅能传入 lambda 表达式产生的合成类");
         }
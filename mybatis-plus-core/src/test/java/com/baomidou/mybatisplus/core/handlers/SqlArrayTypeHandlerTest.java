@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.core.handlers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @since 3.3.2
+ */
+class SqlArrayTypeHandlerTest {
+
+    private final SqlArrayTypeHandler handler = new SqlArrayTypeHandler();
+    private PreparedStatement ps;
+    private Connection connection;
+
+    @BeforeEach
+    void init() throws SQLException {
+        ps = mock(PreparedStatement.class);
+        connection = mock(Connection.class);
+        when(ps.getConnection()).thenReturn(connection);
+    }
+
+    @Test
+    void testSetArray() throws SQLException {
+        Array array = mock(Array.class);
+        when(connection.createArrayOf("bigint", new Object[]{null, 1L, 2L})).thenReturn(array);
+        handler.setParameter(ps, 1, Arrays.asList(null, 1L, 2L), null);
+        verify(ps).setArray(1, array);
+        // 语句执行前不能释放
+        verify(array, never()).free();
+    }
+
+    @Test
+    void testSetEmpty() throws SQLException {
+        handler.setParameter(ps, 1, Collections.emptyList(), null);
+        verify(ps).setObject(1, "{}", Types.OTHER);
+        handler.setParameter(ps, 2, new Object[]{null, null}, null);
+        verify(ps).setObject(2, "{NULL,NULL}", Types.OTHER);
+        verify(connection, never()).createArrayOf(any(), any());
+        verify(ps, never()).setArray(anyInt(), any());
+    }
+
+    @Test
+    void testSetSqlArray() throws SQLException {
+        Array array = mock(Array.class);
+        handler.setParameter(ps, 1, array, null);
+        verify(ps).setArray(1, array);
+        verify(array, never()).free();
+    }
+}
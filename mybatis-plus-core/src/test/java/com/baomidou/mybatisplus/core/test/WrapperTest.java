@@ -16,11 +16,17 @@
 package com.baomidou.mybatisplus.core.test;
 
 import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.conditions.ISqlSegment;
 import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryTemplate;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
+import com.baomidou.mybatisplus.core.exceptions.MybatisPlusException;
 import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.core.toolkit.GlobalConfigUtils;
 import com.baomidou.mybatisplus.core.toolkit.StringPool;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.baomidou.mybatisplus.core.toolkit.sql.SqlUtils;
 import org.apache.ibatis.builder.MapperBuilderAssistant;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -212,6 +218,135 @@ class WrapperTest {
         logParams(queryWrapper);
     }
 
+    @Test
+    void testInListPadding() {
+        QueryWrapper<User> queryWrapper = new QueryWrapper<User>().inListPadding(true)
+            .in("id", Arrays.asList(1, 2, 3)).and(i -> i.notIn("name", Arrays.asList("a", "b")));
+        logSqlSegment("测试 IN 列表补齐", queryWrapper,
+            "(id IN (?,?,?,?,?,?,?,?) AND (name NOT IN (?,?,?,?,?,?,?,?)))");
+        Assertions.assertThat(queryWrapper.getParamNameValuePairs()).hasSize(5);
+        logSqlSegment("未开启补齐", new QueryWrapper<User>().in("id", Arrays.asList(1, 2, 3)), "(id IN (?,?,?))");
+        Assertions.assertThat(SqlUtils.paddedInListSize(9)).isEqualTo(16);
+        Assertions.assertThat(SqlUtils.paddedInListSize(600)).isEqualTo(1000);
+        Assertions.assertThat(SqlUtils.paddedInListSize(1200)).isEqualTo(1200);
+        Assertions.assertThat(SqlUtils.padInList(Arrays.asList(1, 2))).containsExactly(1, 2, 2, 2, 2, 2, 2, 2);
+    }
+
+    @Test
+    void testInListChunk() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 1001; i++) {
+            ids.add(i);
+        }
+        QueryWrapper<User> queryWrapper = new QueryWrapper<User>().in("id", ids).notIn("name", ids);
+        String sql = queryWrapper.getTargetSql();
+        Assertions.assertThat(sql).startsWith("((id IN (").contains(") OR id IN (").contains("AND NOT (name IN (");
+        Assertions.assertThat(sql.split("\\?", -1)).hasSize(2003);
+    }
+
+    @Test
+    void testInListArrayBinding() {
+        MybatisConfiguration configuration = new MybatisConfiguration();
+        GlobalConfigUtils.getGlobalConfig(configuration).getDbConfig().setInListArrayBinding(true);
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(configuration, ""), Role.class);
+        QueryWrapper<Role> queryWrapper = new QueryWrapper<>(new Role()).in("id", Arrays.asList(1, 2, 3))
+            .notIn("id", Collections.singletonList(4));
+        Assertions.assertThat(queryWrapper.getSqlSegment()).isEqualTo("(id = ANY(#{ew.paramNameValuePairs.MPGENVAL1,"
+            + "typeHandler=com.baomidou.mybatisplus.core.handlers.SqlArrayTypeHandler}) AND NOT id = ANY("
+            + "#{ew.paramNameValuePairs.MPGENVAL2,typeHandler=com.baomidou.mybatisplus.core.handlers.SqlArrayTypeHandler}))");
+        // 整个集合绑定为一个参数, 不能使用占位参数
+        Assertions.assertThatThrownBy(() -> QueryTemplate.compile(new QueryWrapper<Role>().setEntityClass(Role.class)
+            .in("id", Arrays.asList(1, QueryTemplate.param(1))))).isInstanceOf(MybatisPlusException.class);
+    }
+
+    @Test
+    void testFormatSql() {
+        QueryWrapper<User> queryWrapper = new QueryWrapper<User>().eq("id", 1)
+            .apply("a = {1} and b = {0} and c = {1} and d = '{01}' and e = '{2}' and f = {x}{0}", "v0", "v1");
+        Assertions.assertThat(queryWrapper.getSqlSegment()).isEqualTo("(id = #{ew.paramNameValuePairs.MPGENVAL1} AND "
+            + "a = #{ew.paramNameValuePairs.MPGENVAL3} and b = #{ew.paramNameValuePairs.MPGENVAL2} and "
+            + "c = #{ew.paramNameValuePairs.MPGENVAL3} and d = '{01}' and e = '{2}' and f = {x}#{ew.paramNameValuePairs.MPGENVAL2})");
+        Assertions.assertThat(queryWrapper.getParamNameValuePairs()).containsEntry("MPGENVAL2", "v0")
+            .containsEntry("MPGENVAL3", "v1").hasSize(3);
+    }
+
+    @Test
+    void testClone() {
+        QueryWrapper<User> base = new QueryWrapper<User>().select("id", "name").eq("id", 1)
+            .and(i -> i.like("name", "a")).groupBy("id").orderByDesc("id").last("limit 1").or();
+        QueryWrapper<User> clone = base.clone().notLike("name", "b");
+        Assertions.assertThat(clone.getTargetSql())
+            .isEqualTo("(id = ? AND (name LIKE ?) OR name NOT LIKE ?) GROUP BY id ORDER BY id DESC limit 1");
+        Assertions.assertThat(clone.getSqlSelect()).isEqualTo("id,name");
+        Assertions.assertThat(clone.getSqlSegment()).contains("MPGENVAL1").contains("MPGENVAL2").contains("MPGENVAL3");
+        Assertions.assertThat(clone.getParamNameValuePairs()).containsEntry("MPGENVAL3", "%b%").hasSize(3);
+        Assertions.assertThat(base.getTargetSql()).isEqualTo("(id = ? AND (name LIKE ?)) GROUP BY id ORDER BY id DESC limit 1");
+        Assertions.assertThat(base.getParamNameValuePairs()).doesNotContainValue("%b%").hasSize(2);
+        base.clone().clone();
+        Assertions.assertThat(base.getParamNameValuePairs()).hasSize(2);
+
+        UpdateWrapper<User> update = new UpdateWrapper<User>().set("name", "a").eq("id", 1);
+        UpdateWrapper<User> updateClone = update.clone().set("age", 2);
+        Assertions.assertThat(updateClone.getSqlSet()).isEqualTo("name=#{ew.paramNameValuePairs.MPGENVAL1},"
+            + "age=#{ew.paramNameValuePairs.MPGENVAL3}");
+        Assertions.assertThat(update.getSqlSet()).isEqualTo("name=#{ew.paramNameValuePairs.MPGENVAL1}");
+    }
+
+    @Test
+    void testCloneKeepSource() {
+        QueryWrapper<User> base = new QueryWrapper<User>().eq("id", 1).and(i -> i.like("name", "a").or().eq("age", 2)).or();
+        List<ISqlSegment> segments = new ArrayList<>(base.getExpression().getNormal());
+        QueryWrapper<User> clone = base.clone();
+        // 复制不修改源 wrapper 的片段、参数与缓存
+        Assertions.assertThat(base.getExpression().getNormal()).containsExactlyElementsOf(segments);
+        Assertions.assertThat(base.getParamNameValuePairs()).isEmpty();
+        Assertions.assertThat(clone.getParamNameValuePairs()).hasSize(3);
+        Assertions.assertThat(base.getSqlSegment()).isEqualTo("(id = #{ew.paramNameValuePairs.MPGENVAL1} AND "
+            + "(name LIKE #{ew.paramNameValuePairs.MPGENVAL2} OR age = #{ew.paramNameValuePairs.MPGENVAL3}))");
+        Assertions.assertThat(base.getParamNameValuePairs()).containsEntry("MPGENVAL2", "%a%").hasSize(3);
+        Assertions.assertThat(clone.eq("age", 3).getTargetSql()).isEqualTo("(id = ? AND (name LIKE ? OR age = ?) OR age = ?)");
+        Assertions.assertThat(base.getTargetSql()).isEqualTo("(id = ? AND (name LIKE ? OR age = ?))");
+        Assertions.assertThat(base.getParamNameValuePairs()).hasSize(3);
+
+        QueryWrapper<User> empty = Wrappers.emptyWrapper();
+        Assertions.assertThat(empty.clone()).isSameAs(empty);
+    }
+
+    @Test
+    void testQueryTemplate() {
+        QueryTemplate<User> template = QueryTemplate.compile(new QueryWrapper<User>().select("id")
+            .eq("org", QueryTemplate.param(1)).like("name", QueryTemplate.param(2))
+            .between("age", QueryTemplate.param(3), 60).eq("deleted", 0));
+        Assertions.assertThat(template.getParamCount()).isEqualTo(3);
+        Wrapper<User> wrapper = template.bind("mp", "a", 18);
+        Assertions.assertThat(wrapper.getTargetSql()).isEqualTo("(org = ? AND name LIKE ? AND age BETWEEN ? AND ? AND deleted = ?)");
+        Assertions.assertThat(wrapper.getSqlSegment()).isEqualTo(template.bind("other", "b", 20).getSqlSegment());
+        Assertions.assertThat(wrapper.getSqlSelect()).isEqualTo("id");
+        Assertions.assertThat(wrapper.nonEmptyOfWhere()).isTrue();
+        Map<String, Object> params = new HashMap<>();
+        params.put("MPGENVAL1", "mp");
+        params.put("MPGENVAL2", "%a%");
+        params.put("MPGENVAL3", 18);
+        params.put("MPGENVAL4", 60);
+        params.put("MPGENVAL5", 0);
+        Assertions.assertThat(wrapper).extracting("paramNameValuePairs").isEqualTo(params);
+        Assertions.assertThatThrownBy(() -> template.bind("mp")).isInstanceOf(MybatisPlusException.class);
+        Assertions.assertThatThrownBy(() -> QueryTemplate.compile(new QueryWrapper<User>().eq("id", QueryTemplate.param(2))))
+            .isInstanceOf(MybatisPlusException.class);
+        // like 绑定 null 不能变成字符串 "null"
+        Assertions.assertThatThrownBy(() -> template.bind("mp", null, 18)).isInstanceOf(MybatisPlusException.class);
+        Assertions.assertThat(template.bind(null, "a", null)).extracting("paramNameValuePairs.MPGENVAL1").isNull();
+        // in 的参数个数编译时确定, 占位参数只能代替单个值
+        QueryTemplate<User> in = QueryTemplate.compile(new QueryWrapper<User>()
+            .in("id", Arrays.asList(1, QueryTemplate.param(1))).notIn("id", QueryTemplate.param(2)));
+        Assertions.assertThat(in.getSqlSegment()).isEqualTo("(id IN (#{ew.paramNameValuePairs.MPGENVAL1},"
+            + "#{ew.paramNameValuePairs.MPGENVAL2}) AND id NOT IN (#{ew.paramNameValuePairs.MPGENVAL3}))");
+        Assertions.assertThat(in.bind(2, 3)).extracting("paramNameValuePairs.MPGENVAL2", "paramNameValuePairs.MPGENVAL3")
+            .containsExactly(2, 3);
+        Assertions.assertThatThrownBy(() -> in.bind(Arrays.asList(2, 3), 4)).isInstanceOf(MybatisPlusException.class);
+        Assertions.assertThatThrownBy(() -> in.bind(2, new Integer[]{3, 4})).isInstanceOf(MybatisPlusException.class);
+    }
+
     @Test
     void testInEmptyColl() {
         QueryWrapper<User> queryWrapper = new QueryWrapper<User>().in("xxx", Collections.emptyList());
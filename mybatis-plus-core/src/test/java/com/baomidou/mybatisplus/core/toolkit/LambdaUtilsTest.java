@@ -15,12 +15,19 @@
  */
 package com.baomidou.mybatisplus.core.toolkit;
 
+import com.baomidou.mybatisplus.core.toolkit.support.ColumnCache;
+import com.baomidou.mybatisplus.core.toolkit.support.LambdaMeta;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.baomidou.mybatisplus.core.toolkit.support.SerializedLambda;
 import lombok.Getter;
 import org.apache.ibatis.reflection.property.PropertyNamer;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
@@ -45,6 +52,41 @@ class LambdaUtilsTest {
         assertEquals(Named.class, lambda.getInstantiatedType());
     }
 
+    /**
+     * writeReplace 与序列化方式解析结果一致, 且同一 lambda 只解析一次
+     */
+    @Test
+    void testResolveWithoutSerialization() {
+        SFunction<TestModel, ?> func = TestModel::getName;
+        SerializedLambda lambda = SerializedLambda.resolve(func);
+        SerializedLambda serialized = SerializedLambda.resolveBySerialization(func);
+        assertEquals(serialized.getImplClassName(), lambda.getImplClassName());
+        assertEquals(serialized.getImplMethodName(), lambda.getImplMethodName());
+        assertEquals(serialized.getInstantiatedType(), lambda.getInstantiatedType());
+        assertEquals(serialized.toString(), lambda.toString());
+
+        LambdaMeta meta = LambdaUtils.getLambdaMeta(func);
+        Assertions.assertSame(meta, LambdaUtils.getLambdaMeta(func));
+        assertEquals("name", meta.getPropertyName());
+        ColumnCache columnCache = new ColumnCache("name", "name");
+        Map<String, ColumnCache> columnMap = Collections.singletonMap("NAME", columnCache);
+        Assertions.assertSame(columnCache, meta.getColumnCache(columnMap));
+        Assertions.assertNull(meta.getColumnCache(Collections.emptyMap()));
+    }
+
+    /**
+     * 缓存的解析结果不持有 lambda 捕获的对象
+     */
+    @Test
+    void testCapturedArgsNotRetained() throws ReflectiveOperationException {
+        String captured = String.valueOf(System.nanoTime());
+        SFunction<TestModel, ?> func = m -> captured;
+        Field field = SerializedLambda.class.getDeclaredField("capturedArgs");
+        field.setAccessible(true);
+        assertEquals(0, ((Object[]) field.get(LambdaUtils.resolve(func))).length);
+        assertEquals(1, ((Object[]) field.get(SerializedLambda.resolveBySerialization(func))).length);
+    }
+
     /**
      * 在 Java 中，一般来讲，只要是泛型，肯定是引用类型，但是为了避免翻车，还是测试一下
      */
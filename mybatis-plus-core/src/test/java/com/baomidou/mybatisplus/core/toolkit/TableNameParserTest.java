@@ -485,4 +485,17 @@ public class TableNameParserTest {
         return result;
     }
 
+
+    @Test
+    public void testTokensAndReplace() {
+        String sql = "SELECT u.id, user.name FROM user u JOIN user_role r ON r.uid = u.id WHERE user.name = 'user' AND u.id IN (SELECT uid FROM user_role)";
+        TableNameParser parser = TableNameParser.parse(sql);
+        assertThat(parser).isSameAs(TableNameParser.parse(sql));
+        assertThat(parser.tables()).containsExactlyInAnyOrder("user", "user_role");
+        assertThat(parser.tokens()).extracting(TableNameParser.TableNameToken::getName)
+            .containsExactly("user", "user", "user_role", "user", "user_role");
+        assertThat(parser.replace(table -> "user".equals(table) ? "user_202004" : null))
+            .isEqualTo("SELECT u.id, user_202004.name FROM user_202004 u JOIN user_role r ON r.uid = u.id WHERE user_202004.name = 'user' AND u.id IN (SELECT uid FROM user_role)");
+        assertThat(parser.replace(table -> null)).isSameAs(sql);
+    }
 }
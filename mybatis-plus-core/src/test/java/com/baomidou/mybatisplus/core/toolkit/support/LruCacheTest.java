@@ -0,0 +1,49 @@
+package com.baomidou.mybatisplus.core.toolkit.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @since 3.3.2
+ */
+class LruCacheTest {
+
+    @Test
+    void testEvictEldest() {
+        LruCache<String, String> cache = new LruCache<>(2);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        assertThat(cache.get("a")).isEqualTo("1");
+        cache.put("c", "3");
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isEqualTo("1");
+        assertThat(cache.get("c")).isEqualTo("3");
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testBounded() {
+        LruCache<Integer, Integer> cache = new LruCache<>(100);
+        for (int i = 0; i < 10000; i++) {
+            cache.put(i, i);
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    void testComputeIfAbsentAndStats() {
+        LruCache<String, String> cache = new LruCache<>(10, true);
+        AtomicInteger counter = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            assertThat(cache.computeIfAbsent("sql", k -> k + counter.incrementAndGet())).isEqualTo("sql1");
+        }
+        assertThat(counter.get()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(2);
+        assertThat(cache.computeIfAbsent("null", k -> null)).isNull();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+}
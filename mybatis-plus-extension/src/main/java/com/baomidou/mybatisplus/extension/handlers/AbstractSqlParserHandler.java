@@ -16,20 +16,41 @@
 package com.baomidou.mybatisplus.extension.handlers;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.Statements;
+import org.apache.ibatis.builder.StaticSqlSource;
 import org.apache.ibatis.executor.statement.CallableStatementHandler;
+import org.apache.ibatis.executor.statement.RoutingStatementHandler;
 import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.mapping.StatementType;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
+import org.apache.ibatis.session.RowBounds;
 
 import com.baomidou.mybatisplus.core.parser.ISqlParser;
 import com.baomidou.mybatisplus.core.parser.ISqlParserFilter;
+import com.baomidou.mybatisplus.core.parser.ISqlStatementParser;
+import com.baomidou.mybatisplus.core.parser.IStaticSqlPreparer;
 import com.baomidou.mybatisplus.core.parser.SqlInfo;
 import com.baomidou.mybatisplus.core.parser.SqlParserHelper;
 import com.baomidou.mybatisplus.core.toolkit.CollectionUtils;
+import com.baomidou.mybatisplus.core.toolkit.ExceptionUtils;
 import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
 import lombok.experimental.Accessors;
 
 /**
@@ -40,10 +61,18 @@ import lombok.experimental.Accessors;
  */
 @Data
 @Accessors(chain = true)
-public abstract class AbstractSqlParserHandler {
+public abstract class AbstractSqlParserHandler implements IStaticSqlPreparer {
+
+    private static final Log logger = LogFactory.getLog(AbstractSqlParserHandler.class);
+    private static final String DELEGATE_MAPPEDSTATEMENT = "delegate.mappedStatement";
 
     private List<ISqlParser> sqlParserList;
     private ISqlParserFilter sqlParserFilter;
+    /**
+     * 静态 SQL 经过静态解析器处理后的结果 (MappedStatement -> 结果)
+     */
+    @Getter(AccessLevel.NONE)
+    private final transient Map<MappedStatement, StaticSql> staticSqlCache = new ConcurrentHashMap<>();
 
     /**
      * 拦截 SQL 解析执行
@@ -52,7 +81,9 @@ public abstract class AbstractSqlParserHandler {
         if (null != metaObject) {
             Object originalObject = metaObject.getOriginalObject();
             StatementHandler statementHandler = PluginUtils.realTarget(originalObject);
-            metaObject = SystemMetaObject.forObject(statementHandler);
+            if (statementHandler != originalObject) {
+                metaObject = SystemMetaObject.forObject(statementHandler);
+            }
 
             if (null != this.sqlParserFilter && this.sqlParserFilter.doFilter(metaObject)) {
                 return;
@@ -68,23 +99,179 @@ public abstract class AbstractSqlParserHandler {
                 // 好像不用判断也行,为了保险起见,还是加上吧.
                 statementHandler = metaObject.hasGetter("delegate") ? (StatementHandler) metaObject.getValue("delegate") : statementHandler;
                 if (!(statementHandler instanceof CallableStatementHandler)) {
-                    // 标记是否修改过 SQL
-                    boolean sqlChangedFlag = false;
                     String originalSql = (String) metaObject.getValue(PluginUtils.DELEGATE_BOUNDSQL_SQL);
-                    for (ISqlParser sqlParser : this.sqlParserList) {
-                        if (sqlParser.doFilter(metaObject, originalSql)) {
-                            SqlInfo sqlInfo = sqlParser.parser(metaObject, originalSql);
-                            if (null != sqlInfo) {
-                                originalSql = sqlInfo.getSql();
-                                sqlChangedFlag = true;
-                            }
-                        }
+                    String parsedSql = this.processSqlParsers(metaObject, originalSql);
+                    if (null != parsedSql) {
+                        metaObject.setValue(PluginUtils.DELEGATE_BOUNDSQL_SQL, parsedSql);
                     }
-                    if (sqlChangedFlag) {
-                        metaObject.setValue(PluginUtils.DELEGATE_BOUNDSQL_SQL, originalSql);
+                }
+            }
+        }
+    }
+
+    /**
+     * 依次执行 SQL 解析器
+     * <p>
+     * {@link ISqlStatementParser} 共享同一次解析的语法树, 只在语法树被修改后且遇到字符串解析器或全部执行完成时生成 SQL;
+     * 其他 {@link ISqlParser} 按字符串处理, 返回新的 SQL 后语法树在下次需要时重新解析.
+     * 注意: 语法树解析器的 doFilter 拿到的是最近一次生成的 SQL
+     * </p>
+     * <p>
+     * 静态 SQL 经过排在最前面的静态解析器 ({@link ISqlParser#isStaticResult()}) 的结果按 MappedStatement 缓存
+     * </p>
+     *
+     * @param metaObject 元对象
+     * @param sql        原始 SQL
+     * @return 解析后的 SQL, 未修改返回 null
+     * @since 3.3.2
+     */
+    protected String processSqlParsers(MetaObject metaObject, String sql) {
+        List<ISqlParser> parsers = this.sqlParserList;
+        int staticCount = staticParserCount(parsers);
+        if (staticCount > 0 && null != metaObject && metaObject.hasGetter(DELEGATE_MAPPEDSTATEMENT)) {
+            MappedStatement mappedStatement = (MappedStatement) metaObject.getValue(DELEGATE_MAPPEDSTATEMENT);
+            if (isStaticSqlSource(mappedStatement)) {
+                StaticSql staticSql = this.staticSqlCache.get(mappedStatement);
+                if (null == staticSql || !staticSql.sql.equals(sql)) {
+                    staticSql = new StaticSql(sql, processSqlParsers(metaObject, sql, parsers.subList(0, staticCount)));
+                    this.staticSqlCache.put(mappedStatement, staticSql);
+                }
+                String currentSql = null == staticSql.parsedSql ? sql : staticSql.parsedSql;
+                String parsedSql = processSqlParsers(metaObject, currentSql, parsers.subList(staticCount, parsers.size()));
+                return null != parsedSql ? parsedSql : staticSql.parsedSql;
+            }
+        }
+        return processSqlParsers(metaObject, sql, parsers);
+    }
+
+    /**
+     * 预解析 MappedStatement 的静态 SQL, 只执行排在最前面的静态解析器 ({@link ISqlParser#isStaticResult()})
+     * <p>解析失败(例如校验不通过)时不缓存, 运行时照常解析</p>
+     *
+     * @param mappedStatement MappedStatement
+     * @since 3.3.2
+     */
+    @Override
+    public void prepareStaticSql(MappedStatement mappedStatement) {
+        List<ISqlParser> parsers = this.sqlParserList;
+        int staticCount = staticParserCount(parsers);
+        if (staticCount == 0 || StatementType.CALLABLE == mappedStatement.getStatementType()
+            || !isStaticSqlSource(mappedStatement)) {
+            return;
+        }
+        try {
+            BoundSql boundSql = mappedStatement.getBoundSql(null);
+            StatementHandler statementHandler = new RoutingStatementHandler(null, mappedStatement, null,
+                RowBounds.DEFAULT, null, boundSql);
+            MetaObject metaObject = SystemMetaObject.forObject(statementHandler);
+            if (SqlParserHelper.getSqlParserInfo(metaObject)) {
+                return;
+            }
+            String sql = boundSql.getSql();
+            this.staticSqlCache.put(mappedStatement, new StaticSql(sql,
+                processSqlParsers(metaObject, sql, parsers.subList(0, staticCount))));
+        } catch (Exception e) {
+            logger.debug("skip prepare static sql of " + mappedStatement.getId() + ", exception=" + e.getMessage());
+        }
+    }
+
+    private static int staticParserCount(List<ISqlParser> parsers) {
+        int count = 0;
+        if (null != parsers) {
+            while (count < parsers.size() && parsers.get(count).isStaticResult()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean isStaticSqlSource(MappedStatement mappedStatement) {
+        SqlSource sqlSource = mappedStatement.getSqlSource();
+        return sqlSource instanceof RawSqlSource || sqlSource instanceof StaticSqlSource;
+    }
+
+    /**
+     * 依次执行指定的 SQL 解析器
+     *
+     * @param metaObject 元对象
+     * @param sql        原始 SQL
+     * @param parsers    SQL 解析器
+     * @return 解析后的 SQL, 未修改返回 null
+     * @since 3.3.2
+     */
+    protected String processSqlParsers(MetaObject metaObject, String sql, List<ISqlParser> parsers) {
+        // 标记是否修改过 SQL
+        boolean sqlChangedFlag = false;
+        boolean statementsChanged = false;
+        Statements statements = null;
+        for (ISqlParser sqlParser : parsers) {
+            if (sqlParser instanceof ISqlStatementParser && ((ISqlStatementParser) sqlParser).supportsStatements()) {
+                if (sqlParser.doFilter(metaObject, sql)) {
+                    if (null == statements) {
+                        statements = parseStatements(sql);
                     }
+                    statementsChanged |= ((ISqlStatementParser) sqlParser).processStatements(metaObject, statements);
+                }
+                continue;
+            }
+            if (statementsChanged) {
+                sql = toSql(statements);
+                statementsChanged = false;
+                sqlChangedFlag = true;
+            }
+            if (sqlParser.doFilter(metaObject, sql)) {
+                SqlInfo sqlInfo = sqlParser.parser(metaObject, sql);
+                if (null != sqlInfo) {
+                    sql = sqlInfo.getSql();
+                    statements = null;
+                    sqlChangedFlag = true;
+                }
+            }
+        }
+        if (statementsChanged) {
+            sql = toSql(statements);
+            sqlChangedFlag = true;
+        }
+        return sqlChangedFlag ? sql : null;
+    }
+
+    private static Statements parseStatements(String sql) {
+        try {
+            return CCJSqlParserUtil.parseStatements(sql);
+        } catch (JSQLParserException e) {
+            throw ExceptionUtils.mpe("Failed to process, please exclude the tableName or statementId.\n Error SQL: %s", e, sql);
+        }
+    }
+
+    private static String toSql(Statements statements) {
+        // fixed github pull/295
+        StringBuilder sqlStringBuilder = new StringBuilder();
+        int i = 0;
+        for (Statement statement : statements.getStatements()) {
+            if (null != statement) {
+                if (i++ > 0) {
+                    sqlStringBuilder.append(';');
                 }
+                sqlStringBuilder.append(statement);
             }
         }
+        return sqlStringBuilder.toString();
+    }
+
+    /**
+     * 静态 SQL 解析结果
+     */
+    private static final class StaticSql {
+
+        private final String sql;
+        /**
+         * 解析后的 SQL, 未修改为 null
+         */
+        private final String parsedSql;
+
+        StaticSql(String sql, String parsedSql) {
+            this.sql = sql;
+            this.parsedSql = parsedSql;
+        }
     }
 }
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.extension.injector.methods;
+
+import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.core.enums.SqlMethod;
+import com.baomidou.mybatisplus.core.injector.AbstractMethod;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.toolkit.Assert;
+import com.baomidou.mybatisplus.core.toolkit.ExceptionUtils;
+import com.baomidou.mybatisplus.core.toolkit.sql.SqlScriptUtils;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlSource;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * 根据主键插入或更新一条数据（选择字段, 数据库原生语法一次完成）
+ * <p>
+ * 字段是否插入的规则与 insert 一致, 主键冲突时更新本次插入的字段,
+ * 不包含逻辑删除字段、乐观锁字段与仅插入时填充({@link FieldFill#INSERT})的字段
+ * </p>
+ * <p>
+ * 注意！执行时只进行插入填充, 主键冲突时不会执行更新填充:
+ * {@link FieldFill#UPDATE} 的字段更新为实体中的值, {@link FieldFill#INSERT_UPDATE} 的字段更新为插入填充的值
+ * </p>
+ * <li> MYSQL, MARIADB: INSERT ... ON DUPLICATE KEY UPDATE </li>
+ * <li> POSTGRE_SQL, KINGBASE_ES, SQLITE: INSERT ... ON CONFLICT (主键) DO UPDATE </li>
+ * <li> H2, ORACLE, DM, SQL_SERVER, SQL_SERVER2005: MERGE INTO ... USING </li>
+ * <p>
+ * 自己的通用 mapper 如下使用:
+ * <pre>
+ * int insertOrUpdate(T entity);
+ * </pre>
+ * 或者通过 {@link com.baomidou.mybatisplus.extension.service.IService#insertOrUpdateBatch(java.util.Collection)} 批量执行
+ * </p>
+ * <p> 表必须有主键; 数据库自增主键仅支持 mysql(主键为 null 时由数据库生成), sequence 主键需自行赋值 </p>
+ *
+ * @since 3.3.2
+ */
+public class InsertOrUpdate extends AbstractMethod {
+
+    /**
+     * mapper 方法名
+     */
+    public static final String METHOD = "insertOrUpdate";
+    private static final String TARGET_ALIAS = "t0";
+    private static final String SOURCE_ALIAS = "s0";
+
+    private final DbType dbType;
+
+    public InsertOrUpdate(DbType dbType) {
+        Assert.notNull(dbType, "dbType must not be null");
+        switch (dbType) {
+            case MYSQL:
+            case MARIADB:
+            case POSTGRE_SQL:
+            case KINGBASE_ES:
+            case SQLITE:
+            case H2:
+            case ORACLE:
+            case DM:
+            case SQL_SERVER:
+            case SQL_SERVER2005:
+                break;
+            default:
+                throw ExceptionUtils.mpe("insertOrUpdate does not support the database type: %s", dbType.getDb());
+        }
+        this.dbType = dbType;
+    }
+
+    @Override
+    public MappedStatement injectMappedStatement(Class<?> mapperClass, Class<?> modelClass, TableInfo tableInfo) {
+        if (!tableInfo.havePK()) {
+            logger.warn(String.format("%s ignore inject insertOrUpdate, because can not find primary key", modelClass.getName()));
+            return null;
+        }
+        boolean mysql = dbType == DbType.MYSQL || dbType == DbType.MARIADB;
+        if (tableInfo.getIdType() == IdType.AUTO && !mysql) {
+            logger.warn(String.format("%s ignore inject insertOrUpdate, because %s does not support the auto increment primary key",
+                modelClass.getName(), dbType.getDb()));
+            return null;
+        }
+        String sql;
+        switch (dbType) {
+            case MYSQL:
+            case MARIADB:
+                sql = onDuplicateKeyUpdate(tableInfo);
+                break;
+            case H2:
+                sql = mergeUsingDual(tableInfo);
+                break;
+            case ORACLE:
+            case DM:
+                sql = merge(tableInfo, " FROM DUAL", EMPTY);
+                break;
+            case SQL_SERVER:
+            case SQL_SERVER2005:
+                sql = merge(tableInfo, EMPTY, SEMICOLON);
+                break;
+            default:
+                sql = onConflictUpdate(tableInfo);
+                break;
+        }
+        KeyGenerator keyGenerator = new NoKeyGenerator();
+        String keyProperty = null;
+        String keyColumn = null;
+        if (tableInfo.getIdType() == IdType.AUTO) {
+            keyGenerator = new Jdbc3KeyGenerator();
+            keyProperty = tableInfo.getKeyProperty();
+            keyColumn = tableInfo.getKeyColumn();
+        }
+        SqlSource sqlSource = languageDriver.createSqlSource(configuration, "<script>\n" + sql + "\n</script>", modelClass);
+        return this.addInsertMappedStatement(mapperClass, modelClass, getMethod(null), sqlSource, keyGenerator, keyProperty, keyColumn);
+    }
+
+    /**
+     * INSERT ... ON DUPLICATE KEY UPDATE
+     * <p>
+     * 自增主键时主键冲突通过 LAST_INSERT_ID(主键) 返回已存在行的主键
+     * </p>
+     */
+    private String onDuplicateKeyUpdate(TableInfo tableInfo) {
+        String keyColumn = tableInfo.getKeyColumn();
+        String keyUpdate = tableInfo.getIdType() == IdType.AUTO ? "LAST_INSERT_ID(" + keyColumn + RIGHT_BRACKET : keyColumn;
+        String updateScript = SqlScriptUtils.convertTrim(keyColumn + EQUALS + keyUpdate + COMMA + NEWLINE +
+            updateItems(tableInfo, i -> i.getColumn() + EQUALS + "VALUES(" + i.getColumn() + RIGHT_BRACKET), null, null, null, COMMA);
+        return String.format("INSERT INTO %s %s VALUES %s\nON DUPLICATE KEY UPDATE %s", tableInfo.getTableName(),
+            columnScript(tableInfo), valuesScript(tableInfo), updateScript);
+    }
+
+    /**
+     * INSERT ... ON CONFLICT (主键) DO UPDATE
+     */
+    private String onConflictUpdate(TableInfo tableInfo) {
+        String keyColumn = tableInfo.getKeyColumn();
+        String updateScript = SqlScriptUtils.convertTrim(keyColumn + EQUALS + "EXCLUDED." + keyColumn + COMMA + NEWLINE +
+            updateItems(tableInfo, i -> i.getColumn() + EQUALS + "EXCLUDED." + i.getColumn()), null, null, null, COMMA);
+        return String.format("INSERT INTO %s %s VALUES %s\nON CONFLICT (%s) DO UPDATE SET %s", tableInfo.getTableName(),
+            columnScript(tableInfo), valuesScript(tableInfo), keyColumn, updateScript);
+    }
+
+    /**
+     * MERGE INTO ... USING
+     *
+     * @param from   数据源 select 的 from 部分
+     * @param suffix 语句结尾
+     */
+    private String merge(TableInfo tableInfo, String from, String suffix) {
+        String keyColumn = tableInfo.getKeyColumn();
+        String sourceScript = SqlScriptUtils.convertTrim(SqlScriptUtils.safeParam(tableInfo.getKeyProperty()) +
+                " AS " + keyColumn + COMMA + NEWLINE + fieldItems(tableInfo, i -> SqlScriptUtils.safeParam(i.getEl()) +
+                " AS " + i.getColumn() + COMMA),
+            null, null, null, COMMA);
+        String updateScript = SqlScriptUtils.convertTrim(updateItems(tableInfo, i -> i.getColumn() + EQUALS + SOURCE_ALIAS + DOT + i.getColumn()),
+            "WHEN MATCHED THEN UPDATE SET", null, null, COMMA);
+        String insertValuesScript = SqlScriptUtils.convertTrim(SOURCE_ALIAS + DOT + keyColumn + COMMA + NEWLINE +
+            fieldItems(tableInfo, i -> SOURCE_ALIAS + DOT + i.getColumn() + COMMA), LEFT_BRACKET, RIGHT_BRACKET, null, COMMA);
+        return String.format("MERGE INTO %s %s USING (SELECT %s%s) %s ON (%s.%s = %s.%s)\n%s\nWHEN NOT MATCHED THEN INSERT %s VALUES %s%s",
+            tableInfo.getTableName(), TARGET_ALIAS, sourceScript, from, SOURCE_ALIAS, TARGET_ALIAS, keyColumn,
+            SOURCE_ALIAS, keyColumn, updateScript, columnScript(tableInfo), insertValuesScript, suffix);
+    }
+
+    /**
+     * MERGE INTO ... USING DUAL
+     * <p>
+     * H2 的 MERGE ... KEY 冲突时按插入字段整行覆盖; USING 子查询中的参数又无法推断类型,
+     * 因此参数直接写在 ON、UPDATE 与 INSERT 中, 由目标字段确定类型
+     * </p>
+     */
+    private String mergeUsingDual(TableInfo tableInfo) {
+        String keyColumn = tableInfo.getKeyColumn();
+        String updateScript = SqlScriptUtils.convertTrim(updateItems(tableInfo, i -> i.getColumn() + EQUALS +
+            SqlScriptUtils.safeParam(i.getEl())), "WHEN MATCHED THEN UPDATE SET", null, null, COMMA);
+        return String.format("MERGE INTO %s %s USING DUAL ON (%s.%s = %s)\n%s\nWHEN NOT MATCHED THEN INSERT %s VALUES %s",
+            tableInfo.getTableName(), TARGET_ALIAS, TARGET_ALIAS, keyColumn, SqlScriptUtils.safeParam(tableInfo.getKeyProperty()),
+            updateScript, columnScript(tableInfo), valuesScript(tableInfo));
+    }
+
+    /**
+     * 插入的字段, 自增主键同样写入主键字段(为 null 时由数据库生成), 否则不会触发主键冲突
+     */
+    private String columnScript(TableInfo tableInfo) {
+        String columns = tableInfo.getAllInsertSqlColumnMaybeIf();
+        if (tableInfo.getIdType() == IdType.AUTO) {
+            columns = tableInfo.getKeyColumn() + COMMA + NEWLINE + columns;
+        }
+        return SqlScriptUtils.convertTrim(columns, LEFT_BRACKET, RIGHT_BRACKET, null, COMMA);
+    }
+
+    private String valuesScript(TableInfo tableInfo) {
+        String values = tableInfo.getAllInsertSqlPropertyMaybeIf(null);
+        if (tableInfo.getIdType() == IdType.AUTO) {
+            values = SqlScriptUtils.safeParam(tableInfo.getKeyProperty()) + COMMA + NEWLINE + values;
+        }
+        return SqlScriptUtils.convertTrim(values, LEFT_BRACKET, RIGHT_BRACKET, null, COMMA);
+    }
+
+    /**
+     * 与 insert 字段对应的片段
+     */
+    private String fieldItems(TableInfo tableInfo, Function<TableFieldInfo, String> mapper) {
+        return tableInfo.getFieldList().stream().map(i -> i.convertInsertIf(mapper.apply(i), null))
+            .filter(Objects::nonNull).collect(joining(NEWLINE));
+    }
+
+    /**
+     * 主键冲突时更新的片段, 不包含逻辑删除字段、乐观锁字段与仅插入时填充的字段
+     */
+    private String updateItems(TableInfo tableInfo, Function<TableFieldInfo, String> mapper) {
+        return tableInfo.getFieldList().stream()
+            .filter(i -> !i.isLogicDelete() && !i.isVersion() && i.getFieldFill() != FieldFill.INSERT)
+            .map(i -> i.convertInsertIf(mapper.apply(i) + COMMA, null))
+            .filter(Objects::nonNull).collect(joining(NEWLINE));
+    }
+
+    @Override
+    public String getMethod(SqlMethod sqlMethod) {
+        // 自定义 mapper 方法名
+        return METHOD;
+    }
+}
@@ -17,10 +17,12 @@ package com.baomidou.mybatisplus.extension.parsers;
 
 import com.baomidou.mybatisplus.core.parser.AbstractJsqlParser;
 import com.baomidou.mybatisplus.core.toolkit.Assert;
+import net.sf.jsqlparser.statement.Statements;
 import net.sf.jsqlparser.statement.delete.Delete;
 import net.sf.jsqlparser.statement.insert.Insert;
 import net.sf.jsqlparser.statement.select.SelectBody;
 import net.sf.jsqlparser.statement.update.Update;
+import org.apache.ibatis.reflection.MetaObject;
 
 /**
  * 攻击 SQL 阻断解析器
@@ -30,6 +32,23 @@ import net.sf.jsqlparser.statement.update.Update;
  */
 public class BlockAttackSqlParser extends AbstractJsqlParser {
 
+    /**
+     * 只校验 SQL 本身, 静态 SQL 无需重复校验
+     */
+    @Override
+    public boolean isStaticResult() {
+        return true;
+    }
+
+    /**
+     * 只校验不修改, 不需要重新生成 SQL
+     */
+    @Override
+    public boolean processStatements(MetaObject metaObject, Statements statements) {
+        super.processStatements(metaObject, statements);
+        return false;
+    }
+
     @Override
     public void processInsert(Insert insert) {
         // to do nothing
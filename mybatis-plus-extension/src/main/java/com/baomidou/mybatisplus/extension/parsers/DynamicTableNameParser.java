@@ -17,6 +17,7 @@ package com.baomidou.mybatisplus.extension.parsers;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.reflection.MetaObject;
 
@@ -39,14 +40,29 @@ import lombok.experimental.Accessors;
 @Accessors(chain = true)
 public class DynamicTableNameParser implements ISqlParser {
 
+    /**
+     * 处理器是否重写了 {@link ITableNameHandler#process(MetaObject, String, String)}
+     */
+    private static final Map<Class<?>, Boolean> PROCESS_OVERRIDDEN = new ConcurrentHashMap<>();
+
     private Map<String, ITableNameHandler> tableNameHandlerMap;
 
     @Override
     public SqlInfo parser(MetaObject metaObject, String sql) {
         Assert.isFalse(CollectionUtils.isEmpty(tableNameHandlerMap), "tableNameHandlerMap is empty.");
         if (allowProcess(metaObject)) {
-            Collection<String> tables = new TableNameParser(sql).tables();
+            TableNameParser tableNameParser = TableNameParser.parse(sql);
+            Collection<String> tables = tableNameParser.tables();
             if (CollectionUtils.isNotEmpty(tables)) {
+                if (tables.stream().map(tableNameHandlerMap::get).noneMatch(DynamicTableNameParser::isProcessOverridden)) {
+                    // 按缓存的表名位置一次替换
+                    String parsedSql = tableNameParser.replace(table -> {
+                        ITableNameHandler tableNameHandler = tableNameHandlerMap.get(table);
+                        String dynamicTableName = null == tableNameHandler ? null : tableNameHandler.dynamicTableName(metaObject, sql, table);
+                        return null == dynamicTableName || dynamicTableName.equalsIgnoreCase(table) ? null : dynamicTableName;
+                    });
+                    return parsedSql == sql ? null : SqlInfo.newInstance().setSql(parsedSql);
+                }
                 boolean sqlParsed = false;
                 String parsedSql = sql;
                 for (final String table : tables) {
@@ -64,6 +80,18 @@ public class DynamicTableNameParser implements ISqlParser {
         return null;
     }
 
+    private static boolean isProcessOverridden(ITableNameHandler tableNameHandler) {
+        if (null == tableNameHandler) {
+            return false;
+        }
+        return PROCESS_OVERRIDDEN.computeIfAbsent(tableNameHandler.getClass(), clazz -> {
+            try {
+                return ITableNameHandler.class != clazz.getMethod("process", MetaObject.class, String.class, String.class).getDeclaringClass();
+            } catch (NoSuchMethodException e) {
+                return true;
+            }
+        });
+    }
 
     /**
      * 判断是否允许执行
@@ -17,17 +17,23 @@ package com.baomidou.mybatisplus.extension.plugins;
 
 import com.baomidou.mybatisplus.core.exceptions.MybatisPlusException;
 import com.baomidou.mybatisplus.core.parser.SqlParserHelper;
-import com.baomidou.mybatisplus.core.toolkit.EncryptUtils;
-import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import com.baomidou.mybatisplus.core.toolkit.Assert;
+import com.baomidou.mybatisplus.core.toolkit.StringPool;
 import com.baomidou.mybatisplus.core.toolkit.StringUtils;
+import com.baomidou.mybatisplus.core.toolkit.support.LruCache;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerChain;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.PluginContext;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
+import lombok.experimental.Accessors;
 import net.sf.jsqlparser.expression.BinaryExpression;
 import net.sf.jsqlparser.expression.Expression;
 import net.sf.jsqlparser.expression.Function;
 import net.sf.jsqlparser.expression.operators.conditional.OrExpression;
 import net.sf.jsqlparser.expression.operators.relational.InExpression;
 import net.sf.jsqlparser.expression.operators.relational.NotEqualsTo;
-import net.sf.jsqlparser.parser.CCJSqlParserUtil;
 import net.sf.jsqlparser.schema.Column;
 import net.sf.jsqlparser.schema.Table;
 import net.sf.jsqlparser.statement.Statement;
@@ -45,7 +51,6 @@ import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.plugin.*;
 import org.apache.ibatis.reflection.MetaObject;
-import org.apache.ibatis.reflection.SystemMetaObject;
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
@@ -53,6 +58,8 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 由于开发人员水平参差不齐，即使订了开发规范很多人也不遵守
@@ -77,23 +84,47 @@ import java.util.concurrent.ConcurrentHashMap;
  * <p>5.where条件使用了 not 关键字</p>
  * <p>6.where条件使用了 or 关键字</p>
  * <p>7.where条件使用了 使用子查询</p>
+ * <br>
+ * <p>验证通过的 SQL 按 MappedStatement id 与 SQL 缓存(有界), 表索引信息按表缓存并定时刷新,
+ * 生产环境可通过 sampleRate 按比例抽样验证</p>
  * @author willenfoo
  * @date 2018-03-22
  */
+@Setter
+@Accessors(chain = true)
 @Intercepts({@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class})})
-public class IllegalSQLInterceptor implements Interceptor {
-
-    /**
-     * 缓存验证结果，提高性能
-     */
-    private static final Set<String> cacheValidResult = new HashSet<>();
+public class IllegalSQLInterceptor implements Interceptor, InnerInterceptor {
 
     private static final Log logger = LogFactory.getLog(IllegalSQLInterceptor.class);
 
     /**
-     * 缓存表的索引信息
+     * 验证结果缓存个数, 小于等于 0 时不缓存
+     *
+     * @since 3.3.2
+     */
+    private int verdictCacheSize = 1024;
+    /**
+     * 表索引信息缓存有效期(毫秒), 过期后重新读取, 小于等于 0 永不过期
+     *
+     * @since 3.3.2
+     */
+    private long indexInfoTtl = TimeUnit.MINUTES.toMillis(10);
+    /**
+     * 未验证过的 SQL 的抽样验证比例, 取值 (0, 1], 默认 1 全部验证
+     *
+     * @since 3.3.2
      */
-    private static final Map<String, List<IndexInfo>> indexInfoMap = new ConcurrentHashMap<>();
+    private double sampleRate = 1.0D;
+    /**
+     * 缓存验证通过的结果，提高性能
+     */
+    @Setter(AccessLevel.NONE)
+    private volatile LruCache<VerdictKey, Boolean> verdictCache;
+    /**
+     * 表索引信息缓存 (库名.表名 -> 索引信息)
+     */
+    @Setter(AccessLevel.NONE)
+    private final Map<String, IndexInfoEntry> indexInfoCache = new ConcurrentHashMap<>();
 
     /**
      * 验证expression对象是不是 or、not等等
@@ -139,7 +170,7 @@ public class IllegalSQLInterceptor implements Interceptor {
      * @param table ignore
      * @param connection ignore
      */
-    private static void validJoins(List<Join> joins, Table table, Connection connection) {
+    private void validJoins(List<Join> joins, Table table, Connection connection) {
         //允许执行join，验证jion是否使用索引等等
         if (joins != null) {
             for (Join join : joins) {
@@ -157,7 +188,7 @@ public class IllegalSQLInterceptor implements Interceptor {
      * @param columnName ignore
      * @param connection ignore
      */
-    private static void validUseIndex(Table table, String columnName, Connection connection) {
+    private void validUseIndex(Table table, String columnName, Connection connection) {
         //是否使用索引
         boolean useIndexFlag = false;
 
@@ -172,7 +203,7 @@ public class IllegalSQLInterceptor implements Interceptor {
             dbName = tableArray[0];
             tableName = tableArray[1];
         }
-        List<IndexInfo> indexInfos = getIndexInfos(dbName, tableName, connection);
+        List<IndexInfo> indexInfos = getCachedIndexInfos(dbName, tableName, connection);
         for (IndexInfo indexInfo : indexInfos) {
             if (Objects.equals(columnName, indexInfo.getColumnName())) {
                 useIndexFlag = true;
@@ -191,7 +222,7 @@ public class IllegalSQLInterceptor implements Interceptor {
      * @param table ignore
      * @param connection ignore
      */
-    private static void validWhere(Expression expression, Table table, Connection connection) {
+    private void validWhere(Expression expression, Table table, Connection connection) {
         validWhere(expression, table, null, connection);
     }
 
@@ -203,7 +234,7 @@ public class IllegalSQLInterceptor implements Interceptor {
      * @param joinTable ignore
      * @param connection ignore
      */
-    private static void validWhere(Expression expression, Table table, Table joinTable, Connection connection) {
+    private void validWhere(Expression expression, Table table, Table joinTable, Connection connection) {
         validExpression(expression);
         if (expression instanceof BinaryExpression) {
             //获得左边表达式
@@ -238,78 +269,144 @@ public class IllegalSQLInterceptor implements Interceptor {
     }
 
     /**
-     * 得到表的索引信息
+     * 读取表的索引信息
      *
-     * @param dbName ignore
-     * @param tableName ignore
-     * @param conn ignore
-     * @return ignore
+     * @param dbName    库名
+     * @param tableName 表名
+     * @param conn      连接
+     * @return 索引信息, 读取失败时返回 null
      */
-    public static List<IndexInfo> getIndexInfos(String dbName, String tableName, Connection conn) {
-        return getIndexInfos(null, dbName, tableName, conn);
+    private static List<IndexInfo> loadIndexInfos(String dbName, String tableName, Connection conn) {
+        try {
+            DatabaseMetaData metadata = conn.getMetaData();
+            String catalog = StringUtils.isBlank(dbName) ? conn.getCatalog() : dbName;
+            String schema = StringUtils.isBlank(dbName) ? conn.getSchema() : dbName;
+            ResultSet rs = metadata.getIndexInfo(catalog, schema, tableName, false, true);
+            List<IndexInfo> indexInfos = new ArrayList<>();
+            while (rs.next()) {
+                //索引中的列序列号等于1，才有效
+                if (Objects.equals(rs.getString(8), "1")) {
+                    IllegalSQLInterceptor.IndexInfo indexInfo = new IllegalSQLInterceptor.IndexInfo();
+                    indexInfo.setDbName(rs.getString(1));
+                    indexInfo.setTableName(rs.getString(3));
+                    indexInfo.setColumnName(rs.getString(9));
+                    indexInfos.add(indexInfo);
+                }
+            }
+            return indexInfos;
+        } catch (SQLException e) {
+            logger.error("读取表 " + tableName + " 的索引信息失败", e);
+            return null;
+        }
     }
 
     /**
-     * 得到表的索引信息
+     * 得到表的索引信息, 按表缓存, 超过 indexInfoTtl 后重新读取
      *
-     * @param key ignore
-     * @param dbName ignore
-     * @param tableName ignore
-     * @param conn ignore
-     * @return ignore
+     * @param dbName    库名
+     * @param tableName 表名
+     * @param conn      连接
+     * @return 索引信息
+     * @since 3.3.2
      */
-    public static List<IndexInfo> getIndexInfos(String key, String dbName, String tableName, Connection conn) {
-        List<IndexInfo> indexInfos = null;
-        if (StringUtils.isNotBlank(key)) {
-            indexInfos = indexInfoMap.get(key);
+    private List<IndexInfo> getCachedIndexInfos(String dbName, String tableName, Connection conn) {
+        String key = StringUtils.isBlank(dbName) ? tableName : dbName + StringPool.DOT + tableName;
+        long now = System.currentTimeMillis();
+        IndexInfoEntry entry = indexInfoCache.get(key);
+        if (entry == null || (indexInfoTtl > 0 && now - entry.loadTime > indexInfoTtl)) {
+            List<IndexInfo> indexInfos = loadIndexInfos(dbName, tableName, conn);
+            // 读取失败时不缓存, 下次重试
+            if (indexInfos == null) {
+                return Collections.emptyList();
+            }
+            entry = new IndexInfoEntry(indexInfos, now);
+            indexInfoCache.put(key, entry);
         }
-        if (indexInfos == null || indexInfos.isEmpty()) {
-            ResultSet rs;
-            try {
-                DatabaseMetaData metadata = conn.getMetaData();
-                String catalog = StringUtils.isBlank(dbName) ? conn.getCatalog() : dbName;
-                String schema = StringUtils.isBlank(dbName) ? conn.getSchema() : dbName;
-                rs = metadata.getIndexInfo(catalog, schema, tableName, false, true);
-                indexInfos = new ArrayList<>();
-                while (rs.next()) {
-                    //索引中的列序列号等于1，才有效
-                    if (Objects.equals(rs.getString(8), "1")) {
-                        IllegalSQLInterceptor.IndexInfo indexInfo = new IllegalSQLInterceptor.IndexInfo();
-                        indexInfo.setDbName(rs.getString(1));
-                        indexInfo.setTableName(rs.getString(3));
-                        indexInfo.setColumnName(rs.getString(9));
-                        indexInfos.add(indexInfo);
-                    }
-                }
-                if (StringUtils.isNotBlank(key)) {
-                    indexInfoMap.put(key, indexInfos);
+        return entry.indexInfos;
+    }
+
+    /**
+     * 设置验证结果缓存个数, 已有缓存将被丢弃
+     *
+     * @param verdictCacheSize 缓存个数, 小于等于 0 时不缓存
+     * @return this
+     * @since 3.3.2
+     */
+    public IllegalSQLInterceptor setVerdictCacheSize(int verdictCacheSize) {
+        this.verdictCacheSize = verdictCacheSize;
+        this.verdictCache = null;
+        return this;
+    }
+
+    /**
+     * 设置未验证过的 SQL 的抽样验证比例
+     *
+     * @param sampleRate 抽样比例, 取值 (0, 1]
+     * @return this
+     * @since 3.3.2
+     */
+    public IllegalSQLInterceptor setSampleRate(double sampleRate) {
+        Assert.isTrue(sampleRate > 0.0D && sampleRate <= 1.0D, "sampleRate must be in (0, 1], but was %s", sampleRate);
+        this.sampleRate = sampleRate;
+        return this;
+    }
+
+    /**
+     * 清空表索引信息缓存, 表结构变更后可调用
+     *
+     * @since 3.3.2
+     */
+    public void clearIndexInfoCache() {
+        indexInfoCache.clear();
+    }
+
+    /**
+     * 获取验证结果缓存
+     *
+     * @return 验证结果缓存, 未开启缓存时返回 null
+     * @since 3.3.2
+     */
+    public LruCache<VerdictKey, Boolean> getVerdictCache() {
+        LruCache<VerdictKey, Boolean> cache = this.verdictCache;
+        if (null == cache && this.verdictCacheSize > 0) {
+            synchronized (this) {
+                cache = this.verdictCache;
+                if (null == cache) {
+                    cache = new LruCache<>(this.verdictCacheSize);
+                    this.verdictCache = cache;
                 }
-            } catch (SQLException e) {
-                e.printStackTrace();
             }
         }
-        return indexInfos;
+        return cache;
     }
 
     @Override
     public Object intercept(Invocation invocation) throws Throwable {
-        StatementHandler statementHandler = PluginUtils.realTarget(invocation.getTarget());
-        MetaObject metaObject = SystemMetaObject.forObject(statementHandler);
+        return this.prepare(new PluginContext(invocation), invocation::proceed);
+    }
+
+    @Override
+    public Object prepare(PluginContext context, InnerChain chain) throws Throwable {
+        MetaObject metaObject = context.getMetaObject();
         // 如果是insert操作， 或者 @SqlParser(filter = true) 跳过该方法解析 ， 不进行验证
-        MappedStatement mappedStatement = (MappedStatement) metaObject.getValue("delegate.mappedStatement");
+        MappedStatement mappedStatement = context.getMappedStatement();
         if (SqlCommandType.INSERT.equals(mappedStatement.getSqlCommandType()) || SqlParserHelper.getSqlParserInfo(metaObject)) {
-            return invocation.proceed();
+            return chain.proceed();
         }
-        BoundSql boundSql = (BoundSql) metaObject.getValue("delegate.boundSql");
+        BoundSql boundSql = context.getBoundSql();
         String originalSql = boundSql.getSql();
-        logger.debug("检查SQL是否合规，SQL:" + originalSql);
-        String md5Base64 = EncryptUtils.md5Base64(originalSql);
-        if (cacheValidResult.contains(md5Base64)) {
-            logger.debug("该SQL已验证，无需再次验证，，SQL:" + originalSql);
-            return invocation.proceed();
+        VerdictKey verdictKey = new VerdictKey(mappedStatement.getId(), originalSql);
+        LruCache<VerdictKey, Boolean> cache = getVerdictCache();
+        if (null != cache && null != cache.get(verdictKey)) {
+            return chain.proceed();
+        }
+        if (sampleRate < 1.0D && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            // 未抽中, 本次不验证
+            return chain.proceed();
         }
-        Connection connection = (Connection) invocation.getArgs()[0];
-        Statement statement = CCJSqlParserUtil.parse(originalSql);
+        logger.debug("检查SQL是否合规，SQL:" + originalSql);
+        Connection connection = context.getConnection();
+        Statement statement = context.getStatement();
         Expression where = null;
         Table table = null;
         List<Join> joins = null;
@@ -336,8 +433,10 @@ public class IllegalSQLInterceptor implements Interceptor {
         validWhere(where, table, connection);
         validJoins(joins, table, connection);
         //缓存验证结果
-        cacheValidResult.add(md5Base64);
-        return invocation.proceed();
+        if (null != cache) {
+            cache.put(verdictKey, Boolean.TRUE);
+        }
+        return chain.proceed();
     }
 
     @Override
@@ -350,7 +449,63 @@ public class IllegalSQLInterceptor implements Interceptor {
 
     @Override
     public void setProperties(Properties prop) {
+        String verdictCacheSize = prop.getProperty("verdictCacheSize");
+        String indexInfoTtl = prop.getProperty("indexInfoTtl");
+        String sampleRate = prop.getProperty("sampleRate");
+        if (StringUtils.isNotBlank(verdictCacheSize)) {
+            setVerdictCacheSize(Integer.parseInt(verdictCacheSize));
+        }
+        if (StringUtils.isNotBlank(indexInfoTtl)) {
+            setIndexInfoTtl(Long.parseLong(indexInfoTtl));
+        }
+        if (StringUtils.isNotBlank(sampleRate)) {
+            setSampleRate(Double.parseDouble(sampleRate));
+        }
+    }
 
+    /**
+     * 验证结果缓存 key: MappedStatement id + SQL
+     */
+    protected static final class VerdictKey {
+
+        private final String id;
+        private final String sql;
+
+        VerdictKey(String id, String sql) {
+            this.id = id;
+            this.sql = sql;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof VerdictKey)) {
+                return false;
+            }
+            VerdictKey that = (VerdictKey) o;
+            return id.equals(that.id) && sql.equals(that.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * id.hashCode() + sql.hashCode();
+        }
+    }
+
+    /**
+     * 表索引信息缓存项
+     */
+    private static final class IndexInfoEntry {
+
+        private final List<IndexInfo> indexInfos;
+        private final long loadTime;
+
+        IndexInfoEntry(List<IndexInfo> indexInfos, long loadTime) {
+            this.indexInfos = indexInfos;
+            this.loadTime = loadTime;
+        }
     }
 
     /**
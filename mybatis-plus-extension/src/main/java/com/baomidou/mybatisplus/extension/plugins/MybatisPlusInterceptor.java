@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.extension.plugins;
+
+import com.baomidou.mybatisplus.core.parser.IStaticSqlPreparer;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerChain;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.PluginContext;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.*;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * MybatisPlus 统一拦截器
+ * <p>
+ * 按顺序执行内部拦截器 {@link InnerInterceptor}, 每个被拦截对象只包装一层代理, 且解包与元数据读取在一次拦截中只执行一次.
+ * {@link PaginationInterceptor}、{@link OptimisticLockerInterceptor}、{@link IllegalSQLInterceptor}、
+ * {@link SqlExplainInterceptor} 均可作为内部拦截器使用
+ * </p>
+ * <pre>
+ * new MybatisPlusInterceptor()
+ *     .addInnerInterceptor(new OptimisticLockerInterceptor())
+ *     .addInnerInterceptor(new PaginationInterceptor())
+ * </pre>
+ *
+ * @since 3.3.2
+ */
+@Intercepts({@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}),
+    @Signature(type = StatementHandler.class, method = "query", args = {Statement.class, ResultHandler.class}),
+    @Signature(type = StatementHandler.class, method = "queryCursor", args = {Statement.class}),
+    @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+    @Signature(type = Executor.class, method = "commit", args = {boolean.class}),
+    @Signature(type = Executor.class, method = "rollback", args = {boolean.class}),
+    @Signature(type = Executor.class, method = "close", args = {boolean.class})})
+public class MybatisPlusInterceptor implements Interceptor, IStaticSqlPreparer {
+
+    private final List<InnerInterceptor> interceptors = new ArrayList<>();
+
+    public MybatisPlusInterceptor addInnerInterceptor(InnerInterceptor innerInterceptor) {
+        this.interceptors.add(innerInterceptor);
+        return this;
+    }
+
+    public MybatisPlusInterceptor setInterceptors(List<InnerInterceptor> interceptors) {
+        this.interceptors.clear();
+        this.interceptors.addAll(interceptors);
+        return this;
+    }
+
+    public List<InnerInterceptor> getInterceptors() {
+        return Collections.unmodifiableList(interceptors);
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        PluginContext context = new PluginContext(invocation);
+        int phase;
+        if (!context.isStatementHandler()) {
+            phase = "update".equals(invocation.getMethod().getName()) ? Chain.UPDATE : Chain.COMPLETE;
+        } else if (context.getArgs()[0] instanceof Statement) {
+            phase = Chain.QUERY;
+        } else {
+            phase = Chain.PREPARE;
+        }
+        return new Chain(context, phase).proceed();
+    }
+
+    @Override
+    public Object plugin(Object target) {
+        if (target instanceof Executor || target instanceof StatementHandler) {
+            return Plugin.wrap(target, this);
+        }
+        return target;
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+        // to do nothing
+    }
+
+    /**
+     * 转发给支持静态 SQL 预解析的内部拦截器
+     */
+    @Override
+    public void prepareStaticSql(MappedStatement mappedStatement) {
+        for (InnerInterceptor interceptor : interceptors) {
+            if (interceptor instanceof IStaticSqlPreparer) {
+                ((IStaticSqlPreparer) interceptor).prepareStaticSql(mappedStatement);
+            }
+        }
+    }
+
+    /**
+     * 单次拦截的调用链
+     */
+    private class Chain implements InnerChain {
+
+        private static final int PREPARE = 0;
+        private static final int QUERY = 1;
+        private static final int UPDATE = 2;
+        private static final int COMPLETE = 3;
+
+        private final PluginContext context;
+        private final int phase;
+        private int index;
+
+        Chain(PluginContext context, int phase) {
+            this.context = context;
+            this.phase = phase;
+        }
+
+        @Override
+        public Object proceed() throws Throwable {
+            if (index >= interceptors.size()) {
+                return context.getInvocation().proceed();
+            }
+            InnerInterceptor interceptor = interceptors.get(index++);
+            switch (phase) {
+                case PREPARE:
+                    return interceptor.prepare(context, this);
+                case QUERY:
+                    return interceptor.query(context, this);
+                case UPDATE:
+                    return interceptor.update(context, this);
+                default:
+                    return interceptor.complete(context, this);
+            }
+        }
+    }
+}
@@ -23,6 +23,9 @@ import com.baomidou.mybatisplus.core.metadata.TableInfo;
 import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
 import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.baomidou.mybatisplus.core.toolkit.StringPool;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerChain;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.PluginContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.SqlCommandType;
@@ -56,19 +59,23 @@ import java.util.Properties;
  * @since 2017/5/24
  */
 @Intercepts({@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})})
-public class OptimisticLockerInterceptor implements Interceptor {
+public class OptimisticLockerInterceptor implements Interceptor, InnerInterceptor {
 
     private static final String PARAM_UPDATE_METHOD_NAME = "update";
 
     @Override
-    @SuppressWarnings({"unchecked", "rawtypes"})
     public Object intercept(Invocation invocation) throws Throwable {
-        Object[] args = invocation.getArgs();
-        MappedStatement ms = (MappedStatement) args[0];
+        return this.update(new PluginContext(invocation), invocation::proceed);
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Object update(PluginContext context, InnerChain chain) throws Throwable {
+        MappedStatement ms = context.getMappedStatement();
         if (SqlCommandType.UPDATE != ms.getSqlCommandType()) {
-            return invocation.proceed();
+            return chain.proceed();
         }
-        Object param = args[1];
+        Object param = context.getParameter();
         if (param instanceof Map) {
             Map map = (Map) param;
             //updateById(et), update(et, wrapper);
@@ -79,14 +86,14 @@ public class OptimisticLockerInterceptor implements Interceptor {
                 String methodName = methodId.substring(methodId.lastIndexOf(StringPool.DOT) + 1);
                 TableInfo tableInfo = TableInfoHelper.getTableInfo(et.getClass());
                 if (tableInfo == null || !tableInfo.isWithVersion()) {
-                    return invocation.proceed();
+                    return chain.proceed();
                 }
                 TableFieldInfo fieldInfo = tableInfo.getVersionFieldInfo();
                 Field versionField = fieldInfo.getField();
                 // 旧的 version 值
                 Object originalVersionVal = versionField.get(et);
                 if (originalVersionVal == null) {
-                    return invocation.proceed();
+                    return chain.proceed();
                 }
                 String versionColumn = fieldInfo.getColumn();
                 // 新的 version 值
@@ -104,10 +111,10 @@ public class OptimisticLockerInterceptor implements Interceptor {
                     map.put(Constants.MP_OPTLOCK_VERSION_ORIGINAL, originalVersionVal);
                 }
                 versionField.set(et, updatedVersionVal);
-                return invocation.proceed();
+                return chain.proceed();
             }
         }
-        return invocation.proceed();
+        return chain.proceed();
     }
 
     /**
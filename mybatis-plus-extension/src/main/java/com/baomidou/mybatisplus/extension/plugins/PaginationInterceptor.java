@@ -17,23 +17,46 @@ package com.baomidou.mybatisplus.extension.plugins;
 
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.core.MybatisDefaultParameterHandler;
+import com.baomidou.mybatisplus.core.exceptions.MybatisPlusException;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.core.metadata.OrderItem;
 import com.baomidou.mybatisplus.core.parser.ISqlParser;
 import com.baomidou.mybatisplus.core.parser.SqlInfo;
 import com.baomidou.mybatisplus.core.toolkit.*;
+import com.baomidou.mybatisplus.core.toolkit.support.LruCache;
 import com.baomidou.mybatisplus.extension.handlers.AbstractSqlParserHandler;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerChain;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.PluginContext;
 import com.baomidou.mybatisplus.extension.plugins.pagination.DialectFactory;
+import com.baomidou.mybatisplus.extension.plugins.pagination.CountCache;
 import com.baomidou.mybatisplus.extension.plugins.pagination.DialectModel;
+import com.baomidou.mybatisplus.extension.plugins.pagination.KeysetPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.estimate.CountEstimatorRegistry;
+import com.baomidou.mybatisplus.extension.plugins.pagination.estimate.ICountEstimator;
+import com.baomidou.mybatisplus.extension.plugins.pagination.optimize.DeferredJoinOptimize;
 import com.baomidou.mybatisplus.extension.plugins.pagination.dialects.IDialect;
 import com.baomidou.mybatisplus.extension.toolkit.JdbcUtils;
 import com.baomidou.mybatisplus.extension.toolkit.SqlParserUtils;
+import lombok.AccessLevel;
 import lombok.Setter;
 import lombok.experimental.Accessors;
 import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.BinaryExpression;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.JdbcParameter;
+import net.sf.jsqlparser.expression.LongValue;
+import net.sf.jsqlparser.expression.Parenthesis;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.expression.operators.conditional.OrExpression;
+import net.sf.jsqlparser.expression.operators.relational.EqualsTo;
+import net.sf.jsqlparser.expression.operators.relational.GreaterThan;
+import net.sf.jsqlparser.expression.operators.relational.MinorThan;
 import net.sf.jsqlparser.parser.CCJSqlParserUtil;
 import net.sf.jsqlparser.schema.Column;
 import net.sf.jsqlparser.statement.select.*;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
 import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
@@ -43,12 +66,24 @@ import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.SystemMetaObject;
 import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.sql.DataSource;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 /**
@@ -59,10 +94,19 @@ import java.util.stream.Collectors;
  */
 @Setter
 @Accessors(chain = true)
-@Intercepts({@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class})})
-public class PaginationInterceptor extends AbstractSqlParserHandler implements Interceptor {
+@Intercepts({@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}),
+    @Signature(type = StatementHandler.class, method = "query", args = {Statement.class, ResultHandler.class}),
+    @Signature(type = StatementHandler.class, method = "queryCursor", args = {Statement.class}),
+    @Signature(type = org.apache.ibatis.executor.Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+    @Signature(type = org.apache.ibatis.executor.Executor.class, method = "commit", args = {boolean.class}),
+    @Signature(type = org.apache.ibatis.executor.Executor.class, method = "rollback", args = {boolean.class}),
+    @Signature(type = org.apache.ibatis.executor.Executor.class, method = "close", args = {boolean.class})})
+public class PaginationInterceptor extends AbstractSqlParserHandler implements Interceptor, InnerInterceptor {
 
     protected static final Log logger = LogFactory.getLog(PaginationInterceptor.class);
+    private static final String KEYSET_PARAM_NAME = "mybatis_plus_keyset_";
+    private static final String COUNT_FUTURE_PARAM_NAME = "mybatis_plus_count_future";
+    private static final String OPTIMISTIC_COUNT_PARAM_NAME = "mybatis_plus_optimistic_count";
     /**
      * COUNT SQL 解析
      */
@@ -101,6 +145,105 @@ public class PaginationInterceptor extends AbstractSqlParserHandler implements I
      */
     @Deprecated
     protected String dialectClazz;
+    /**
+     * COUNT SQL 解析结果缓存个数,小于等于 0 不缓存
+     *
+     * @since 3.3.2
+     */
+    private int countSqlCacheSize = 1024;
+    /**
+     * 是否记录 COUNT SQL 缓存命中统计
+     *
+     * @since 3.3.2
+     */
+    private boolean countSqlCacheStats = false;
+    /**
+     * COUNT SQL 解析结果缓存 (原 SQL -> SqlInfo)
+     */
+    @Setter(AccessLevel.NONE)
+    private volatile LruCache<String, SqlInfo> countSqlCache;
+    /**
+     * 拼接 Order By 后的 SQL 缓存个数,小于等于 0 不缓存
+     *
+     * @since 3.3.2
+     */
+    private int orderBySqlCacheSize = 1024;
+    /**
+     * 拼接 Order By 后的 SQL 缓存 (原 SQL + 排序元素 -> SQL)
+     */
+    @Setter(AccessLevel.NONE)
+    private volatile LruCache<String, String> orderBySqlCache;
+    /**
+     * 未指定 dbType 时是否按连接的 JDBC URL 缓存解析出的数据库类型<br>
+     * 按 URL 而不是 DataSource 缓存, 动态数据源路由到不同类型的数据库时同样适用
+     *
+     * @since 3.3.2
+     */
+    private boolean dialectCacheByUrl = true;
+    /**
+     * JDBC URL 数据库类型缓存
+     */
+    @Setter(AccessLevel.NONE)
+    private final Map<String, DbType> urlDbTypeCache = new ConcurrentHashMap<>();
+    /**
+     * 并行执行 COUNT 查询的线程池, 为 null 时不开启
+     *
+     * @see #setCountExecutor(Executor)
+     * @since 3.3.2
+     */
+    private Executor countExecutor;
+    /**
+     * 估算总记录数的阈值, 小于等于 0 不估算<br>
+     * 开启后先使用数据库执行计划或统计信息估算, 估算值不小于该阈值时直接作为总数(见 {@link IPage#isTotalEstimated()}),
+     * 否则执行精确 COUNT
+     *
+     * @since 3.3.2
+     */
+    private long estimateCountThreshold = 0L;
+    /**
+     * 总记录数估算实现, 为 null 时按数据库类型从 {@link CountEstimatorRegistry} 获取
+     *
+     * @since 3.3.2
+     */
+    private ICountEstimator countEstimator;
+    /**
+     * 总记录数估算实现注册表
+     */
+    @Setter(AccessLevel.NONE)
+    private final CountEstimatorRegistry countEstimatorRegistry = new CountEstimatorRegistry();
+    /**
+     * COUNT 结果缓存, 为 null 时不缓存<br>
+     * 仅对自动提交(非事务)连接生效, 写语句需经过本插件才能使缓存失效;
+     * 写语句执行前失效一次, 执行器提交、回滚或关闭后(Spring 事务内为事务结束后)再失效一次, 期间涉及表的 COUNT 结果不缓存.
+     * 涉及的表按实际执行的 SQL (SQL 解析与动态表名替换后) 解析
+     *
+     * @since 3.3.2
+     */
+    private CountCache countCache;
+    /**
+     * 各执行器未结束的写语句
+     */
+    @Setter(AccessLevel.NONE)
+    private final Map<Object, PendingWrites> executorWrites = Collections.synchronizedMap(new WeakHashMap<>());
+    /**
+     * 当前线程正在执行写语句的执行器的未结束写语句
+     */
+    @Setter(AccessLevel.NONE)
+    private final ThreadLocal<PendingWrites> executingWrites = new ThreadLocal<>();
+    /**
+     * 延迟关联分页优化, 对 {@link IPage#deferredJoin()} 为 true 的分页生效
+     *
+     * @since 3.3.2
+     */
+    private DeferredJoinOptimize deferredJoinOptimize = new DeferredJoinOptimize();
+    /**
+     * 第一页是否先查询数据再决定是否 COUNT<br>
+     * 开启后偏移量为 0 的分页多取一条数据, 数据不足一页时直接以记录数作为总数, 省去 COUNT 查询,
+     * 否则丢弃多取的一条后再执行 COUNT. 游标查询无法预先得知记录数, 在打开游标前执行 COUNT
+     *
+     * @since 3.3.2
+     */
+    private boolean optimisticCount = false;
 
     /**
      * 查询SQL拼接Order By
@@ -158,24 +301,148 @@ public class PaginationInterceptor extends AbstractSqlParserHandler implements I
     /**
      * Physical Page Interceptor for all the queries with parameter {@link RowBounds}
      */
-    @SuppressWarnings("unchecked")
     @Override
     public Object intercept(Invocation invocation) throws Throwable {
-        StatementHandler statementHandler = PluginUtils.realTarget(invocation.getTarget());
-        MetaObject metaObject = SystemMetaObject.forObject(statementHandler);
+        PluginContext context = new PluginContext(invocation);
+        if (!context.isStatementHandler()) {
+            if ("update".equals(invocation.getMethod().getName())) {
+                return this.update(context, invocation::proceed);
+            }
+            return this.complete(context, invocation::proceed);
+        }
+        if (invocation.getArgs()[0] instanceof Statement) {
+            return this.query(context, invocation::proceed);
+        }
+        return this.prepare(context, invocation::proceed);
+    }
+
+    /**
+     * 记录执行写语句的执行器, 写语句在 prepare 阶段按实际执行的 SQL 使 COUNT 结果缓存失效
+     */
+    @Override
+    public Object update(PluginContext context, InnerChain chain) throws Throwable {
+        if (null == this.countCache) {
+            return chain.proceed();
+        }
+        PendingWrites previous = this.executingWrites.get();
+        this.executingWrites.set(this.executorWrites.computeIfAbsent(context.getInvocation().getTarget(),
+            k -> new PendingWrites(this.countCache)));
+        try {
+            return chain.proceed();
+        } finally {
+            if (null == previous) {
+                this.executingWrites.remove();
+            } else {
+                this.executingWrites.set(previous);
+            }
+        }
+    }
+
+    /**
+     * 执行器提交、回滚或关闭后结束其写语句, 批量执行器的写语句在此之前才真正执行
+     */
+    @Override
+    public Object complete(PluginContext context, InnerChain chain) throws Throwable {
+        if (null == this.countCache) {
+            return chain.proceed();
+        }
+        try {
+            return chain.proceed();
+        } finally {
+            PendingWrites pendingWrites = this.executorWrites.remove(context.getInvocation().getTarget());
+            if (null != pendingWrites) {
+                pendingWrites.endAll();
+            }
+        }
+    }
+
+    /**
+     * 写语句执行前使涉及表的 COUNT 结果缓存失效, 直到写语句结束前这些表的 COUNT 结果都不缓存
+     * <p>
+     * Spring 事务内在事务结束后结束, 否则在执行器提交、回滚或关闭后结束, 事务提交前其他连接读到的仍是旧数据
+     * </p>
+     *
+     * @param sql 实际执行的写语句
+     */
+    private void beginWrite(String sql) {
+        PendingWrites pendingWrites;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingWrites = (PendingWrites) TransactionSynchronizationManager.getResource(this.countCache);
+            if (null == pendingWrites) {
+                pendingWrites = new PendingWrites(this.countCache);
+                TransactionSynchronizationManager.bindResource(this.countCache, pendingWrites);
+                TransactionSynchronizationManager.registerSynchronization(pendingWrites);
+            }
+        } else {
+            pendingWrites = this.executingWrites.get();
+        }
+        if (null == pendingWrites) {
+            // 未经过本插件的执行器, 无法得知何时结束, 只失效一次
+            this.countCache.invalidate(sql);
+        } else {
+            pendingWrites.begin(sql);
+        }
+    }
+
+    /**
+     * 未结束的写语句
+     */
+    private static final class PendingWrites implements TransactionSynchronization {
+
+        private final CountCache countCache;
+        private final Map<String, Integer> sqls = new HashMap<>();
+
+        PendingWrites(CountCache countCache) {
+            this.countCache = countCache;
+        }
+
+        synchronized void begin(String sql) {
+            this.countCache.beginWrite(sql);
+            this.sqls.merge(sql, 1, Integer::sum);
+        }
+
+        synchronized void endAll() {
+            this.sqls.forEach((sql, times) -> {
+                for (int i = 0; i < times; i++) {
+                    this.countCache.endWrite(sql);
+                }
+            });
+            this.sqls.clear();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(this.countCache);
+            this.endAll();
+        }
+    }
+
+    @Override
+    public Object query(PluginContext context, InnerChain chain) throws Throwable {
+        return this.queryAndAwaitTotal(context, chain);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Object prepare(PluginContext context, InnerChain chain) throws Throwable {
+        MetaObject metaObject = context.getMetaObject();
 
         // SQL 解析
         this.sqlParser(metaObject);
 
         // 先判断是不是SELECT操作  (2019-04-10 00:37:31 跳过存储过程)
-        MappedStatement mappedStatement = (MappedStatement) metaObject.getValue("delegate.mappedStatement");
-        if (SqlCommandType.SELECT != mappedStatement.getSqlCommandType()
+        MappedStatement mappedStatement = context.getMappedStatement();
+        BoundSql boundSql = context.getBoundSql();
+        SqlCommandType sqlCommandType = mappedStatement.getSqlCommandType();
+        if (SqlCommandType.SELECT != sqlCommandType
             || StatementType.CALLABLE == mappedStatement.getStatementType()) {
-            return invocation.proceed();
+            if (null != this.countCache && SqlCommandType.SELECT != sqlCommandType) {
+                this.beginWrite(boundSql.getSql());
+            }
+            return chain.proceed();
         }
 
         // 针对定义了rowBounds，做为mapper接口方法的参数
-        BoundSql boundSql = (BoundSql) metaObject.getValue("delegate.boundSql");
         Object paramObj = boundSql.getParameterObject();
 
         // 判断参数里是否有page对象
@@ -185,7 +452,7 @@ public class PaginationInterceptor extends AbstractSqlParserHandler implements I
          * 不需要分页的场合，如果 size 小于 0 返回结果集
          */
         if (null == page || page.getSize() < 0) {
-            return invocation.proceed();
+            return chain.proceed();
         }
 
         if (this.limit > 0 && this.limit <= page.getSize()) {
@@ -194,26 +461,335 @@ public class PaginationInterceptor extends AbstractSqlParserHandler implements I
         }
 
         String originalSql = boundSql.getSql();
-        Connection connection = (Connection) invocation.getArgs()[0];
+        Connection connection = context.getConnection();
+        Configuration configuration = mappedStatement.getConfiguration();
+        Map<String, Object> additionalParameters = (Map<String, Object>) metaObject.getValue("delegate.boundSql.additionalParameters");
 
+        page.totalEstimated(false);
+        boolean optimistic = false;
         if (page.isSearchCount() && !page.isHitCount()) {
-            SqlInfo sqlInfo = SqlParserUtils.getOptimizeCountSql(page.optimizeCountSql(), countSqlParser, originalSql);
-            this.queryTotal(sqlInfo.getSql(), mappedStatement, boundSql, page, connection);
-            if (page.getTotal() <= 0) {
-                return null;
+            // 交给 ResultHandler 处理的结果不经过 query 阶段的结果判断, 只做同步 COUNT
+            boolean resultHandler = hasResultHandler(metaObject);
+            if (this.optimisticCount && !resultHandler && page.offset() == 0 && !(page instanceof KeysetPage)) {
+                // 先查询数据, 多取一条用于判断是否需要 COUNT
+                additionalParameters.put(OPTIMISTIC_COUNT_PARAM_NAME, new OptimisticCount(originalSql, mappedStatement,
+                    this.copyBoundSql(originalSql, mappedStatement, boundSql, additionalParameters), page, connection));
+                optimistic = true;
+            } else if (!this.estimateTotal(originalSql, mappedStatement, boundSql, page, connection)) {
+                SqlInfo sqlInfo = this.getOptimizeCountSql(page.optimizeCountSql(), originalSql);
+                DataSource dataSource = resultHandler ? null : this.getConcurrentCountDataSource(configuration, connection);
+                if (null != dataSource) {
+                    additionalParameters.put(COUNT_FUTURE_PARAM_NAME, this.queryTotalAsync(sqlInfo.getSql(),
+                        mappedStatement, boundSql, additionalParameters, page, dataSource));
+                } else {
+                    this.queryTotalSync(sqlInfo.getSql(), mappedStatement, boundSql, page, connection);
+                    if (page.getTotal() <= 0) {
+                        return null;
+                    }
+                }
             }
         }
-        DbType dbType = this.dbType == null ? JdbcUtils.getDbType(connection.getMetaData().getURL()) : this.dbType;
-        IDialect dialect = Optional.ofNullable(this.dialect).orElseGet(() -> DialectFactory.getDialect(dbType));
-        String buildSql = concatOrderBy(originalSql, page);
-        DialectModel model = dialect.buildPaginationSql(buildSql, page.offset(), page.getSize());
-        Configuration configuration = mappedStatement.getConfiguration();
+        IDialect dialect = this.findDialect(configuration, connection);
+        String buildSql = this.getOrderBySql(originalSql, page);
         List<ParameterMapping> mappings = new ArrayList<>(boundSql.getParameterMappings());
-        Map<String, Object> additionalParameters = (Map<String, Object>) metaObject.getValue("delegate.boundSql.additionalParameters");
+        if (page instanceof KeysetPage) {
+            KeysetPage<?> keysetPage = (KeysetPage<?>) page;
+            if (buildSql == originalSql && CollectionUtils.isNotEmpty(keysetPage.getLastValues())) {
+                // 未拼接排序时复用拦截上下文中的解析结果, 追加条件后的 SQL 随后写回 BoundSql
+                buildSql = this.buildKeysetSql(this.parseKeysetSql(context), buildSql, keysetPage, configuration,
+                    mappings, additionalParameters);
+            } else {
+                buildSql = this.buildKeysetSql(buildSql, keysetPage, configuration, mappings, additionalParameters);
+            }
+        }
+        DialectModel model = null;
+        if (page.deferredJoin() && page.offset() > 0) {
+            model = this.deferredJoinOptimize.buildPaginationSql(buildSql, dialect, page.offset(), page.getSize());
+        }
+        if (null == model) {
+            model = dialect.buildPaginationSql(buildSql, page.offset(), optimistic ? page.getSize() + 1 : page.getSize());
+        }
         model.consumers(mappings, configuration, additionalParameters);
         metaObject.setValue("delegate.boundSql.sql", model.getDialectSql());
         metaObject.setValue("delegate.boundSql.parameterMappings", mappings);
-        return invocation.proceed();
+        return chain.proceed();
+    }
+
+    /**
+     * 获取拼接 Order By 后的 SQL, 结果按原 SQL 与排序元素缓存
+     *
+     * @param originalSql 需要拼接的SQL
+     * @param page        page对象
+     * @return ignore
+     * @since 3.3.2
+     */
+    public String getOrderBySql(String originalSql, IPage<?> page) {
+        List<OrderItem> orders = page.orders();
+        if (CollectionUtils.isEmpty(orders)) {
+            return originalSql;
+        }
+        LruCache<String, String> cache = getOrderBySqlCache();
+        if (null == cache) {
+            return concatOrderBy(originalSql, page);
+        }
+        StringBuilder key = new StringBuilder(originalSql.length() + orders.size() * 16).append(originalSql);
+        for (OrderItem item : orders) {
+            key.append(StringPool.NEWLINE).append(item.getColumn()).append(StringPool.SPACE).append(item.isAsc());
+        }
+        return cache.computeIfAbsent(key.toString(), k -> concatOrderBy(originalSql, page));
+    }
+
+    /**
+     * 追加 keyset 分页条件
+     * <p>
+     * 按最终 SQL 的 ORDER BY 生成 (c1 > ?) OR (c1 = ? AND c2 > ?) ..., 降序字段使用 &lt;,
+     * 排序引用的查询字段别名替换为对应的表达式, 不支持按字段序号排序,
+     * 条件参数追加在原参数之后, 因此 WHERE 之后的部分不能包含参数
+     * </p>
+     *
+     * @param sql                  拼接 Order By 后的 SQL
+     * @param page                 keyset 分页对象
+     * @param configuration        Configuration
+     * @param mappings             参数映射(追加)
+     * @param additionalParameters 额外参数(追加)
+     * @return 追加条件后的 SQL
+     * @since 3.3.2
+     */
+    protected String buildKeysetSql(String sql, KeysetPage<?> page, Configuration configuration,
+                                    List<ParameterMapping> mappings, Map<String, Object> additionalParameters) {
+        if (CollectionUtils.isEmpty(page.getLastValues())) {
+            return sql;
+        }
+        net.sf.jsqlparser.statement.Statement statement;
+        try {
+            statement = CCJSqlParserUtil.parse(sql);
+        } catch (JSQLParserException e) {
+            throw ExceptionUtils.mpe("Failed to process keyset pagination of sql: \n %s \n", e, sql);
+        }
+        return this.buildKeysetSql(statement, sql, page, configuration, mappings, additionalParameters);
+    }
+
+    /**
+     * 追加 keyset 分页条件, 直接修改已解析的 SQL
+     *
+     * @param statement            sql 的解析结果
+     * @param sql                  拼接 Order By 后的 SQL
+     * @param page                 keyset 分页对象
+     * @param configuration        Configuration
+     * @param mappings             参数映射(追加)
+     * @param additionalParameters 额外参数(追加)
+     * @return 追加条件后的 SQL
+     * @since 3.3.2
+     */
+    protected String buildKeysetSql(net.sf.jsqlparser.statement.Statement statement, String sql, KeysetPage<?> page,
+                                    Configuration configuration, List<ParameterMapping> mappings,
+                                    Map<String, Object> additionalParameters) {
+        List<Object> lastValues = page.getLastValues();
+        if (CollectionUtils.isEmpty(lastValues)) {
+            return sql;
+        }
+        Assert.isTrue(statement instanceof Select && ((Select) statement).getSelectBody() instanceof PlainSelect,
+            "keyset pagination only supports plain select: %s", sql);
+        Select selectStatement = (Select) statement;
+        PlainSelect plainSelect = (PlainSelect) selectStatement.getSelectBody();
+        // 排序引用的查询字段别名不能用于 WHERE, 替换为对应的表达式
+        List<OrderByElement> orderByElements = SqlParserUtils.resolveOrderByAliases(plainSelect.getSelectItems(),
+            plainSelect.getOrderByElements());
+        Assert.isTrue(orderByElements.size() == lastValues.size(),
+            "keyset pagination requires %s ORDER BY columns: %s", lastValues.size(), sql);
+        Assert.isTrue(null == plainSelect.getGroupBy() && null == plainSelect.getHaving() && null == plainSelect.getLimit()
+                && null == plainSelect.getOffset() && null == plainSelect.getFetch() && null == plainSelect.getTop(),
+            "keyset pagination does not support group by, having or limit: %s", sql);
+        for (OrderByElement element : orderByElements) {
+            Assert.isTrue(null == element.getNullOrdering() && !(element.getExpression() instanceof LongValue)
+                    && !element.toString().contains(StringPool.QUESTION_MARK),
+                "keyset pagination does not support order by element: %s", element);
+        }
+        Expression seek = null;
+        for (int i = 0; i < orderByElements.size(); i++) {
+            Expression clause = null;
+            for (int j = 0; j <= i; j++) {
+                OrderByElement element = orderByElements.get(j);
+                JdbcParameter parameter = new JdbcParameter();
+                BinaryExpression expression = j < i ? new EqualsTo() : (element.isAsc() ? new GreaterThan() : new MinorThan());
+                expression.setLeftExpression(element.getExpression());
+                expression.setRightExpression(parameter);
+                clause = null == clause ? expression : new AndExpression(clause, expression);
+                this.addKeysetParameter(j, lastValues.get(j), configuration, mappings, additionalParameters);
+            }
+            seek = null == seek ? clause : new OrExpression(seek, clause);
+        }
+        Expression where = plainSelect.getWhere();
+        plainSelect.setWhere(null == where ? new Parenthesis(seek) : new AndExpression(new Parenthesis(where), new Parenthesis(seek)));
+        return selectStatement.toString();
+    }
+
+    private net.sf.jsqlparser.statement.Statement parseKeysetSql(PluginContext context) {
+        try {
+            return context.getStatement();
+        } catch (JSQLParserException e) {
+            throw ExceptionUtils.mpe("Failed to process keyset pagination of sql: \n %s \n", e, context.getBoundSql().getSql());
+        }
+    }
+
+    private void addKeysetParameter(int index, Object value, Configuration configuration,
+                                    List<ParameterMapping> mappings, Map<String, Object> additionalParameters) {
+        Assert.notNull(value, "keyset pagination value at index %s must not be null", index);
+        String property = KEYSET_PARAM_NAME + index;
+        mappings.add(new ParameterMapping.Builder(configuration, property, value.getClass()).build());
+        additionalParameters.put(property, value);
+    }
+
+    /**
+     * 获取分页方言
+     * <p>
+     * 优先使用配置的 dialect 与 dbType, 否则按连接的 JDBC URL 解析一次并缓存
+     * </p>
+     *
+     * @param configuration Configuration
+     * @param connection    Connection
+     * @return 方言实现对象
+     * @since 3.3.2
+     */
+    protected IDialect findDialect(Configuration configuration, Connection connection) throws SQLException {
+        if (null != this.dialect) {
+            return this.dialect;
+        }
+        return DialectFactory.getDialect(this.findDbType(configuration, connection));
+    }
+
+    /**
+     * 获取数据库类型
+     * <p>
+     * 优先使用配置的 dbType, 否则按连接的 JDBC URL 解析一次并缓存
+     * </p>
+     *
+     * @param configuration Configuration
+     * @param connection    Connection
+     * @return 数据库类型
+     * @since 3.3.2
+     */
+    protected DbType findDbType(Configuration configuration, Connection connection) throws SQLException {
+        if (null != this.dbType) {
+            return this.dbType;
+        }
+        String url = connection.getMetaData().getURL();
+        if (!this.dialectCacheByUrl || null == url) {
+            return JdbcUtils.getDbType(url);
+        }
+        return this.urlDbTypeCache.computeIfAbsent(url, JdbcUtils::getDbType);
+    }
+
+    /**
+     * 获取总记录数估算实现注册表, 可注册自定义数据库的估算实现
+     *
+     * @return 注册表
+     * @since 3.3.2
+     */
+    public CountEstimatorRegistry getCountEstimatorRegistry() {
+        return this.countEstimatorRegistry;
+    }
+
+    /**
+     * 估算总记录数
+     * <p>
+     * 估算值不小于 estimateCountThreshold 时设置为总数并返回 true, 否则(包括估算失败)返回 false 执行精确 COUNT
+     * </p>
+     *
+     * @param sql             原始查询 SQL
+     * @param mappedStatement MappedStatement
+     * @param boundSql        BoundSql
+     * @param page            IPage
+     * @param connection      Connection
+     * @return 是否使用估算值
+     * @since 3.3.2
+     */
+    protected boolean estimateTotal(String sql, MappedStatement mappedStatement, BoundSql boundSql, IPage<?> page, Connection connection) {
+        if (this.estimateCountThreshold <= 0) {
+            return false;
+        }
+        try {
+            ICountEstimator estimator = null != this.countEstimator ? this.countEstimator
+                : this.countEstimatorRegistry.getEstimator(this.findDbType(mappedStatement.getConfiguration(), connection));
+            if (null == estimator) {
+                return false;
+            }
+            long estimate = estimator.estimate(sql, connection,
+                new MybatisDefaultParameterHandler(mappedStatement, boundSql.getParameterObject(), boundSql));
+            if (estimate < this.estimateCountThreshold) {
+                return false;
+            }
+            page.setTotal(estimate);
+            page.totalEstimated(true);
+            if (this.overflow && page.getCurrent() > page.getPages()) {
+                handlerOverflow(page);
+            }
+            return true;
+        } catch (Exception e) {
+            logger.warn("failed to estimate total, fallback to count, exception=" + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 获取拼接 Order By 后的 SQL 缓存
+     *
+     * @return 缓存, 未开启缓存返回 null
+     * @since 3.3.2
+     */
+    public LruCache<String, String> getOrderBySqlCache() {
+        if (this.orderBySqlCacheSize <= 0) {
+            return null;
+        }
+        LruCache<String, String> cache = this.orderBySqlCache;
+        if (null == cache) {
+            synchronized (this) {
+                cache = this.orderBySqlCache;
+                if (null == cache) {
+                    cache = new LruCache<>(this.orderBySqlCacheSize);
+                    this.orderBySqlCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * 获取 COUNT SQL, 优化结果按原 SQL 缓存
+     *
+     * @param optimizeCountSql 是否优化 Count SQL
+     * @param originalSql      需要计算Count SQL
+     * @return SqlInfo
+     */
+    protected SqlInfo getOptimizeCountSql(boolean optimizeCountSql, String originalSql) {
+        LruCache<String, SqlInfo> cache = getCountSqlCache();
+        if (!optimizeCountSql || null == cache) {
+            return SqlParserUtils.getOptimizeCountSql(optimizeCountSql, countSqlParser, originalSql);
+        }
+        return cache.computeIfAbsent(originalSql, sql -> SqlParserUtils.getOptimizeCountSql(true, countSqlParser, sql));
+    }
+
+    /**
+     * 获取 COUNT SQL 缓存, 可用于查看命中统计
+     *
+     * @return COUNT SQL 缓存, 未开启缓存返回 null
+     * @since 3.3.2
+     */
+    public LruCache<String, SqlInfo> getCountSqlCache() {
+        if (this.countSqlCacheSize <= 0) {
+            return null;
+        }
+        LruCache<String, SqlInfo> cache = this.countSqlCache;
+        if (null == cache) {
+            synchronized (this) {
+                cache = this.countSqlCache;
+                if (null == cache) {
+                    cache = new LruCache<>(this.countSqlCacheSize, this.countSqlCacheStats);
+                    this.countSqlCache = cache;
+                }
+            }
+        }
+        return cache;
     }
 
     /**
@@ -235,6 +811,69 @@ public class PaginationInterceptor extends AbstractSqlParserHandler implements I
      * @param connection      Connection
      */
     protected void queryTotal(String sql, MappedStatement mappedStatement, BoundSql boundSql, IPage<?> page, Connection connection) {
+        page.setTotal(this.executeCount(sql, mappedStatement, boundSql, connection));
+        if (this.overflow && page.getCurrent() > page.getPages()) {
+            //溢出总页数处理
+            handlerOverflow(page);
+        }
+    }
+
+    /**
+     * 查询总记录条数, 结果使用 countCache 缓存
+     *
+     * @param sql             count sql
+     * @param mappedStatement MappedStatement
+     * @param boundSql        BoundSql
+     * @param page            IPage
+     * @param connection      Connection
+     * @since 3.3.2
+     */
+    protected void queryTotalCached(String sql, MappedStatement mappedStatement, BoundSql boundSql, IPage<?> page, Connection connection) {
+        long total;
+        try {
+            total = this.countCache.get(this.countCache.createKey(sql, mappedStatement, boundSql), sql,
+                () -> this.executeCount(sql, mappedStatement, boundSql, connection));
+        } catch (MybatisPlusException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw ExceptionUtils.mpe("Error: Method queryTotal execution error of sql : \n %s \n", e, sql);
+        }
+        page.setTotal(total);
+        if (this.overflow && page.getCurrent() > page.getPages()) {
+            //溢出总页数处理
+            handlerOverflow(page);
+        }
+    }
+
+    /**
+     * 在当前连接上查询总记录条数, 开启 countCache 且为自动提交连接时使用缓存
+     *
+     * @param sql             count sql
+     * @param mappedStatement MappedStatement
+     * @param boundSql        BoundSql
+     * @param page            IPage
+     * @param connection      Connection
+     * @since 3.3.2
+     */
+    protected void queryTotalSync(String sql, MappedStatement mappedStatement, BoundSql boundSql, IPage<?> page, Connection connection) throws SQLException {
+        if (null != this.countCache && connection.getAutoCommit()) {
+            this.queryTotalCached(sql, mappedStatement, boundSql, page, connection);
+        } else {
+            this.queryTotal(sql, mappedStatement, boundSql, page, connection);
+        }
+    }
+
+    /**
+     * 执行 count sql
+     *
+     * @param sql             count sql
+     * @param mappedStatement MappedStatement
+     * @param boundSql        BoundSql
+     * @param connection      Connection
+     * @return 总记录条数
+     * @since 3.3.2
+     */
+    protected long executeCount(String sql, MappedStatement mappedStatement, BoundSql boundSql, Connection connection) {
         try (PreparedStatement statement = connection.prepareStatement(sql)) {
             DefaultParameterHandler parameterHandler = new MybatisDefaultParameterHandler(mappedStatement, boundSql.getParameterObject(), boundSql);
             parameterHandler.setParameters(statement);
@@ -244,16 +883,268 @@ public class PaginationInterceptor extends AbstractSqlParserHandler implements I
                     total = resultSet.getLong(1);
                 }
             }
-            page.setTotal(total);
-            if (this.overflow && page.getCurrent() > page.getPages()) {
-                //溢出总页数处理
-                handlerOverflow(page);
-            }
+            return total;
         } catch (Exception e) {
             throw ExceptionUtils.mpe("Error: Method queryTotal execution error of sql : \n %s \n", e, sql);
         }
     }
 
+    /**
+     * 获取并行 COUNT 查询使用的数据源
+     * <p>
+     * 未配置 countExecutor、开启 overflow、当前连接或线程处于事务中, 或数据源不支持时返回 null (同步 COUNT)
+     * </p>
+     *
+     * @param configuration Configuration
+     * @param connection    当前连接
+     * @return 数据源
+     * @since 3.3.2
+     */
+    protected DataSource getConcurrentCountDataSource(Configuration configuration, Connection connection) throws SQLException {
+        if (null == this.countExecutor || this.overflow || !connection.getAutoCommit()
+            || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+        Environment environment = configuration.getEnvironment();
+        DataSource dataSource = null == environment ? null : environment.getDataSource();
+        return null != dataSource && this.supportsConcurrentCount(dataSource) ? dataSource : null;
+    }
+
+    /**
+     * 数据源是否支持并行 COUNT
+     * <p>
+     * 并行 COUNT 在线程池中从数据源获取新连接, 依赖当前线程路由键的动态数据源会路由到默认数据库,
+     * 默认排除 {@link AbstractRoutingDataSource} 及包装了它的数据源, 其他动态数据源实现可重写该方法排除
+     * </p>
+     *
+     * @param dataSource 数据源
+     * @return 是否支持
+     * @since 3.3.2
+     */
+    protected boolean supportsConcurrentCount(DataSource dataSource) throws SQLException {
+        return !(dataSource instanceof AbstractRoutingDataSource) && !dataSource.isWrapperFor(AbstractRoutingDataSource.class);
+    }
+
+    /**
+     * 在另一个连接上异步查询总记录条数
+     * <p>
+     * 使用 BoundSql 副本, 避免与随后改写分页参数的当前 BoundSql 互相影响
+     * </p>
+     *
+     * @param sql                  count sql
+     * @param mappedStatement      MappedStatement
+     * @param boundSql             BoundSql
+     * @param additionalParameters BoundSql 额外参数
+     * @param page                 IPage
+     * @param dataSource           DataSource
+     * @return 查询结果
+     * @since 3.3.2
+     */
+    protected CompletableFuture<Void> queryTotalAsync(String sql, MappedStatement mappedStatement, BoundSql boundSql,
+                                                      Map<String, Object> additionalParameters, IPage<?> page, DataSource dataSource) {
+        BoundSql countBoundSql = this.copyBoundSql(sql, mappedStatement, boundSql, additionalParameters);
+        return CompletableFuture.runAsync(() -> {
+            try (Connection connection = dataSource.getConnection()) {
+                this.queryTotal(sql, mappedStatement, countBoundSql, page, connection);
+            } catch (SQLException e) {
+                throw ExceptionUtils.mpe("Error: Method queryTotal execution error of sql : \n %s \n", e, sql);
+            }
+        }, this.countExecutor);
+    }
+
+    /**
+     * 复制 BoundSql, 避免与随后改写分页参数的当前 BoundSql 互相影响
+     */
+    private BoundSql copyBoundSql(String sql, MappedStatement mappedStatement, BoundSql boundSql, Map<String, Object> additionalParameters) {
+        BoundSql copy = new BoundSql(mappedStatement.getConfiguration(), sql,
+            new ArrayList<>(boundSql.getParameterMappings()), boundSql.getParameterObject());
+        additionalParameters.forEach(copy::setAdditionalParameter);
+        return copy;
+    }
+
+    /**
+     * 执行分页数据查询, 并等待并行的 COUNT 查询结束, 或按第一页结果决定是否 COUNT (游标查询在打开游标前 COUNT)
+     * <p>
+     * 数据查询异常时同样等待 COUNT 结束, COUNT 的异常作为 suppressed 异常附加
+     * </p>
+     *
+     * @param context StatementHandler.query 或 queryCursor 拦截上下文
+     * @param chain   调用链
+     * @return 查询结果
+     * @since 3.3.2
+     */
+    protected Object queryAndAwaitTotal(PluginContext context, InnerChain chain) throws Throwable {
+        BoundSql boundSql = context.getStatementHandler().getBoundSql();
+        CompletableFuture<?> future = boundSql.hasAdditionalParameter(COUNT_FUTURE_PARAM_NAME)
+            ? (CompletableFuture<?>) boundSql.getAdditionalParameter(COUNT_FUTURE_PARAM_NAME) : null;
+        OptimisticCount optimisticCount = boundSql.hasAdditionalParameter(OPTIMISTIC_COUNT_PARAM_NAME)
+            ? (OptimisticCount) boundSql.getAdditionalParameter(OPTIMISTIC_COUNT_PARAM_NAME) : null;
+        boolean cursor = "queryCursor".equals(context.getInvocation().getMethod().getName());
+        if (null != optimisticCount && cursor) {
+            // 游标打开后同一连接上不能再执行 COUNT (如 MySQL 流式结果集), 也无法预先判断记录数, 先按普通方式 COUNT
+            this.queryTotalDeferred(optimisticCount);
+        }
+        Object result;
+        try {
+            result = chain.proceed();
+        } catch (Throwable e) {
+            if (null != future) {
+                try {
+                    awaitTotal(future);
+                } catch (Throwable countError) {
+                    e.addSuppressed(countError);
+                }
+            }
+            throw e;
+        }
+        if (null != optimisticCount) {
+            if (cursor) {
+                // 只返回 size 条
+                result = new FirstPageCursor<>((Cursor<?>) result, optimisticCount.page.getSize());
+            } else if (result instanceof List) {
+                this.queryTotalOptimistic((List<?>) result, optimisticCount);
+            }
+        }
+        if (null != future) {
+            awaitTotal(future);
+            IPage<?> page = ParameterUtils.findPage(boundSql.getParameterObject()).orElse(null);
+            if (null != page && page.getTotal() <= 0 && result instanceof List) {
+                // 与同步 COUNT 一致, 总数为 0 时不返回数据
+                return new ArrayList<>();
+            }
+        }
+        return result;
+    }
+
+    private static void awaitTotal(CompletableFuture<?> future) throws Throwable {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 是否将结果交给自定义 ResultHandler 处理 (无法确定时视为是)
+     */
+    private static boolean hasResultHandler(MetaObject metaObject) {
+        Object resultSetHandler = metaObject.getValue("delegate.resultSetHandler");
+        if (resultSetHandler instanceof DefaultResultSetHandler) {
+            return null != SystemMetaObject.forObject(resultSetHandler).getValue("resultHandler");
+        }
+        return true;
+    }
+
+    /**
+     * 按第一页(多取一条)的查询结果确定总记录条数
+     * <p>
+     * 记录数不超过 size 时即为总数, 否则移除多取的一条并执行 COUNT
+     * </p>
+     *
+     * @param records         第一页记录(可修改)
+     * @param optimisticCount COUNT 所需信息
+     * @since 3.3.2
+     */
+    protected void queryTotalOptimistic(List<?> records, OptimisticCount optimisticCount) throws SQLException {
+        IPage<?> page = optimisticCount.page;
+        if (records.size() <= page.getSize()) {
+            page.setTotal(records.size());
+            return;
+        }
+        records.remove(records.size() - 1);
+        this.queryTotalDeferred(optimisticCount);
+    }
+
+    /**
+     * 按数据查询时保存的信息执行 COUNT
+     */
+    private void queryTotalDeferred(OptimisticCount optimisticCount) throws SQLException {
+        IPage<?> page = optimisticCount.page;
+        MappedStatement mappedStatement = optimisticCount.mappedStatement;
+        BoundSql boundSql = optimisticCount.boundSql;
+        Connection connection = optimisticCount.connection;
+        if (!this.estimateTotal(optimisticCount.sql, mappedStatement, boundSql, page, connection)) {
+            SqlInfo sqlInfo = this.getOptimizeCountSql(page.optimizeCountSql(), optimisticCount.sql);
+            this.queryTotalSync(sqlInfo.getSql(), mappedStatement, boundSql, page, connection);
+        }
+    }
+
+    /**
+     * 第一页延后 COUNT 所需信息
+     */
+    protected static final class OptimisticCount {
+
+        private final String sql;
+        private final MappedStatement mappedStatement;
+        private final BoundSql boundSql;
+        private final IPage<?> page;
+        private final Connection connection;
+
+        OptimisticCount(String sql, MappedStatement mappedStatement, BoundSql boundSql, IPage<?> page, Connection connection) {
+            this.sql = sql;
+            this.mappedStatement = mappedStatement;
+            this.boundSql = boundSql;
+            this.page = page;
+            this.connection = connection;
+        }
+    }
+
+    /**
+     * 第一页游标, 不返回多取的一条
+     */
+    private static final class FirstPageCursor<T> implements Cursor<T> {
+
+        private final Cursor<T> delegate;
+        private final long size;
+
+        FirstPageCursor(Cursor<T> delegate, long size) {
+            this.delegate = delegate;
+            this.size = size;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return delegate.isOpen();
+        }
+
+        @Override
+        public boolean isConsumed() {
+            return delegate.isConsumed() || delegate.getCurrentIndex() + 1 >= size;
+        }
+
+        @Override
+        public int getCurrentIndex() {
+            return delegate.getCurrentIndex();
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            Iterator<T> iterator = delegate.iterator();
+            return new Iterator<T>() {
+                private long count = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return count < size && iterator.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    count++;
+                    return iterator.next();
+                }
+            };
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
     /**
      * 处理页数溢出,默认设置为第一页
      *
@@ -265,7 +1156,7 @@ public class PaginationInterceptor extends AbstractSqlParserHandler implements I
 
     @Override
     public Object plugin(Object target) {
-        if (target instanceof StatementHandler) {
+        if (target instanceof StatementHandler || (target instanceof org.apache.ibatis.executor.Executor && null != this.countCache)) {
             return Plugin.wrap(target, this);
         }
         return target;
@@ -278,6 +1169,14 @@ public class PaginationInterceptor extends AbstractSqlParserHandler implements I
         String limit = prop.getProperty("limit");
         String dialectType = prop.getProperty("dialectType");
         String dialectClazz = prop.getProperty("dialectClazz");
+        String countSqlCacheSize = prop.getProperty("countSqlCacheSize");
+        String countSqlCacheStats = prop.getProperty("countSqlCacheStats");
+        String orderBySqlCacheSize = prop.getProperty("orderBySqlCacheSize");
+        String dialectCacheByUrl = prop.getProperty("dialectCacheByUrl");
+        String estimateCountThreshold = prop.getProperty("estimateCountThreshold");
+        String countCacheSize = prop.getProperty("countCacheSize");
+        String countCacheTtl = prop.getProperty("countCacheTtl");
+        String optimisticCount = prop.getProperty("optimisticCount");
         setOverflow(Boolean.parseBoolean(overflow));
         if (StringUtils.isNotBlank(countSqlParser)) {
             setCountSqlParser(ClassUtils.newInstance(countSqlParser));
@@ -291,8 +1190,93 @@ public class PaginationInterceptor extends AbstractSqlParserHandler implements I
         if (StringUtils.isNotBlank(limit)) {
             setLimit(Long.parseLong(limit));
         }
+        if (StringUtils.isNotBlank(countSqlCacheSize)) {
+            setCountSqlCacheSize(Integer.parseInt(countSqlCacheSize));
+        }
+        if (StringUtils.isNotBlank(countSqlCacheStats)) {
+            setCountSqlCacheStats(Boolean.parseBoolean(countSqlCacheStats));
+        }
+        if (StringUtils.isNotBlank(orderBySqlCacheSize)) {
+            setOrderBySqlCacheSize(Integer.parseInt(orderBySqlCacheSize));
+        }
+        if (StringUtils.isNotBlank(dialectCacheByUrl)) {
+            setDialectCacheByUrl(Boolean.parseBoolean(dialectCacheByUrl));
+        }
+        if (StringUtils.isNotBlank(optimisticCount)) {
+            setOptimisticCount(Boolean.parseBoolean(optimisticCount));
+        }
+        if (StringUtils.isNotBlank(estimateCountThreshold)) {
+            setEstimateCountThreshold(Long.parseLong(estimateCountThreshold));
+        }
+        if (StringUtils.isNotBlank(countCacheSize)) {
+            long ttl = StringUtils.isNotBlank(countCacheTtl) ? Long.parseLong(countCacheTtl) : 0L;
+            setCountCache(new CountCache(Integer.parseInt(countCacheSize), ttl));
+        }
+    }
+
+    /**
+     * 设置并行执行 COUNT 查询的线程池, 为 null 时不开启
+     * <p>
+     * 开启后 COUNT 在线程池中从 Environment 的数据源获取另一个连接, 与分页数据查询并行执行.
+     * 仅对自动提交且不在 Spring 事务中的查询生效, 开启 overflow、使用自定义 ResultHandler 时仍同步执行.
+     * 注意！新连接不在调用线程的事务中, 也拿不到调用线程上的路由键, 动态数据源需确保被 {@link #supportsConcurrentCount(DataSource)} 排除
+     * </p>
+     *
+     * @param countExecutor 线程池
+     * @since 3.3.2
+     */
+    public PaginationInterceptor setCountExecutor(Executor countExecutor) {
+        this.countExecutor = countExecutor;
+        return this;
+    }
+
+    /**
+     * 设置 COUNT SQL 解析类, 同时清空 COUNT SQL 缓存
+     *
+     * @param countSqlParser COUNT SQL 解析类
+     */
+    public PaginationInterceptor setCountSqlParser(ISqlParser countSqlParser) {
+        this.countSqlParser = countSqlParser;
+        this.countSqlCache = null;
+        return this;
+    }
+
+    /**
+     * 设置 COUNT SQL 缓存个数, 小于等于 0 关闭缓存
+     *
+     * @param countSqlCacheSize 缓存个数
+     * @since 3.3.2
+     */
+    public PaginationInterceptor setCountSqlCacheSize(int countSqlCacheSize) {
+        this.countSqlCacheSize = countSqlCacheSize;
+        this.countSqlCache = null;
+        return this;
+    }
+
+    /**
+     * 设置是否记录 COUNT SQL 缓存命中统计
+     *
+     * @param countSqlCacheStats 是否记录
+     * @since 3.3.2
+     */
+    public PaginationInterceptor setCountSqlCacheStats(boolean countSqlCacheStats) {
+        this.countSqlCacheStats = countSqlCacheStats;
+        this.countSqlCache = null;
+        return this;
     }
     
+    /**
+     * 设置拼接 Order By 后的 SQL 缓存个数, 小于等于 0 关闭缓存
+     *
+     * @param orderBySqlCacheSize 缓存个数
+     * @since 3.3.2
+     */
+    public PaginationInterceptor setOrderBySqlCacheSize(int orderBySqlCacheSize) {
+        this.orderBySqlCacheSize = orderBySqlCacheSize;
+        this.orderBySqlCache = null;
+        return this;
+    }
+
     /**
      * 设置方言类型
      *
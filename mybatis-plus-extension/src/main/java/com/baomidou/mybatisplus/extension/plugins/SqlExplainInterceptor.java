@@ -31,6 +31,9 @@ import org.apache.ibatis.reflection.SystemMetaObject;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.RowBounds;
 import com.baomidou.mybatisplus.extension.handlers.AbstractSqlParserHandler;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerChain;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.PluginContext;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.experimental.Accessors;
@@ -46,7 +49,7 @@ import lombok.experimental.Accessors;
 @Data
 @Accessors(chain = true)
 @Intercepts({@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})})
-public class SqlExplainInterceptor extends AbstractSqlParserHandler implements Interceptor {
+public class SqlExplainInterceptor extends AbstractSqlParserHandler implements Interceptor, InnerInterceptor {
 
     @SuppressWarnings("unused")
 	private static final Log logger = LogFactory.getLog(SqlExplainInterceptor.class);
@@ -55,16 +58,20 @@ public class SqlExplainInterceptor extends AbstractSqlParserHandler implements I
 
     @Override
     public Object intercept(Invocation invocation) throws Throwable {
-        Object[] args = invocation.getArgs();
-        MappedStatement ms = (MappedStatement) args[0];
+        return this.update(new PluginContext(invocation), invocation::proceed);
+    }
+
+    @Override
+    public Object update(PluginContext context, InnerChain chain) throws Throwable {
+        MappedStatement ms = context.getMappedStatement();
         if (ms.getSqlCommandType() == SqlCommandType.DELETE || ms.getSqlCommandType() == SqlCommandType.UPDATE) {
-            Object parameter = args[1];
+            Object parameter = context.getParameter();
             Configuration configuration = ms.getConfiguration();
-            Object target = invocation.getTarget();
+            Object target = context.getInvocation().getTarget();
             StatementHandler handler = configuration.newStatementHandler((Executor) target, ms, parameter, RowBounds.DEFAULT, null, null);
             this.sqlParser(SystemMetaObject.forObject(handler));
         }
-        return invocation.proceed();
+        return chain.proceed();
     }
 
     @Override
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.extension.plugins.inner;
+
+/**
+ * 内部拦截器调用链
+ *
+ * @since 3.3.2
+ */
+@FunctionalInterface
+public interface InnerChain {
+
+    /**
+     * 执行下一个内部拦截器, 没有时执行被拦截的方法
+     *
+     * @return 执行结果
+     * @throws Throwable 异常
+     */
+    Object proceed() throws Throwable;
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.extension.plugins.inner;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * 内部拦截器, 由 {@link com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor} 按顺序调用
+ * <p>
+ * 同一次拦截中各内部拦截器共享 {@link PluginContext}, 需要继续执行时调用 {@link InnerChain#proceed()},
+ * 不调用则直接返回结果(中断后续拦截器与被拦截的方法)
+ * </p>
+ *
+ * @since 3.3.2
+ */
+public interface InnerInterceptor {
+
+    /**
+     * 拦截 {@link StatementHandler#prepare(Connection, Integer)}
+     *
+     * @param context 拦截上下文
+     * @param chain   调用链
+     * @return 执行结果
+     * @throws Throwable 异常
+     */
+    default Object prepare(PluginContext context, InnerChain chain) throws Throwable {
+        return chain.proceed();
+    }
+
+    /**
+     * 拦截 {@link StatementHandler#query(Statement, ResultHandler)} 及 {@link StatementHandler#queryCursor(Statement)}
+     *
+     * @param context 拦截上下文
+     * @param chain   调用链
+     * @return 执行结果
+     * @throws Throwable 异常
+     */
+    default Object query(PluginContext context, InnerChain chain) throws Throwable {
+        return chain.proceed();
+    }
+
+    /**
+     * 拦截 {@link Executor#update(MappedStatement, Object)}
+     *
+     * @param context 拦截上下文
+     * @param chain   调用链
+     * @return 执行结果
+     * @throws Throwable 异常
+     */
+    default Object update(PluginContext context, InnerChain chain) throws Throwable {
+        return chain.proceed();
+    }
+
+    /**
+     * 拦截 {@link Executor#commit(boolean)}、{@link Executor#rollback(boolean)} 及 {@link Executor#close(boolean)}
+     *
+     * @param context 拦截上下文
+     * @param chain   调用链
+     * @return 执行结果
+     * @throws Throwable 异常
+     */
+    default Object complete(PluginContext context, InnerChain chain) throws Throwable {
+        return chain.proceed();
+    }
+}
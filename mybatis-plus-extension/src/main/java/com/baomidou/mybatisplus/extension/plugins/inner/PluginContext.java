@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.extension.plugins.inner;
+
+import com.baomidou.mybatisplus.core.toolkit.PluginUtils;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.statement.Statement;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+
+import java.sql.Connection;
+
+/**
+ * 拦截上下文
+ * <p>
+ * 被拦截对象的解包、MetaObject、MappedStatement、BoundSql 与 SQL 解析结果在一次拦截中只计算一次, 由各拦截器共享
+ * </p>
+ *
+ * @since 3.3.2
+ */
+public class PluginContext {
+
+    private final Invocation invocation;
+    private StatementHandler statementHandler;
+    private MetaObject metaObject;
+    private MappedStatement mappedStatement;
+    private BoundSql boundSql;
+    private String statementSql;
+    private Statement statement;
+
+    public PluginContext(Invocation invocation) {
+        this.invocation = invocation;
+    }
+
+    public Invocation getInvocation() {
+        return invocation;
+    }
+
+    public Object[] getArgs() {
+        return invocation.getArgs();
+    }
+
+    /**
+     * 是否拦截的是 StatementHandler
+     */
+    public boolean isStatementHandler() {
+        return invocation.getTarget() instanceof StatementHandler;
+    }
+
+    /**
+     * 被拦截的 StatementHandler (已解除代理), 仅 StatementHandler 拦截可用
+     */
+    public StatementHandler getStatementHandler() {
+        if (null == statementHandler) {
+            statementHandler = PluginUtils.realTarget(invocation.getTarget());
+        }
+        return statementHandler;
+    }
+
+    /**
+     * StatementHandler 的元对象, 仅 StatementHandler 拦截可用
+     */
+    public MetaObject getMetaObject() {
+        if (null == metaObject) {
+            metaObject = SystemMetaObject.forObject(getStatementHandler());
+        }
+        return metaObject;
+    }
+
+    public MappedStatement getMappedStatement() {
+        if (null == mappedStatement) {
+            Object arg = getArgs()[0];
+            mappedStatement = arg instanceof MappedStatement ? (MappedStatement) arg
+                : (MappedStatement) getMetaObject().getValue("delegate.mappedStatement");
+        }
+        return mappedStatement;
+    }
+
+    /**
+     * 当前 BoundSql, 仅 StatementHandler 拦截可用
+     */
+    public BoundSql getBoundSql() {
+        if (null == boundSql) {
+            boundSql = (BoundSql) getMetaObject().getValue("delegate.boundSql");
+        }
+        return boundSql;
+    }
+
+    /**
+     * 当前 SQL 的解析结果, 仅 StatementHandler 拦截可用
+     * <p>
+     * 首次调用时解析, SQL 未被改写前各拦截器共享同一结果; 改写 BoundSql 的 SQL 后重新解析.
+     * 修改返回的 Statement 后须将结果写回 BoundSql 的 SQL
+     * </p>
+     *
+     * @return 解析结果
+     * @throws JSQLParserException SQL 解析失败
+     */
+    public Statement getStatement() throws JSQLParserException {
+        String sql = getBoundSql().getSql();
+        if (null == statement || !sql.equals(statementSql)) {
+            statement = CCJSqlParserUtil.parse(sql);
+            statementSql = sql;
+        }
+        return statement;
+    }
+
+    /**
+     * 数据库连接, 仅 StatementHandler.prepare 拦截可用
+     */
+    public Connection getConnection() {
+        return (Connection) getArgs()[0];
+    }
+
+    /**
+     * 执行参数, 仅 Executor.update 拦截可用
+     */
+    public Object getParameter() {
+        return getArgs()[1];
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.extension.plugins.pagination;
+
+import com.baomidou.mybatisplus.core.toolkit.StringPool;
+import com.baomidou.mybatisplus.core.toolkit.SystemClock;
+import com.baomidou.mybatisplus.core.toolkit.TableNameParser;
+import com.baomidou.mybatisplus.core.toolkit.support.LruCache;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 分页 COUNT 结果缓存
+ * <p>
+ * 以 COUNT SQL 与绑定参数值为 key, 与 MyBatis 二级缓存无关.
+ * 写语句(INSERT/UPDATE/DELETE)开始与结束(提交)时都会递增涉及表的版本号, 缓存项加载时记录其所有表的版本号, 版本变化即失效;
+ * 表存在未结束的写语句、或加载期间版本发生变化时, 加载结果不放入缓存;
+ * 同时按 ttl 过期以兜底其他应用的写入. 相同 key 的并发加载只会执行一次 COUNT
+ * </p>
+ *
+ * @since 3.3.2
+ */
+public class CountCache {
+
+    private final LruCache<CacheKey, Entry> cache;
+    private final long ttl;
+    private final Map<String, AtomicLong> tableVersions = new ConcurrentHashMap<>();
+    /**
+     * 各表未结束的写语句个数
+     */
+    private final Map<String, AtomicInteger> tableWrites = new ConcurrentHashMap<>();
+    private final Map<CacheKey, CompletableFuture<Long>> loading = new ConcurrentHashMap<>();
+    private final LruCache<String, String[]> tableNameCache;
+
+    /**
+     * @param maximumSize 最大缓存个数
+     * @param ttl         缓存有效期(毫秒), 小于等于 0 不过期
+     */
+    public CountCache(int maximumSize, long ttl) {
+        this.cache = new LruCache<>(maximumSize, true);
+        this.tableNameCache = new LruCache<>(maximumSize);
+        this.ttl = ttl;
+    }
+
+    /**
+     * 获取 COUNT 结果, 未命中时加载
+     *
+     * @param key    缓存 key, 见 {@link #createKey(String, MappedStatement, BoundSql)}
+     * @param sql    COUNT SQL
+     * @param loader 加载函数
+     * @return 总记录数
+     */
+    public long get(CacheKey key, String sql, CountLoader loader) throws Throwable {
+        Entry entry = cache.get(key);
+        if (null != entry && entry.isValid(this)) {
+            return entry.count;
+        }
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        CompletableFuture<Long> existing = loading.putIfAbsent(key, future);
+        if (null != existing) {
+            try {
+                return existing.get();
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            }
+        }
+        try {
+            String[] tables = getTables(sql);
+            long[] versions = new long[tables.length];
+            for (int i = 0; i < tables.length; i++) {
+                versions[i] = tableVersion(tables[i]).get();
+            }
+            long count = loader.load();
+            if (isCacheable(tables, versions)) {
+                cache.put(key, new Entry(count, tables, versions, ttl > 0 ? SystemClock.now() + ttl : Long.MAX_VALUE));
+            }
+            future.complete(count);
+            return count;
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+            throw t;
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    /**
+     * 加载结束时判断结果是否可以缓存: 没有未结束的写语句且加载期间版本未变化
+     */
+    private boolean isCacheable(String[] tables, long[] versions) {
+        for (int i = 0; i < tables.length; i++) {
+            if (tableWrite(tables[i]).get() > 0 || tableVersion(tables[i]).get() != versions[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 使涉及表的缓存失效
+     *
+     * @param sql 写语句
+     */
+    public void invalidate(String sql) {
+        for (String table : getTables(sql)) {
+            tableVersion(table).incrementAndGet();
+        }
+    }
+
+    /**
+     * 写语句执行前调用, 使涉及表的缓存失效, 直到 {@link #endWrite(String)} 前这些表的 COUNT 结果都不缓存
+     *
+     * @param sql 写语句
+     * @since 3.3.2
+     */
+    public void beginWrite(String sql) {
+        for (String table : getTables(sql)) {
+            tableWrite(table).incrementAndGet();
+            tableVersion(table).incrementAndGet();
+        }
+    }
+
+    /**
+     * 写语句执行完成(事务内为事务结束)后调用, 再次使涉及表的缓存失效
+     *
+     * @param sql 写语句, 与 {@link #beginWrite(String)} 一致
+     * @since 3.3.2
+     */
+    public void endWrite(String sql) {
+        for (String table : getTables(sql)) {
+            tableVersion(table).incrementAndGet();
+            tableWrite(table).decrementAndGet();
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * 获取内部缓存, 可用于查看命中统计
+     */
+    public LruCache<CacheKey, Entry> getCache() {
+        return cache;
+    }
+
+    /**
+     * 创建缓存 key (COUNT SQL + 参数值 + 环境 id)
+     *
+     * @param sql             COUNT SQL
+     * @param mappedStatement MappedStatement
+     * @param boundSql        原查询 BoundSql
+     * @return 缓存 key
+     */
+    public CacheKey createKey(String sql, MappedStatement mappedStatement, BoundSql boundSql) {
+        Configuration configuration = mappedStatement.getConfiguration();
+        Object parameterObject = boundSql.getParameterObject();
+        CacheKey cacheKey = new CacheKey();
+        cacheKey.update(sql);
+        TypeHandlerRegistry typeHandlerRegistry = configuration.getTypeHandlerRegistry();
+        MetaObject metaObject = null;
+        // mimic DefaultParameterHandler logic
+        for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+            if (parameterMapping.getMode() != ParameterMode.OUT) {
+                Object value;
+                String propertyName = parameterMapping.getProperty();
+                if (boundSql.hasAdditionalParameter(propertyName)) {
+                    value = boundSql.getAdditionalParameter(propertyName);
+                } else if (parameterObject == null) {
+                    value = null;
+                } else if (typeHandlerRegistry.hasTypeHandler(parameterObject.getClass())) {
+                    value = parameterObject;
+                } else {
+                    if (null == metaObject) {
+                        metaObject = configuration.newMetaObject(parameterObject);
+                    }
+                    value = metaObject.getValue(propertyName);
+                }
+                cacheKey.update(value);
+            }
+        }
+        if (configuration.getEnvironment() != null) {
+            cacheKey.update(configuration.getEnvironment().getId());
+        }
+        return cacheKey;
+    }
+
+    private String[] getTables(String sql) {
+        return tableNameCache.computeIfAbsent(sql, k -> {
+            Collection<String> tables = new TableNameParser(k).tables();
+            return tables.stream().map(CountCache::normalize).distinct().toArray(String[]::new);
+        });
+    }
+
+    private AtomicLong tableVersion(String table) {
+        return tableVersions.computeIfAbsent(table, k -> new AtomicLong());
+    }
+
+    private AtomicInteger tableWrite(String table) {
+        return tableWrites.computeIfAbsent(table, k -> new AtomicInteger());
+    }
+
+    /**
+     * 去除 schema 与引号并转小写
+     */
+    private static String normalize(String table) {
+        int index = table.lastIndexOf(StringPool.DOT);
+        String name = index < 0 ? table : table.substring(index + 1);
+        if (name.length() > 1 && (name.charAt(0) == '"' || name.charAt(0) == '`' || name.charAt(0) == '[')) {
+            name = name.substring(1, name.length() - 1);
+        }
+        return name.toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * COUNT 加载函数
+     */
+    @FunctionalInterface
+    public interface CountLoader {
+
+        long load() throws Throwable;
+    }
+
+    /**
+     * 缓存项
+     */
+    public static class Entry {
+
+        private final long count;
+        private final String[] tables;
+        private final long[] versions;
+        private final long expireAt;
+
+        Entry(long count, String[] tables, long[] versions, long expireAt) {
+            this.count = count;
+            this.tables = tables;
+            this.versions = versions;
+            this.expireAt = expireAt;
+        }
+
+        boolean isValid(CountCache countCache) {
+            if (SystemClock.now() > expireAt) {
+                return false;
+            }
+            for (int i = 0; i < tables.length; i++) {
+                if (countCache.tableVersion(tables[i]).get() != versions[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+}
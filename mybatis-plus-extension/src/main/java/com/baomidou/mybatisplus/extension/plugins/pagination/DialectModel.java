@@ -41,7 +41,7 @@ public class DialectModel {
      * 分页方言 sql
      */
     @Getter
-    private final String dialectSql;
+    private String dialectSql;
     /**
      * 提供 Configuration
      */
@@ -81,6 +81,19 @@ public class DialectModel {
         this.secondParam = secondParam;
     }
 
+    /**
+     * 替换分页方言 sql, 参数消费方式保持不变
+     * <p>用于在分页语句外再包装一层, 包装部分不能包含参数</p>
+     *
+     * @param dialectSql 分页方言 sql
+     * @return this
+     * @since 3.3.2
+     */
+    public DialectModel setDialectSql(String dialectSql) {
+        this.dialectSql = dialectSql;
+        return this;
+    }
+
     /**
      * 设置消费 List<ParameterMapping> 的方式
      * <p>带下标的</p>
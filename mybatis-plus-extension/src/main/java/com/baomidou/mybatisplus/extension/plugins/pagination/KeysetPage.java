@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.extension.plugins.pagination;
+
+import com.baomidou.mybatisplus.core.toolkit.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset(seek) 分页模型
+ * <p>
+ * 不使用 OFFSET, 而是携带上一页最后一条记录的排序字段值, 分页插件会追加条件
+ * WHERE (c1 > ?) OR (c1 = ? AND c2 > ?) ... 并从偏移量 0 开始取 size 条,
+ * 翻页代价与页码深度无关
+ * </p>
+ * <p>
+ * 排序字段取最终 SQL 的 ORDER BY (包括 wrapper 的 orderBy 与 {@link #addOrder} 追加的排序),
+ * lastValues 需与其一一对应, 排序字段应能唯一确定一条记录(例如末尾带上主键), 且值不能为 null
+ * </p>
+ *
+ * @since 3.3.2
+ */
+public class KeysetPage<T> extends Page<T> {
+
+    private static final long serialVersionUID = -1863247452741296381L;
+
+    /**
+     * 上一页最后一条记录的排序字段值, 为空时查询第一页
+     */
+    private List<Object> lastValues = Collections.emptyList();
+
+    public KeysetPage() {
+        this(10);
+    }
+
+    /**
+     * 分页构造函数, 默认不进行 count 查询
+     *
+     * @param size 每页显示条数
+     */
+    public KeysetPage(long size) {
+        super(1, size, false);
+    }
+
+    /**
+     * @param size       每页显示条数
+     * @param lastValues 上一页最后一条记录的排序字段值
+     */
+    public KeysetPage(long size, Object... lastValues) {
+        this(size);
+        setLastValues(lastValues);
+    }
+
+    /**
+     * keyset 分页总是从第一条开始取
+     */
+    @Override
+    public long offset() {
+        return 0;
+    }
+
+    /**
+     * 当前页记录数等于 size 时认为存在下一页
+     */
+    @Override
+    public boolean hasNext() {
+        return getRecords().size() >= getSize();
+    }
+
+    public List<Object> getLastValues() {
+        return lastValues;
+    }
+
+    public KeysetPage<T> setLastValues(List<Object> lastValues) {
+        this.lastValues = null == lastValues ? Collections.emptyList() : lastValues;
+        return this;
+    }
+
+    public KeysetPage<T> setLastValues(Object... lastValues) {
+        return setLastValues(null == lastValues ? null : Arrays.asList(lastValues));
+    }
+
+    /**
+     * 从当前页最后一条记录中提取排序字段值, 切换到下一页
+     *
+     * @param extractors 排序字段取值函数, 顺序与 ORDER BY 一致
+     * @return this
+     */
+    @SafeVarargs
+    public final KeysetPage<T> next(Function<? super T, ?>... extractors) {
+        List<T> records = getRecords();
+        if (CollectionUtils.isNotEmpty(records)) {
+            T last = records.get(records.size() - 1);
+            List<Object> values = new ArrayList<>(extractors.length);
+            for (Function<? super T, ?> extractor : extractors) {
+                values.add(extractor.apply(last));
+            }
+            this.lastValues = values;
+            this.current++;
+        }
+        return this;
+    }
+}
@@ -72,6 +72,14 @@ public class Page<T> implements IPage<T> {
      * 是否命中count缓存
      */
     protected boolean hitCount = false;
+    /**
+     * 是否使用延迟关联优化深分页
+     */
+    protected boolean deferredJoin = false;
+    /**
+     * 总数是否为估算值
+     */
+    protected boolean totalEstimated = false;
 
     public Page() {
     }
@@ -351,6 +359,20 @@ public class Page<T> implements IPage<T> {
         return this;
     }
 
+    @Override
+    public boolean deferredJoin() {
+        return deferredJoin;
+    }
+
+    public boolean isDeferredJoin() {
+        return deferredJoin();
+    }
+
+    public Page<T> setDeferredJoin(boolean deferredJoin) {
+        this.deferredJoin = deferredJoin;
+        return this;
+    }
+
     @Override
     public void hitCount(boolean hit) {
         this.hitCount = hit;
@@ -364,4 +386,19 @@ public class Page<T> implements IPage<T> {
     public boolean isHitCount() {
         return hitCount;
     }
+
+    @Override
+    public void totalEstimated(boolean estimated) {
+        this.totalEstimated = estimated;
+    }
+
+    public Page<T> setTotalEstimated(boolean totalEstimated) {
+        this.totalEstimated = totalEstimated;
+        return this;
+    }
+
+    @Override
+    public boolean isTotalEstimated() {
+        return totalEstimated;
+    }
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.extension.plugins.pagination.estimate;
+
+import com.baomidou.mybatisplus.annotation.DbType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 总记录数估算实现注册表
+ *
+ * @since 3.3.2
+ */
+public class CountEstimatorRegistry {
+
+    private final Map<DbType, ICountEstimator> estimatorEnumMap = new EnumMap<>(DbType.class);
+
+    public CountEstimatorRegistry() {
+        MySqlCountEstimator mySqlCountEstimator = new MySqlCountEstimator();
+        estimatorEnumMap.put(DbType.MYSQL, mySqlCountEstimator);
+        estimatorEnumMap.put(DbType.MARIADB, mySqlCountEstimator);
+        estimatorEnumMap.put(DbType.POSTGRE_SQL, new PostgreCountEstimator());
+        estimatorEnumMap.put(DbType.H2, new H2CountEstimator());
+    }
+
+    /**
+     * 获取估算实现
+     *
+     * @param dbType 数据库类型
+     * @return 估算实现, 不支持返回 null
+     */
+    public ICountEstimator getEstimator(DbType dbType) {
+        return estimatorEnumMap.get(dbType);
+    }
+
+    /**
+     * 注册估算实现
+     *
+     * @param dbType    数据库类型
+     * @param estimator 估算实现
+     */
+    public void register(DbType dbType, ICountEstimator estimator) {
+        estimatorEnumMap.put(dbType, estimator);
+    }
+}
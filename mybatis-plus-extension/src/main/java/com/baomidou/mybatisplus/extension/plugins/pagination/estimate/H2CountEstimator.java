@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.extension.plugins.pagination.estimate;
+
+import com.baomidou.mybatisplus.core.toolkit.CollectionUtils;
+import com.baomidou.mybatisplus.core.toolkit.StringUtils;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.schema.Table;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * H2 数据库总记录数估算实现
+ * <p>
+ * H2 的执行计划不含行数估算, 仅对无条件的单表查询使用 INFORMATION_SCHEMA.TABLES.ROW_COUNT_ESTIMATE
+ * </p>
+ *
+ * @since 3.3.2
+ */
+public class H2CountEstimator implements ICountEstimator {
+
+    private static final String ROW_COUNT_SQL = "SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES"
+        + " WHERE TABLE_NAME = ? AND TABLE_SCHEMA = COALESCE(?, SCHEMA())";
+
+    @Override
+    public long estimate(String sql, Connection connection, ParameterHandler parameterHandler) throws SQLException {
+        Table table = getSingleTable(sql);
+        if (null == table) {
+            return UNKNOWN;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(ROW_COUNT_SQL)) {
+            statement.setString(1, unquote(table.getName()));
+            statement.setString(2, StringUtils.isBlank(table.getSchemaName()) ? null : unquote(table.getSchemaName()));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : UNKNOWN;
+            }
+        }
+    }
+
+    /**
+     * 获取无条件单表查询的表
+     */
+    private static Table getSingleTable(String sql) {
+        Statement statement;
+        try {
+            statement = CCJSqlParserUtil.parse(sql);
+        } catch (JSQLParserException e) {
+            return null;
+        }
+        if (!(statement instanceof Select) || !(((Select) statement).getSelectBody() instanceof PlainSelect)) {
+            return null;
+        }
+        PlainSelect plainSelect = (PlainSelect) ((Select) statement).getSelectBody();
+        if (null != plainSelect.getWhere() || CollectionUtils.isNotEmpty(plainSelect.getJoins())
+            || null != plainSelect.getGroupBy() || null != plainSelect.getDistinct() || null != plainSelect.getLimit()
+            || !(plainSelect.getFromItem() instanceof Table)) {
+            return null;
+        }
+        return (Table) plainSelect.getFromItem();
+    }
+
+    private static String unquote(String name) {
+        if (name.length() > 1 && (name.charAt(0) == '"' || name.charAt(0) == '`')) {
+            return name.substring(1, name.length() - 1);
+        }
+        return name.toUpperCase(Locale.ENGLISH);
+    }
+}
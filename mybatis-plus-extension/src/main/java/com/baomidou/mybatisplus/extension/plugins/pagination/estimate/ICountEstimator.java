@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.extension.plugins.pagination.estimate;
+
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 总记录数估算接口
+ * <p>
+ * 使用数据库执行计划或统计信息估算查询结果行数, 不执行真正的 COUNT
+ * </p>
+ *
+ * @since 3.3.2
+ */
+public interface ICountEstimator {
+
+    /**
+     * 无法估算
+     */
+    long UNKNOWN = -1L;
+
+    /**
+     * 估算查询结果行数
+     *
+     * @param sql              原始查询 SQL
+     * @param connection       当前连接
+     * @param parameterHandler 原始查询的参数处理器
+     * @return 估算行数, 无法估算返回 {@link #UNKNOWN}
+     * @throws SQLException SQLException
+     */
+    long estimate(String sql, Connection connection, ParameterHandler parameterHandler) throws SQLException;
+}
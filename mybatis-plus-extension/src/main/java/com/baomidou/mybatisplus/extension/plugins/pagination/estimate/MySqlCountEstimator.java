@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.extension.plugins.pagination.estimate;
+
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * MYSQL 数据库总记录数估算实现
+ * <p>
+ * 使用 EXPLAIN 中最外层查询各表 rows * filtered 的乘积
+ * </p>
+ *
+ * @since 3.3.2
+ */
+public class MySqlCountEstimator implements ICountEstimator {
+
+    @Override
+    public long estimate(String sql, Connection connection, ParameterHandler parameterHandler) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            parameterHandler.setParameters(statement);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                boolean hasFiltered = hasColumn(resultSet.getMetaData(), "filtered");
+                double rows = 1D;
+                boolean found = false;
+                while (resultSet.next()) {
+                    if (resultSet.getLong("id") != 1L) {
+                        continue;
+                    }
+                    long tableRows = resultSet.getLong("rows");
+                    if (resultSet.wasNull()) {
+                        continue;
+                    }
+                    double filtered = hasFiltered ? resultSet.getDouble("filtered") : 100D;
+                    rows *= tableRows * filtered / 100D;
+                    found = true;
+                }
+                return found ? (long) rows : UNKNOWN;
+            }
+        }
+    }
+
+    private static boolean hasColumn(ResultSetMetaData metaData, String column) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (column.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.extension.plugins.pagination.estimate;
+
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Postgre 数据库总记录数估算实现
+ * <p>
+ * 使用 EXPLAIN (FORMAT JSON) 最外层节点的 Plan Rows.
+ * 事务内执行失败会使整个事务中止, 因此非自动提交连接上在保存点内执行, 失败时回滚到保存点
+ * </p>
+ *
+ * @since 3.3.2
+ */
+public class PostgreCountEstimator implements ICountEstimator {
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\"\\s*:\\s*(\\d+)");
+
+    @Override
+    public long estimate(String sql, Connection connection, ParameterHandler parameterHandler) throws SQLException {
+        if (connection.getAutoCommit()) {
+            return this.explain(sql, connection, parameterHandler);
+        }
+        Savepoint savepoint = connection.setSavepoint();
+        long rows;
+        try {
+            rows = this.explain(sql, connection, parameterHandler);
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback(savepoint);
+            throw e;
+        }
+        connection.releaseSavepoint(savepoint);
+        return rows;
+    }
+
+    private long explain(String sql, Connection connection, ParameterHandler parameterHandler) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + sql)) {
+            parameterHandler.setParameters(statement);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    Matcher matcher = PLAN_ROWS.matcher(resultSet.getString(1));
+                    if (matcher.find()) {
+                        return Long.parseLong(matcher.group(1));
+                    }
+                }
+                return UNKNOWN;
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.extension.plugins.pagination.optimize;
+
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.core.toolkit.CollectionUtils;
+import com.baomidou.mybatisplus.core.toolkit.StringPool;
+import com.baomidou.mybatisplus.core.toolkit.support.LruCache;
+import com.baomidou.mybatisplus.extension.plugins.pagination.DialectModel;
+import com.baomidou.mybatisplus.extension.plugins.pagination.dialects.H2Dialect;
+import com.baomidou.mybatisplus.extension.plugins.pagination.dialects.IDialect;
+import com.baomidou.mybatisplus.extension.plugins.pagination.dialects.MySqlDialect;
+import com.baomidou.mybatisplus.extension.plugins.pagination.dialects.PostgreDialect;
+import com.baomidou.mybatisplus.extension.toolkit.SqlParserUtils;
+import net.sf.jsqlparser.expression.Alias;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.LongValue;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.select.*;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * 延迟关联(deferred join)分页优化
+ * <p>
+ * 将单表分页查询 SELECT ... FROM t WHERE ... ORDER BY ... LIMIT ?,? 改写为
+ * SELECT ... FROM t JOIN (SELECT pk AS mp_dj_key FROM t WHERE ... ORDER BY ... LIMIT ?,?) mp_dj ON t.pk = mp_dj.mp_dj_key ORDER BY ...,
+ * 使偏移扫描只读取主键(覆盖索引), 再按主键回表取整行, 只用于 LIMIT/OFFSET 形式的分页方言(MySQL、PostgreSQL、H2 及其派生方言)
+ * </p>
+ * <p>
+ * 只处理能确定安全的 SQL: 无 join、distinct、group by、having、limit, 查询字段与排序中不含参数,
+ * 排序不使用字段序号且引用的字段别名均对应普通字段, 且表在 {@link TableInfoHelper} 中存在主键, 否则返回 null 使用普通分页.
+ * 表信息可能晚于首次查询注册, 找不到主键的结果不缓存
+ * </p>
+ *
+ * @since 3.3.2
+ */
+public class DeferredJoinOptimize {
+
+    private static final Log logger = LogFactory.getLog(DeferredJoinOptimize.class);
+    private static final String DERIVED_ALIAS = "mp_dj";
+    private static final String DERIVED_KEY = "mp_dj_key";
+    /**
+     * 无法优化的 SQL 标记
+     */
+    private static final SqlParts NOT_SUPPORTED = new SqlParts(null, null, null);
+
+    private final LruCache<String, SqlParts> cache;
+
+    public DeferredJoinOptimize() {
+        this(1024);
+    }
+
+    /**
+     * @param cacheSize 改写结果缓存个数
+     */
+    public DeferredJoinOptimize(int cacheSize) {
+        this.cache = new LruCache<>(cacheSize);
+    }
+
+    /**
+     * 组装延迟关联分页语句
+     *
+     * @param sql     原始语句
+     * @param dialect 分页方言
+     * @param offset  偏移量
+     * @param limit   界限
+     * @return 分页模型, 无法优化返回 null
+     */
+    public DialectModel buildPaginationSql(String sql, IDialect dialect, long offset, long limit) {
+        if (!this.supportsDialect(dialect)) {
+            return null;
+        }
+        SqlParts parts = cache.computeIfAbsent(sql, DeferredJoinOptimize::split);
+        if (null == parts || NOT_SUPPORTED == parts) {
+            return null;
+        }
+        DialectModel model = dialect.buildPaginationSql(parts.innerSql, offset, limit);
+        return model.setDialectSql(parts.prefix + model.getDialectSql() + parts.suffix);
+    }
+
+    /**
+     * 是否支持该分页方言, 分页语句需能直接作为派生表使用
+     *
+     * @param dialect 分页方言
+     * @return 是否支持
+     */
+    protected boolean supportsDialect(IDialect dialect) {
+        return dialect instanceof MySqlDialect || dialect instanceof PostgreDialect || dialect instanceof H2Dialect;
+    }
+
+    /**
+     * 拆分为 外层前缀 + 内层主键子查询 + 外层后缀, 表未注册主键时返回 null (不缓存)
+     */
+    private static SqlParts split(String sql) {
+        try {
+            Statement statement = CCJSqlParserUtil.parse(sql);
+            if (!(statement instanceof Select) || CollectionUtils.isNotEmpty(((Select) statement).getWithItemsList())
+                || !(((Select) statement).getSelectBody() instanceof PlainSelect)) {
+                return NOT_SUPPORTED;
+            }
+            PlainSelect plainSelect = (PlainSelect) ((Select) statement).getSelectBody();
+            if (!(plainSelect.getFromItem() instanceof Table) || CollectionUtils.isNotEmpty(plainSelect.getJoins())
+                || null != plainSelect.getDistinct() || null != plainSelect.getGroupBy() || null != plainSelect.getHaving()
+                || null != plainSelect.getLimit() || null != plainSelect.getOffset() || null != plainSelect.getFetch()
+                || null != plainSelect.getTop() || plainSelect.isForUpdate() || null != plainSelect.getIntoTables()) {
+                return NOT_SUPPORTED;
+            }
+            List<SelectItem> selectItems = plainSelect.getSelectItems();
+            List<OrderByElement> orderByElements = plainSelect.getOrderByElements();
+            if (selectItems.toString().contains(StringPool.QUESTION_MARK)
+                || (null != orderByElements && orderByElements.toString().contains(StringPool.QUESTION_MARK))) {
+                return NOT_SUPPORTED;
+            }
+            List<OrderByElement> innerOrderByElements = innerOrderBy(selectItems, orderByElements);
+            if (null == innerOrderByElements) {
+                return NOT_SUPPORTED;
+            }
+            Table table = (Table) plainSelect.getFromItem();
+            String keyColumn = findKeyColumn(table.getName());
+            if (null == keyColumn) {
+                return null;
+            }
+            String tableRef = null == table.getAlias() ? table.getFullyQualifiedName() : table.getAlias().getName();
+            SelectExpressionItem keyItem = new SelectExpressionItem(new Column(keyColumn));
+            keyItem.setAlias(new Alias(DERIVED_KEY));
+            plainSelect.setSelectItems(Collections.singletonList(keyItem));
+            plainSelect.setOrderByElements(innerOrderByElements.isEmpty() ? null : innerOrderByElements);
+            String innerSql = plainSelect.toString();
+
+            // 外层 select * 只取原表字段, 不带出派生表的主键别名
+            String columns = selectItems.stream().map(item -> item instanceof AllColumns
+                ? tableRef + StringPool.DOT + item : item.toString()).collect(joining(StringPool.COMMA + StringPool.SPACE));
+            StringBuilder prefix = new StringBuilder("SELECT ").append(columns)
+                .append(" FROM ").append(table).append(" JOIN (");
+            StringBuilder suffix = new StringBuilder(") ").append(DERIVED_ALIAS)
+                .append(" ON ").append(tableRef).append(StringPool.DOT).append(keyColumn)
+                .append(" = ").append(DERIVED_ALIAS).append(StringPool.DOT).append(DERIVED_KEY);
+            if (CollectionUtils.isNotEmpty(orderByElements)) {
+                suffix.append(PlainSelect.orderByToString(orderByElements));
+            }
+            return new SqlParts(prefix.toString(), innerSql, suffix.toString());
+        } catch (Exception e) {
+            logger.warn("failed to split deferred join sql, exception=" + e.getMessage());
+            return NOT_SUPPORTED;
+        }
+    }
+
+    /**
+     * 内层子查询只查询主键, 排序中引用的查询字段别名替换为对应字段
+     *
+     * @return 内层排序, 无法替换(字段序号或别名对应表达式)时返回 null
+     */
+    private static List<OrderByElement> innerOrderBy(List<SelectItem> selectItems, List<OrderByElement> orderByElements) {
+        if (CollectionUtils.isEmpty(orderByElements)) {
+            return Collections.emptyList();
+        }
+        List<OrderByElement> innerOrderByElements = SqlParserUtils.resolveOrderByAliases(selectItems, orderByElements);
+        for (int i = 0; i < innerOrderByElements.size(); i++) {
+            Expression expression = innerOrderByElements.get(i).getExpression();
+            if (expression instanceof LongValue
+                || (innerOrderByElements.get(i) != orderByElements.get(i) && !(expression instanceof Column))) {
+                return null;
+            }
+        }
+        return innerOrderByElements;
+    }
+
+    /**
+     * 按表名查找主键字段
+     */
+    private static String findKeyColumn(String tableName) {
+        String name = normalize(tableName);
+        return TableInfoHelper.getTableInfos().stream()
+            .filter(info -> info.havePK() && name.equals(normalize(info.getTableName())))
+            .findFirst().map(TableInfo::getKeyColumn).orElse(null);
+    }
+
+    private static String normalize(String tableName) {
+        String name = Optional.ofNullable(tableName).orElse(StringPool.EMPTY);
+        int index = name.lastIndexOf(StringPool.DOT);
+        name = index < 0 ? name : name.substring(index + 1);
+        if (name.length() > 1 && (name.charAt(0) == '"' || name.charAt(0) == '`' || name.charAt(0) == '[')) {
+            name = name.substring(1, name.length() - 1);
+        }
+        return name.toLowerCase(Locale.ENGLISH);
+    }
+
+    private static class SqlParts {
+
+        private final String prefix;
+        private final String innerSql;
+        private final String suffix;
+
+        SqlParts(String prefix, String innerSql, String suffix) {
+            this.prefix = prefix;
+            this.innerSql = innerSql;
+            this.suffix = suffix;
+        }
+    }
+}
@@ -15,7 +15,11 @@
  */
 package com.baomidou.mybatisplus.extension.plugins.tenant;
 
+import com.baomidou.mybatisplus.core.toolkit.ExceptionUtils;
+import net.sf.jsqlparser.expression.DoubleValue;
 import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.LongValue;
+import net.sf.jsqlparser.expression.StringValue;
 
 /**
  * 租户处理器（ TenantId 行级 ）
@@ -35,6 +39,26 @@ public interface TenantHandler {
      */
     Expression getTenantId(boolean where);
 
+    /**
+     * 获取租户 ID 参数值, 开启 {@link TenantSqlParser#setBindTenantId(boolean)} 时作为预编译参数绑定
+     * <p>
+     * 默认取 {@link #getTenantId(boolean)} 的字面量值(数值或字符串), 其他表达式需重写该方法
+     *
+     * @return 租户 ID 参数值
+     * @since 3.3.2
+     */
+    default Object getTenantIdValue() {
+        Expression tenantId = getTenantId(true);
+        if (tenantId instanceof LongValue) {
+            return ((LongValue) tenantId).getValue();
+        } else if (tenantId instanceof StringValue) {
+            return ((StringValue) tenantId).getValue();
+        } else if (tenantId instanceof DoubleValue) {
+            return ((DoubleValue) tenantId).getValue();
+        }
+        throw ExceptionUtils.mpe("Failed to bind tenant id, please override TenantHandler#getTenantIdValue for expression: %s", tenantId);
+    }
+
     /**
      * 获取租户字段名
      *
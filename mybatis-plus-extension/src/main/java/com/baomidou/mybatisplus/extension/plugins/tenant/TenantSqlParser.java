@@ -16,26 +16,40 @@
 package com.baomidou.mybatisplus.extension.plugins.tenant;
 
 import com.baomidou.mybatisplus.core.parser.AbstractJsqlParser;
+import com.baomidou.mybatisplus.core.parser.SqlInfo;
 import com.baomidou.mybatisplus.core.toolkit.ExceptionUtils;
 import com.baomidou.mybatisplus.core.toolkit.StringPool;
-import lombok.AllArgsConstructor;
+import com.baomidou.mybatisplus.core.toolkit.support.LruCache;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.experimental.Accessors;
+import net.sf.jsqlparser.JSQLParserException;
 import net.sf.jsqlparser.expression.BinaryExpression;
 import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.JdbcNamedParameter;
 import net.sf.jsqlparser.expression.Parenthesis;
 import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
 import net.sf.jsqlparser.expression.operators.conditional.OrExpression;
 import net.sf.jsqlparser.expression.operators.relational.*;
 import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
 import net.sf.jsqlparser.schema.Table;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.Statements;
 import net.sf.jsqlparser.statement.delete.Delete;
 import net.sf.jsqlparser.statement.insert.Insert;
 import net.sf.jsqlparser.statement.select.*;
 import net.sf.jsqlparser.statement.update.Update;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -46,12 +60,156 @@ import java.util.List;
  */
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 @Accessors(chain = true)
 @EqualsAndHashCode(callSuper = true)
 public class TenantSqlParser extends AbstractJsqlParser {
 
+    private static final String TENANT_ID_PARAM_NAME = "mybatis_plus_tenant_id";
+    /**
+     * 绑定参数模式下租户 ID 在语法树中的占位标记
+     */
+    private static final String TENANT_ID_MARKER = ":" + TENANT_ID_PARAM_NAME;
+
     private TenantHandler tenantHandler;
+    /**
+     * 是否以预编译参数(?)绑定租户 ID<br>
+     * 开启后改写结果与租户无关, 按原 SQL 缓存, 预热后不再解析 SQL, 租户 ID 取 {@link TenantHandler#getTenantIdValue()}.
+     * 注意！缓存要求 {@link TenantHandler#doTableFilter(String)} 与租户字段名对同一 SQL 结果不变
+     *
+     * @since 3.3.2
+     */
+    private boolean bindTenantId = false;
+    /**
+     * 绑定参数模式下改写结果缓存个数, 小于等于 0 时不缓存
+     *
+     * @since 3.3.2
+     */
+    private int templateCacheSize = 1024;
+    /**
+     * 改写结果缓存 (原 SQL -> 改写模板)
+     */
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private volatile LruCache<String, SqlTemplate> templateCache;
+
+    public TenantSqlParser(TenantHandler tenantHandler) {
+        this.tenantHandler = tenantHandler;
+    }
+
+    /**
+     * 绑定参数模式按字符串处理, 以便使用改写结果缓存
+     */
+    @Override
+    public boolean supportsStatements() {
+        return !this.bindTenantId;
+    }
+
+    @Override
+    public SqlInfo parser(MetaObject metaObject, String sql) {
+        if (!this.bindTenantId) {
+            return super.parser(metaObject, sql);
+        }
+        if (!this.allowProcess(metaObject)) {
+            return null;
+        }
+        LruCache<String, SqlTemplate> cache = this.getTemplateCache();
+        SqlTemplate template = null == cache ? this.buildTemplate(sql) : cache.computeIfAbsent(sql, this::buildTemplate);
+        if (template.paramIndexes.length > 0) {
+            this.bindTenantIdParameters(metaObject, template.paramIndexes);
+        }
+        return SqlInfo.newInstance().setSql(template.sql);
+    }
+
+    /**
+     * 获取改写结果缓存
+     *
+     * @return 改写结果缓存, 未开启缓存时返回 null
+     * @since 3.3.2
+     */
+    public LruCache<String, SqlTemplate> getTemplateCache() {
+        LruCache<String, SqlTemplate> cache = this.templateCache;
+        if (null == cache && this.templateCacheSize > 0) {
+            synchronized (this) {
+                cache = this.templateCache;
+                if (null == cache) {
+                    cache = new LruCache<>(this.templateCacheSize);
+                    this.templateCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * 解析并改写 SQL, 将租户 ID 占位标记替换为 ?, 记录其在全部参数中的位置
+     */
+    protected SqlTemplate buildTemplate(String sql) {
+        Statements statements;
+        try {
+            statements = CCJSqlParserUtil.parseStatements(sql);
+        } catch (JSQLParserException e) {
+            throw ExceptionUtils.mpe("Failed to process, please exclude the tableName or statementId.\n Error SQL: %s", e, sql);
+        }
+        StringBuilder sqlStringBuilder = new StringBuilder();
+        int i = 0;
+        for (Statement statement : statements.getStatements()) {
+            if (null != statement) {
+                if (i++ > 0) {
+                    sqlStringBuilder.append(';');
+                }
+                this.processStatement(statement);
+                sqlStringBuilder.append(statement);
+            }
+        }
+        String parsedSql = sqlStringBuilder.toString();
+        StringBuilder templateSql = new StringBuilder(parsedSql.length());
+        List<Integer> indexes = new ArrayList<>();
+        int paramIndex = 0;
+        boolean quoted = false;
+        for (int j = 0; j < parsedSql.length(); j++) {
+            char c = parsedSql.charAt(j);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && c == '?') {
+                paramIndex++;
+            } else if (!quoted && parsedSql.startsWith(TENANT_ID_MARKER, j)) {
+                indexes.add(paramIndex++);
+                templateSql.append('?');
+                j += TENANT_ID_MARKER.length() - 1;
+                continue;
+            }
+            templateSql.append(c);
+        }
+        return new SqlTemplate(templateSql.toString(), indexes.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * 按模板记录的位置插入租户 ID 参数
+     */
+    protected void bindTenantIdParameters(MetaObject metaObject, int[] paramIndexes) {
+        BoundSql boundSql = (BoundSql) metaObject.getValue("delegate.boundSql");
+        Object tenantId = this.tenantHandler.getTenantIdValue();
+        Configuration configuration = (Configuration) metaObject.getValue("delegate.configuration");
+        ParameterMapping mapping = new ParameterMapping.Builder(configuration, TENANT_ID_PARAM_NAME, tenantId.getClass()).build();
+        List<ParameterMapping> mappings = new ArrayList<>(boundSql.getParameterMappings());
+        for (int index : paramIndexes) {
+            mappings.add(index, mapping);
+        }
+        boundSql.setAdditionalParameter(TENANT_ID_PARAM_NAME, tenantId);
+        metaObject.setValue("delegate.boundSql.parameterMappings", mappings);
+    }
+
+    /**
+     * 获取租户 ID 表达式, 绑定参数模式下为占位标记
+     *
+     * @param where 参数 true 表示为 where 条件 false 表示为 insert 或者 select 条件
+     * @return 租户 ID 表达式
+     * @since 3.3.2
+     */
+    protected Expression getTenantIdExpression(boolean where) {
+        return this.bindTenantId ? new JdbcNamedParameter(TENANT_ID_PARAM_NAME) : tenantHandler.getTenantId(where);
+    }
 
     /**
      * select 语句处理
@@ -73,6 +231,25 @@ public class TenantSqlParser extends AbstractJsqlParser {
         }
     }
 
+    /**
+     * 过滤表的 insert、update、delete 语句不修改, 不需要重新生成 SQL
+     */
+    @Override
+    protected boolean processStatement(Statement statement) {
+        Table table = null;
+        if (statement instanceof Insert) {
+            table = ((Insert) statement).getTable();
+        } else if (statement instanceof Update) {
+            table = ((Update) statement).getTable();
+        } else if (statement instanceof Delete) {
+            table = ((Delete) statement).getTable();
+        }
+        if (null != table && tenantHandler.doTableFilter(table.getName())) {
+            return false;
+        }
+        return super.processStatement(statement);
+    }
+
     /**
      * insert 语句处理
      */
@@ -89,9 +266,9 @@ public class TenantSqlParser extends AbstractJsqlParser {
             // fixed github pull/295
             ItemsList itemsList = insert.getItemsList();
             if (itemsList instanceof MultiExpressionList) {
-                ((MultiExpressionList) itemsList).getExprList().forEach(el -> el.getExpressions().add(tenantHandler.getTenantId(false)));
+                ((MultiExpressionList) itemsList).getExprList().forEach(el -> el.getExpressions().add(getTenantIdExpression(false)));
             } else {
-                ((ExpressionList) insert.getItemsList()).getExpressions().add(tenantHandler.getTenantId(false));
+                ((ExpressionList) insert.getItemsList()).getExpressions().add(getTenantIdExpression(false));
             }
         } else {
             throw ExceptionUtils.mpe("Failed to process multiple-table update, please exclude the tableName or statementId");
@@ -130,7 +307,7 @@ public class TenantSqlParser extends AbstractJsqlParser {
         //获得where条件表达式
         EqualsTo equalsTo = new EqualsTo();
         equalsTo.setLeftExpression(this.getAliasColumn(table));
-        equalsTo.setRightExpression(tenantHandler.getTenantId(true));
+        equalsTo.setRightExpression(getTenantIdExpression(true));
         if (null != where) {
             if (where instanceof OrExpression) {
                 return new AndExpression(equalsTo, new Parenthesis(where));
@@ -227,7 +404,7 @@ public class TenantSqlParser extends AbstractJsqlParser {
      * 默认tenantId的表达式： LongValue(1)这种依旧支持
      */
     protected Expression builderExpression(Expression currentExpression, Table table) {
-        final Expression tenantExpression = tenantHandler.getTenantId(false);
+        final Expression tenantExpression = getTenantIdExpression(false);
         Expression appendExpression;
         if (!(tenantExpression instanceof SupportsOldOracleJoinSyntax)) {
             appendExpression = new EqualsTo();
@@ -303,4 +480,29 @@ public class TenantSqlParser extends AbstractJsqlParser {
         column.append(tenantHandler.getTenantIdColumn());
         return new Column(column.toString());
     }
+
+    /**
+     * 绑定参数模式下的改写结果
+     */
+    public static final class SqlTemplate {
+
+        private final String sql;
+        /**
+         * 租户 ID 参数在全部参数中的位置
+         */
+        private final int[] paramIndexes;
+
+        SqlTemplate(String sql, int[] paramIndexes) {
+            this.sql = sql;
+            this.paramIndexes = paramIndexes;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public int[] getParamIndexes() {
+            return paramIndexes;
+        }
+    }
 }
@@ -18,8 +18,10 @@ package com.baomidou.mybatisplus.extension.service;
 import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
 import com.baomidou.mybatisplus.core.toolkit.Assert;
 import com.baomidou.mybatisplus.core.toolkit.CollectionUtils;
+import com.baomidou.mybatisplus.core.toolkit.ReflectionKit;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.extension.conditions.query.LambdaQueryChainWrapper;
 import com.baomidou.mybatisplus.extension.conditions.query.QueryChainWrapper;
@@ -30,10 +32,8 @@ import com.baomidou.mybatisplus.extension.toolkit.SqlHelper;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.Serializable;
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -95,6 +95,30 @@ public interface IService<T> {
      */
     boolean saveOrUpdateBatch(Collection<T> entityList, int batchSize);
 
+    /**
+     * 批量插入或更新（数据库原生语法, 每条数据一次执行）
+     * <p>需要注入 {@link com.baomidou.mybatisplus.extension.injector.methods.InsertOrUpdate}</p>
+     * <p>只进行插入填充, 更新已有数据时不会执行更新填充</p>
+     *
+     * @param entityList 实体对象集合
+     * @since 3.3.2
+     */
+    @Transactional(rollbackFor = Exception.class)
+    default boolean insertOrUpdateBatch(Collection<T> entityList) {
+        return insertOrUpdateBatch(entityList, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * 批量插入或更新（数据库原生语法, 每条数据一次执行）
+     * <p>需要注入 {@link com.baomidou.mybatisplus.extension.injector.methods.InsertOrUpdate}</p>
+     * <p>只进行插入填充, 更新已有数据时不会执行更新填充</p>
+     *
+     * @param entityList 实体对象集合
+     * @param batchSize  每次的数量
+     * @since 3.3.2
+     */
+    boolean insertOrUpdateBatch(Collection<T> entityList, int batchSize);
+
     /**
      * 根据 ID 删除
      *
@@ -199,11 +223,54 @@ public interface IService<T> {
 
     /**
      * 查询（根据ID 批量查询）
+     * <p>
+     * 主键个数超过 {@link #DEFAULT_BATCH_SIZE} 时按批次拆分查询
+     * </p>
      *
      * @param idList 主键ID列表
      */
     default List<T> listByIds(Collection<? extends Serializable> idList) {
-        return getBaseMapper().selectBatchIds(idList);
+        return listByIds(idList, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * 查询（根据ID 批量查询, 超过批次数量时拆分为多次查询）
+     *
+     * @param idList    主键ID列表
+     * @param batchSize 每次查询的主键个数
+     * @since 3.3.2
+     */
+    default List<T> listByIds(Collection<? extends Serializable> idList, int batchSize) {
+        return listByIds(idList, batchSize, null, false);
+    }
+
+    /**
+     * 查询（根据ID 批量查询, 超过批次数量时拆分为多次查询）
+     * <p>
+     * 指定 executor 时各批次并行执行, 并行的查询不在当前事务中, 各自使用连接池中的连接
+     * </p>
+     *
+     * @param idList    主键ID列表
+     * @param batchSize 每次查询的主键个数
+     * @param executor  并行查询的线程池, 为 null 时顺序查询
+     * @param keepOrder 是否按 idList 的顺序返回
+     * @since 3.3.2
+     */
+    default List<T> listByIds(Collection<? extends Serializable> idList, int batchSize, Executor executor, boolean keepOrder) {
+        if (!keepOrder && (CollectionUtils.isEmpty(idList) || idList.size() <= batchSize)) {
+            return getBaseMapper().selectBatchIds(idList);
+        }
+        // 去重, 避免相同主键落在不同批次中重复返回
+        Set<Serializable> ids = new LinkedHashSet<>(idList);
+        List<T> list = SqlHelper.selectInBatches(ids, batchSize, executor, getBaseMapper()::selectBatchIds);
+        if (!keepOrder || list.isEmpty()) {
+            return list;
+        }
+        TableInfo tableInfo = SqlHelper.table(list.get(0).getClass());
+        Assert.notEmpty(tableInfo.getKeyProperty(), "error: can not execute. because can not find column for id from entity!");
+        Map<String, T> entityMap = new HashMap<>(list.size() * 4 / 3 + 1);
+        list.forEach(entity -> entityMap.put(String.valueOf(ReflectionKit.getFieldValue(entity, tableInfo.getKeyProperty())), entity));
+        return ids.stream().map(id -> entityMap.get(String.valueOf(id))).filter(Objects::nonNull).collect(Collectors.toList());
     }
 
     /**
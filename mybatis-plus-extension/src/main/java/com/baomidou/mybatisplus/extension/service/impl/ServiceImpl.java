@@ -15,12 +15,16 @@
  */
 package com.baomidou.mybatisplus.extension.service.impl;
 
+import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.enums.SqlMethod;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
 import com.baomidou.mybatisplus.core.metadata.TableInfo;
 import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
 import com.baomidou.mybatisplus.core.toolkit.*;
+import com.baomidou.mybatisplus.extension.injector.methods.InsertOrUpdate;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.baomidou.mybatisplus.extension.toolkit.SqlHelper;
 import org.apache.ibatis.binding.MapperMethod;
@@ -38,10 +42,17 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -123,10 +134,74 @@ public class ServiceImpl<M extends BaseMapper<T>, T> implements IService<T> {
     @Transactional(rollbackFor = Exception.class)
     @Override
     public boolean saveBatch(Collection<T> entityList, int batchSize) {
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(entityClass);
+        if (null != tableInfo && isMultiRowInsert(tableInfo)) {
+            return saveMultiRowBatch(tableInfo, entityList, batchSize);
+        }
         String sqlStatement = sqlStatement(SqlMethod.INSERT_ONE);
         return executeBatch(entityList, batchSize, (sqlSession, entity) -> sqlSession.insert(sqlStatement, entity));
     }
 
+    /**
+     * 是否使用多行 INSERT ... VALUES 批量插入
+     * <p>
+     * 主键为数据库自增或 sequence 时需逐条回写主键, 不使用多行插入
+     * </p>
+     *
+     * @param tableInfo 表信息
+     * @return 是否使用
+     * @since 3.3.2
+     */
+    protected boolean isMultiRowInsert(TableInfo tableInfo) {
+        if (!GlobalConfigUtils.getGlobalConfig(tableInfo.getConfiguration()).getDbConfig().isMultiRowInsert()) {
+            return false;
+        }
+        return null == tableInfo.getKeySequence() && !(tableInfo.havePK() && tableInfo.getIdType() == IdType.AUTO);
+    }
+
+    /**
+     * 多行 INSERT ... VALUES 批量插入
+     * <p>
+     * 按插入字段一致的数据分组, 每组按 batchSize 与数据库绑定参数上限拆分为多条语句;
+     * 数据库不支持时逐条插入
+     * </p>
+     *
+     * @param tableInfo  表信息
+     * @param entityList 实体对象集合
+     * @param batchSize  每条语句的最大行数
+     * @return 操作结果
+     * @since 3.3.2
+     */
+    protected boolean saveMultiRowBatch(TableInfo tableInfo, Collection<T> entityList, int batchSize) {
+        Assert.isFalse(batchSize < 1, "batchSize must not be less than one");
+        return !CollectionUtils.isEmpty(entityList) && executeBatch(sqlSession -> {
+            DbType dbType = SqlHelper.getDbType(sqlSession);
+            int maxParams = SqlHelper.multiRowInsertMaxParams(dbType);
+            if (maxParams < 1) {
+                String sqlStatement = tableInfo.getSqlStatement(SqlMethod.INSERT_ONE.getMethod());
+                int i = 1;
+                for (T entity : entityList) {
+                    sqlSession.insert(sqlStatement, entity);
+                    if ((i % batchSize == 0) || i == entityList.size()) {
+                        sqlSession.flushStatements();
+                    }
+                    i++;
+                }
+                return;
+            }
+            Map<BitSet, List<T>> groups = groupByColumns(tableInfo, entityList, TableFieldInfo::isInsertColumn);
+            String sqlStatement = tableInfo.getSqlStatement(SqlMethod.INSERT_MULTI_ROW.getMethod());
+            groups.forEach((shape, group) -> {
+                int columns = Math.max(1, shape.cardinality() + (tableInfo.havePK() ? 1 : 0));
+                int maxRows = Math.max(1, Math.min(Math.min(batchSize, SqlHelper.multiRowInsertMaxRows(dbType)), maxParams / columns));
+                for (int i = 0; i < group.size(); i += maxRows) {
+                    sqlSession.insert(sqlStatement, group.subList(i, Math.min(i + maxRows, group.size())));
+                }
+                sqlSession.flushStatements();
+            });
+        });
+    }
+
     /**
      * TableId 注解存在更新记录，否插入一条记录
      *
@@ -148,6 +223,13 @@ public class ServiceImpl<M extends BaseMapper<T>, T> implements IService<T> {
         return false;
     }
 
+    /**
+     * 每批先用一次 selectBatchIds 查出已存在的主键, 再分别批量插入与更新
+     * <p>
+     * 数据库返回的主键与传入的主键不相等时(例如忽略大小写的比较、CHAR 补齐空格、小数位数不同),
+     * 该批中未匹配的主键逐条用 selectById 确认是否存在
+     * </p>
+     */
     @Transactional(rollbackFor = Exception.class)
     @Override
     public boolean saveOrUpdateBatch(Collection<T> entityList, int batchSize) {
@@ -155,22 +237,141 @@ public class ServiceImpl<M extends BaseMapper<T>, T> implements IService<T> {
         Assert.notNull(tableInfo, "error: can not execute. because can not find cache of TableInfo for entity!");
         String keyProperty = tableInfo.getKeyProperty();
         Assert.notEmpty(keyProperty, "error: can not execute. because can not find column for id from entity!");
-        return executeBatch(entityList, batchSize, (sqlSession, entity) -> {
-            Object idVal = ReflectionKit.getFieldValue(entity, keyProperty);
-            if (StringUtils.checkValNull(idVal) || Objects.isNull(getById((Serializable) idVal))) {
-                sqlSession.insert(tableInfo.getSqlStatement(SqlMethod.INSERT_ONE.getMethod()), entity);
-            } else {
-                MapperMethod.ParamMap<T> param = new MapperMethod.ParamMap<>();
-                param.put(Constants.ENTITY, entity);
-                sqlSession.update(tableInfo.getSqlStatement(SqlMethod.UPDATE_BY_ID.getMethod()), param);
+        Assert.isFalse(batchSize < 1, "batchSize must not be less than one");
+        if (CollectionUtils.isEmpty(entityList)) {
+            return false;
+        }
+        String insertStatement = tableInfo.getSqlStatement(SqlMethod.INSERT_ONE.getMethod());
+        String updateStatement = tableInfo.getSqlStatement(SqlMethod.UPDATE_BY_ID.getMethod());
+        String selectStatement = tableInfo.getSqlStatement(SqlMethod.SELECT_BATCH_BY_IDS.getMethod());
+        String selectByIdStatement = tableInfo.getSqlStatement(SqlMethod.SELECT_BY_ID.getMethod());
+        List<T> entities = new ArrayList<>(entityList);
+        return executeBatch(sqlSession -> {
+            // 已存在或已插入的主键
+            Set<Object> existIds = new HashSet<>();
+            for (int i = 0; i < entities.size(); i += batchSize) {
+                List<T> batch = entities.subList(i, Math.min(i + batchSize, entities.size()));
+                Set<Object> ids = new HashSet<>();
+                for (T entity : batch) {
+                    Object idVal = ReflectionKit.getFieldValue(entity, keyProperty);
+                    if (!StringUtils.checkValNull(idVal) && !existIds.contains(idVal)) {
+                        ids.add(idVal);
+                    }
+                }
+                // 返回的主键是否都能与传入的主键匹配
+                boolean matched = true;
+                if (!ids.isEmpty()) {
+                    MapperMethod.ParamMap<Object> param = new MapperMethod.ParamMap<>();
+                    param.put(Constants.COLLECTION, ids);
+                    List<T> exists = sqlSession.selectList(selectStatement, param);
+                    for (T exist : exists) {
+                        Object existId = ReflectionKit.getFieldValue(exist, keyProperty);
+                        existIds.add(existId);
+                        matched &= ids.contains(existId);
+                    }
+                }
+                List<T> updates = new ArrayList<>();
+                for (T entity : batch) {
+                    Object idVal = ReflectionKit.getFieldValue(entity, keyProperty);
+                    if (!matched && ids.contains(idVal) && !existIds.contains(idVal)
+                        && null != sqlSession.selectOne(selectByIdStatement, idVal)) {
+                        existIds.add(idVal);
+                    }
+                    if (StringUtils.checkValNull(idVal) || !existIds.contains(idVal)) {
+                        sqlSession.insert(insertStatement, entity);
+                        if (!StringUtils.checkValNull(idVal)) {
+                            existIds.add(idVal);
+                        }
+                    } else {
+                        updates.add(entity);
+                    }
+                }
+                for (T entity : updates) {
+                    MapperMethod.ParamMap<T> param = new MapperMethod.ParamMap<>();
+                    param.put(Constants.ENTITY, entity);
+                    sqlSession.update(updateStatement, param);
+                }
+                sqlSession.flushStatements();
             }
         });
     }
 
+    @Transactional(rollbackFor = Exception.class)
+    @Override
+    public boolean insertOrUpdateBatch(Collection<T> entityList, int batchSize) {
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(entityClass);
+        Assert.notNull(tableInfo, "error: can not execute. because can not find cache of TableInfo for entity!");
+        String sqlStatement = tableInfo.getSqlStatement(InsertOrUpdate.METHOD);
+        Assert.isTrue(tableInfo.getConfiguration().hasStatement(sqlStatement, false),
+            "error: can not execute. because can not find %s, please inject InsertOrUpdate with your sql injector!", sqlStatement);
+        return executeBatch(entityList, batchSize, (sqlSession, entity) -> sqlSession.insert(sqlStatement, entity));
+    }
+
+    /**
+     * 按字段分组
+     *
+     * @param tableInfo  表信息
+     * @param entityList 实体对象集合
+     * @param included   字段是否包含在 sql 中
+     * @return 包含字段一致的实体分组, 按首次出现的顺序
+     * @since 3.3.2
+     */
+    protected Map<BitSet, List<T>> groupByColumns(TableInfo tableInfo, Collection<T> entityList,
+                                                  BiPredicate<TableFieldInfo, T> included) {
+        List<TableFieldInfo> fieldList = tableInfo.getFieldList();
+        Map<BitSet, List<T>> groups = new LinkedHashMap<>();
+        for (T entity : entityList) {
+            BitSet shape = new BitSet(fieldList.size());
+            for (int i = 0; i < fieldList.size(); i++) {
+                if (included.test(fieldList.get(i), entity)) {
+                    shape.set(i);
+                }
+            }
+            groups.computeIfAbsent(shape, k -> new ArrayList<>()).add(entity);
+        }
+        return groups;
+    }
+
+    /**
+     * 主键是否各不相同
+     * <p>
+     * 同一主键的多次更新必须按原顺序执行, 主键重复时不能分组重排
+     * </p>
+     *
+     * @param tableInfo  表信息
+     * @param entityList 实体对象集合
+     * @return 是否各不相同
+     * @since 3.3.2
+     */
+    protected boolean hasDistinctIds(TableInfo tableInfo, Collection<T> entityList) {
+        String keyProperty = tableInfo.getKeyProperty();
+        if (StringUtils.isBlank(keyProperty)) {
+            return false;
+        }
+        Set<Object> ids = new HashSet<>(entityList.size() * 4 / 3 + 1);
+        for (T entity : entityList) {
+            Object idVal = ReflectionKit.getFieldValue(entity, keyProperty);
+            if (null != idVal && !ids.add(idVal)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Transactional(rollbackFor = Exception.class)
     @Override
     public boolean updateBatchById(Collection<T> entityList, int batchSize) {
         String sqlStatement = sqlStatement(SqlMethod.UPDATE_BY_ID);
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(entityClass);
+        if (null != tableInfo && CollectionUtils.isNotEmpty(entityList)
+            && GlobalConfigUtils.getGlobalConfig(tableInfo.getConfiguration()).getDbConfig().isGroupUpdateBatch()
+            && hasDistinctIds(tableInfo, entityList)) {
+            // 按 set 字段分组后连续执行, 同组 sql 一致
+            List<T> sorted = new ArrayList<>(entityList.size());
+            groupByColumns(tableInfo, entityList, (field, entity) -> !field.isLogicDelete() && field.isUpdateColumn(entity))
+                .values().forEach(sorted::addAll);
+            entityList = sorted;
+        }
         return executeBatch(entityList, batchSize, (sqlSession, entity) -> {
             MapperMethod.ParamMap<T> param = new MapperMethod.ParamMap<>();
             param.put(Constants.ENTITY, entity);
@@ -15,10 +15,12 @@
  */
 package com.baomidou.mybatisplus.extension.toolkit;
 
+import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.core.metadata.TableInfo;
 import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
 import com.baomidou.mybatisplus.core.toolkit.Assert;
 import com.baomidou.mybatisplus.core.toolkit.CollectionUtils;
+import com.baomidou.mybatisplus.core.toolkit.ExceptionUtils;
 import com.baomidou.mybatisplus.core.toolkit.GlobalConfigUtils;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.session.ExecutorType;
@@ -28,7 +30,14 @@ import org.mybatis.spring.SqlSessionHolder;
 import org.mybatis.spring.SqlSessionUtils;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 /**
  * SQL 辅助类
@@ -125,6 +134,107 @@ public final class SqlHelper {
         return null;
     }
 
+    /**
+     * 按批次拆分参数集合执行查询并按批次顺序合并结果
+     * <p>
+     * 指定 executor 时各批次并行执行, 并行的查询不在当前线程的事务中, 各自使用连接池中的连接
+     * </p>
+     *
+     * @param list      参数集合
+     * @param batchSize 每批个数
+     * @param executor  并行执行的线程池, 为 null 时在当前线程顺序执行
+     * @param function  单批查询
+     * @param <E>       参数类型
+     * @param <R>       结果类型
+     * @return 合并后的结果
+     * @since 3.3.2
+     */
+    public static <E, R> List<R> selectInBatches(Collection<E> list, int batchSize, Executor executor,
+                                                  Function<List<E>, List<R>> function) {
+        Assert.isFalse(batchSize < 1, "batchSize must not be less than one");
+        List<E> params = new ArrayList<>(list);
+        List<List<E>> batches = new ArrayList<>((params.size() + batchSize - 1) / batchSize);
+        for (int i = 0; i < params.size(); i += batchSize) {
+            batches.add(params.subList(i, Math.min(i + batchSize, params.size())));
+        }
+        List<R> result = new ArrayList<>(params.size());
+        if (null == executor || batches.size() < 2) {
+            batches.forEach(batch -> result.addAll(function.apply(batch)));
+            return result;
+        }
+        List<CompletableFuture<List<R>>> futures = new ArrayList<>(batches.size());
+        batches.forEach(batch -> futures.add(CompletableFuture.supplyAsync(() -> function.apply(batch), executor)));
+        try {
+            futures.forEach(future -> result.addAll(future.join()));
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : ExceptionUtils.mpe(cause);
+        }
+        return result;
+    }
+
+    /**
+     * 获取当前 SqlSession 连接的数据库类型
+     * <p>
+     * 不做缓存, 以兼容动态数据源
+     * </p>
+     *
+     * @param sqlSession SqlSession
+     * @return 数据库类型
+     * @since 3.3.2
+     */
+    public static DbType getDbType(SqlSession sqlSession) {
+        try {
+            return JdbcUtils.getDbType(sqlSession.getConnection().getMetaData().getURL());
+        } catch (SQLException e) {
+            throw ExceptionUtils.mpe("Error: Cannot read database type", e);
+        }
+    }
+
+    /**
+     * 多行 INSERT ... VALUES 单条语句允许的最大绑定参数个数
+     *
+     * @param dbType 数据库类型
+     * @return 最大绑定参数个数, 0 表示不支持多行插入
+     * @since 3.3.2
+     */
+    public static int multiRowInsertMaxParams(DbType dbType) {
+        switch (dbType) {
+            case MYSQL:
+            case MARIADB:
+            case H2:
+                return 65535;
+            case POSTGRE_SQL:
+            case KINGBASE_ES:
+                // 旧版 pgjdbc 以 short 记录参数个数
+                return 32767;
+            case SQL_SERVER:
+            case SQL_SERVER2005:
+                return 2000;
+            case SQLITE:
+                return 999;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * 多行 INSERT ... VALUES 单条语句允许的最大行数
+     *
+     * @param dbType 数据库类型
+     * @return 最大行数
+     * @since 3.3.2
+     */
+    public static int multiRowInsertMaxRows(DbType dbType) {
+        switch (dbType) {
+            case SQL_SERVER:
+            case SQL_SERVER2005:
+                return 1000;
+            default:
+                return Integer.MAX_VALUE;
+        }
+    }
+
     /**
      * 清理缓存.
      * 批量插入因为无法重用sqlSession，只能新开启一个sqlSession
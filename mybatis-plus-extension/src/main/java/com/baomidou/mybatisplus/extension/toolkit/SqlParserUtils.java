@@ -17,7 +17,21 @@ package com.baomidou.mybatisplus.extension.toolkit;
 
 import com.baomidou.mybatisplus.core.parser.ISqlParser;
 import com.baomidou.mybatisplus.core.parser.SqlInfo;
+import com.baomidou.mybatisplus.core.toolkit.CollectionUtils;
+import com.baomidou.mybatisplus.core.toolkit.StringPool;
 import com.baomidou.mybatisplus.extension.plugins.pagination.optimize.JsqlParserCountOptimize;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.statement.select.OrderByElement;
+import net.sf.jsqlparser.statement.select.SelectExpressionItem;
+import net.sf.jsqlparser.statement.select.SelectItem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * SQL 解析工具类
@@ -62,4 +76,54 @@ public class SqlParserUtils {
         }
         return COUNT_SQL_PARSER.parser(null, originalSql);
     }
+
+    /**
+     * 将排序中引用的查询字段别名替换为对应的表达式
+     * <p>
+     * 替换的排序元素为副本, 其余元素(包括字段序号)原样返回, 可按引用判断是否替换
+     * </p>
+     *
+     * @param selectItems     查询字段
+     * @param orderByElements 排序
+     * @return 替换别名后的排序
+     * @since 3.3.2
+     */
+    public static List<OrderByElement> resolveOrderByAliases(List<SelectItem> selectItems, List<OrderByElement> orderByElements) {
+        if (CollectionUtils.isEmpty(orderByElements)) {
+            return Collections.emptyList();
+        }
+        Map<String, Expression> aliases = new HashMap<>();
+        for (SelectItem item : selectItems) {
+            if (item instanceof SelectExpressionItem && null != ((SelectExpressionItem) item).getAlias()) {
+                SelectExpressionItem expressionItem = (SelectExpressionItem) item;
+                aliases.put(normalizeAlias(expressionItem.getAlias().getName()), expressionItem.getExpression());
+            }
+        }
+        List<OrderByElement> resolved = new ArrayList<>(orderByElements.size());
+        for (OrderByElement element : orderByElements) {
+            Expression expression = element.getExpression();
+            if (!aliases.isEmpty() && expression instanceof Column && (null == ((Column) expression).getTable()
+                || null == ((Column) expression).getTable().getName())) {
+                Expression aliased = aliases.get(normalizeAlias(((Column) expression).getColumnName()));
+                if (null != aliased) {
+                    OrderByElement copy = new OrderByElement();
+                    copy.setExpression(aliased);
+                    copy.setAsc(element.isAsc());
+                    copy.setAscDescPresent(element.isAscDescPresent());
+                    copy.setNullOrdering(element.getNullOrdering());
+                    element = copy;
+                }
+            }
+            resolved.add(element);
+        }
+        return resolved;
+    }
+
+    private static String normalizeAlias(String alias) {
+        String name = null == alias ? StringPool.EMPTY : alias;
+        if (name.length() > 1 && (name.charAt(0) == '"' || name.charAt(0) == '`' || name.charAt(0) == '[')) {
+            name = name.substring(1, name.length() - 1);
+        }
+        return name.toLowerCase(Locale.ENGLISH);
+    }
 }
@@ -114,6 +114,12 @@ class KtQueryWrapper<T : Any> : AbstractKtWrapper<T, KtQueryWrapper<T>>, Query<K
             SharedString.emptyString(), SharedString.emptyString(), SharedString.emptyString())
     }
 
+    override fun clone(): KtQueryWrapper<T> {
+        val clone = super.clone()
+        clone.sqlSelect = SharedString(sqlSelect.stringValue)
+        return clone
+    }
+
     override fun clear() {
         super.clear()
         sqlSelect.toNull()
@@ -86,6 +86,12 @@ class KtUpdateWrapper<T : Any> : AbstractKtWrapper<T, KtUpdateWrapper<T>>, Updat
             SharedString.emptyString(), SharedString.emptyString(), SharedString.emptyString())
     }
 
+    override fun clone(): KtUpdateWrapper<T> {
+        val clone = super.clone()
+        clone.sqlSet.addAll(sqlSet)
+        return clone
+    }
+
     override fun clear() {
         super.clear()
         sqlSet.clear()
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.extension.handlers;
+
+import com.baomidou.mybatisplus.core.parser.AbstractJsqlParser;
+import com.baomidou.mybatisplus.core.parser.ISqlParser;
+import com.baomidou.mybatisplus.core.parser.ISqlStatementParser;
+import com.baomidou.mybatisplus.core.parser.SqlInfo;
+import net.sf.jsqlparser.expression.Alias;
+import net.sf.jsqlparser.statement.Statements;
+import net.sf.jsqlparser.statement.delete.Delete;
+import net.sf.jsqlparser.statement.insert.Insert;
+import net.sf.jsqlparser.statement.select.Distinct;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.statement.select.SelectBody;
+import net.sf.jsqlparser.statement.update.Update;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * @since 3.3.2
+ */
+class SqlParserHandlerTest {
+
+    private final AbstractSqlParserHandler handler = new AbstractSqlParserHandler() {
+    };
+
+    @Test
+    void testSharedStatements() {
+        List<Statements> seen = new ArrayList<>();
+        ISqlStatementParser distinct = statementParser(seen, select -> select.setDistinct(new Distinct()));
+        ISqlStatementParser alias = statementParser(seen, select -> select.getFromItem().setAlias(new Alias("u")));
+        handler.setSqlParserList(Arrays.asList(distinct, alias));
+        Assertions.assertEquals("SELECT DISTINCT id FROM user AS u", handler.processSqlParsers(null, "select id from user"));
+        Assertions.assertEquals(2, seen.size());
+        Assertions.assertSame(seen.get(0), seen.get(1));
+    }
+
+    @Test
+    void testStringParserAdapter() {
+        List<Statements> seen = new ArrayList<>();
+        ISqlStatementParser distinct = statementParser(seen, select -> select.setDistinct(new Distinct()));
+        List<String> received = new ArrayList<>();
+        ISqlParser suffix = (metaObject, sql) -> {
+            received.add(sql);
+            return SqlInfo.newInstance().setSql(sql + " WHERE id = 1");
+        };
+        handler.setSqlParserList(Arrays.asList(distinct, suffix, distinct));
+        Assertions.assertEquals("SELECT DISTINCT id FROM user WHERE id = 1", handler.processSqlParsers(null, "select id from user"));
+        Assertions.assertEquals(Collections.singletonList("SELECT DISTINCT id FROM user"), received);
+        Assertions.assertNotSame(seen.get(0), seen.get(1));
+    }
+
+    @Test
+    void testUnchanged() {
+        ISqlStatementParser readOnly = new ISqlStatementParser() {
+            @Override
+            public boolean processStatements(MetaObject metaObject, Statements statements) {
+                return false;
+            }
+
+            @Override
+            public SqlInfo parser(MetaObject metaObject, String sql) {
+                return null;
+            }
+        };
+        handler.setSqlParserList(Collections.singletonList(readOnly));
+        Assertions.assertNull(handler.processSqlParsers(null, "select id from user"));
+    }
+
+    @Test
+    void testOverriddenParser() {
+        AbstractJsqlParser overridden = new NoopJsqlParser() {
+            @Override
+            public SqlInfo parser(MetaObject metaObject, String sql) {
+                return SqlInfo.newInstance().setSql(sql + " limit 1");
+            }
+        };
+        Assertions.assertFalse(overridden.supportsStatements());
+        Assertions.assertTrue(new NoopJsqlParser().supportsStatements());
+        handler.setSqlParserList(Collections.singletonList(overridden));
+        Assertions.assertEquals("select id from user limit 1", handler.processSqlParsers(null, "select id from user"));
+    }
+
+    @Test
+    void testUnhandledStatement() {
+        handler.setSqlParserList(Collections.singletonList(new NoopJsqlParser()));
+        // 未分发处理的语句类型不重新生成 SQL
+        Assertions.assertNull(handler.processSqlParsers(null, "truncate table user"));
+        Assertions.assertEquals("SELECT id FROM user", handler.processSqlParsers(null, "select id from user"));
+    }
+
+    @Test
+    void testStaticSqlParsedOnce() {
+        Configuration configuration = new Configuration();
+        MappedStatement mappedStatement = new MappedStatement.Builder(configuration, "test.selectById",
+            new StaticSqlSource(configuration, "select id from user where id = ?"), SqlCommandType.SELECT).build();
+        Map<String, Object> delegate = new HashMap<>();
+        delegate.put("mappedStatement", mappedStatement);
+        MetaObject metaObject = SystemMetaObject.forObject(Collections.singletonMap("delegate", delegate));
+
+        AtomicInteger staticCount = new AtomicInteger();
+        AtomicInteger dynamicCount = new AtomicInteger();
+        ISqlParser staticParser = new ISqlParser() {
+            @Override
+            public SqlInfo parser(MetaObject metaObject, String sql) {
+                staticCount.incrementAndGet();
+                return SqlInfo.newInstance().setSql(sql + " and deleted = 0");
+            }
+
+            @Override
+            public boolean isStaticResult() {
+                return true;
+            }
+        };
+        ISqlParser dynamicParser = (mo, sql) -> {
+            dynamicCount.incrementAndGet();
+            return null;
+        };
+        handler.setSqlParserList(Arrays.asList(staticParser, dynamicParser));
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals("select id from user where id = ? and deleted = 0",
+                handler.processSqlParsers(metaObject, "select id from user where id = ?"));
+        }
+        Assertions.assertEquals(1, staticCount.get());
+        Assertions.assertEquals(3, dynamicCount.get());
+
+        AbstractSqlParserHandler prepared = new AbstractSqlParserHandler() {
+        };
+        prepared.setSqlParserList(Arrays.asList(staticParser, dynamicParser));
+        prepared.prepareStaticSql(mappedStatement);
+        Assertions.assertEquals(2, staticCount.get());
+        Assertions.assertEquals(3, dynamicCount.get());
+        Assertions.assertEquals("select id from user where id = ? and deleted = 0",
+            prepared.processSqlParsers(metaObject, "select id from user where id = ?"));
+        Assertions.assertEquals(2, staticCount.get());
+    }
+
+    private static class NoopJsqlParser extends AbstractJsqlParser {
+
+        @Override
+        public void processInsert(Insert insert) {
+            // to do nothing
+        }
+
+        @Override
+        public void processDelete(Delete delete) {
+            // to do nothing
+        }
+
+        @Override
+        public void processUpdate(Update update) {
+            // to do nothing
+        }
+
+        @Override
+        public void processSelectBody(SelectBody selectBody) {
+            // to do nothing
+        }
+    }
+
+    private static ISqlStatementParser statementParser(List<Statements> seen, Consumer<PlainSelect> consumer) {
+        return new ISqlStatementParser() {
+            @Override
+            public boolean processStatements(MetaObject metaObject, Statements statements) {
+                seen.add(statements);
+                consumer.accept((PlainSelect) ((Select) statements.getStatements().get(0)).getSelectBody());
+                return true;
+            }
+
+            @Override
+            public SqlInfo parser(MetaObject metaObject, String sql) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.extension.injector.methods;
+
+import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.annotation.FieldFill;
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableLogic;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.annotation.Version;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import lombok.Data;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @since 3.3.2
+ */
+class InsertOrUpdateTest {
+
+    @Test
+    void mysql() {
+        assertThat(sql(DbType.MYSQL, user())).isEqualTo("INSERT INTO t_user ( id, name, create_time, version, deleted ) "
+            + "VALUES ( ?, ?, ?, ?, ? ) ON DUPLICATE KEY UPDATE id=id, name=VALUES(name)");
+    }
+
+    @Test
+    void mysqlAutoIncrement() {
+        MappedStatement ms = inject(DbType.MYSQL, AutoUser.class);
+        assertThat(ms.getKeyGenerator()).isInstanceOf(Jdbc3KeyGenerator.class);
+        AutoUser user = new AutoUser();
+        user.setId(1L);
+        user.setName("a");
+        // 自增主键也写入主键字段, 冲突时返回已存在行的主键
+        assertThat(sql(ms, user)).isEqualTo("INSERT INTO t_auto_user ( id, name ) VALUES ( ?, ? ) "
+            + "ON DUPLICATE KEY UPDATE id=LAST_INSERT_ID(id), name=VALUES(name)");
+    }
+
+    @Test
+    void postgresql() {
+        assertThat(sql(DbType.POSTGRE_SQL, user())).isEqualTo("INSERT INTO t_user ( id, name, create_time, version, deleted ) "
+            + "VALUES ( ?, ?, ?, ?, ? ) ON CONFLICT (id) DO UPDATE SET id=EXCLUDED.id, name=EXCLUDED.name");
+    }
+
+    @Test
+    void oracle() {
+        assertThat(sql(DbType.ORACLE, user())).isEqualTo("MERGE INTO t_user t0 USING (SELECT ? AS id, ? AS name, "
+            + "? AS create_time, ? AS version, ? AS deleted FROM DUAL) s0 ON (t0.id = s0.id) "
+            + "WHEN MATCHED THEN UPDATE SET name=s0.name WHEN NOT MATCHED THEN INSERT ( id, name, create_time, version, deleted ) "
+            + "VALUES ( s0.id, s0.name, s0.create_time, s0.version, s0.deleted )");
+    }
+
+    @Test
+    void sqlServer() {
+        assertThat(sql(DbType.SQL_SERVER, user())).isEqualTo("MERGE INTO t_user t0 USING (SELECT ? AS id, ? AS name, "
+            + "? AS create_time, ? AS version, ? AS deleted ) s0 ON (t0.id = s0.id) "
+            + "WHEN MATCHED THEN UPDATE SET name=s0.name WHEN NOT MATCHED THEN INSERT ( id, name, create_time, version, deleted ) "
+            + "VALUES ( s0.id, s0.name, s0.create_time, s0.version, s0.deleted ) ;");
+    }
+
+    @Test
+    void h2() {
+        assertThat(sql(DbType.H2, user())).isEqualTo("MERGE INTO t_user t0 USING DUAL ON (t0.id = ?) "
+            + "WHEN MATCHED THEN UPDATE SET name=? WHEN NOT MATCHED THEN INSERT ( id, name, create_time, version, deleted ) "
+            + "VALUES ( ?, ?, ?, ?, ? )");
+    }
+
+    @Test
+    void autoIncrementNotMysql() {
+        assertThat(inject(DbType.POSTGRE_SQL, AutoUser.class)).isNull();
+    }
+
+    private User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setName("a");
+        user.setCreateTime(LocalDateTime.now());
+        user.setVersion(1);
+        user.setDeleted(0);
+        return user;
+    }
+
+    private String sql(DbType dbType, Object entity) {
+        return sql(inject(dbType, entity.getClass()), entity);
+    }
+
+    private String sql(MappedStatement ms, Object entity) {
+        return ms.getBoundSql(entity).getSql().replaceAll("\\s+", " ").trim();
+    }
+
+    private MappedStatement inject(DbType dbType, Class<?> entityClass) {
+        MybatisConfiguration configuration = new MybatisConfiguration();
+        MapperBuilderAssistant assistant = new MapperBuilderAssistant(configuration, "");
+        assistant.setCurrentNamespace(Mapper.class.getName());
+        new InsertOrUpdate(dbType).inject(assistant, Mapper.class, entityClass, TableInfoHelper.initTableInfo(assistant, entityClass));
+        String id = Mapper.class.getName() + "." + InsertOrUpdate.METHOD;
+        return configuration.hasStatement(id, false) ? configuration.getMappedStatement(id, false) : null;
+    }
+
+    interface Mapper {
+    }
+
+    @Data
+    @TableName("t_user")
+    private static class User {
+        @TableId(type = IdType.INPUT)
+        private Long id;
+        private String name;
+        @TableField(fill = FieldFill.INSERT)
+        private LocalDateTime createTime;
+        @Version
+        private Integer version;
+        @TableLogic
+        private Integer deleted;
+    }
+
+    @Data
+    @TableName("t_auto_user")
+    private static class AutoUser {
+        @TableId(type = IdType.AUTO)
+        private Long id;
+        private String name;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.extension.plugins;
+
+import com.baomidou.mybatisplus.core.exceptions.MybatisPlusException;
+import com.baomidou.mybatisplus.extension.plugins.inner.PluginContext;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @since 3.3.2
+ */
+class IllegalSQLInterceptorTest {
+
+    private final Configuration configuration = new Configuration();
+    private DatabaseMetaData metaData;
+    private Connection connection;
+
+    @BeforeEach
+    void init() throws SQLException {
+        metaData = mock(DatabaseMetaData.class);
+        connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        // 表 user 只有 Aa 列上的索引
+        when(metaData.getIndexInfo(any(), any(), any(), anyBoolean(), anyBoolean())).then(invocation -> {
+            ResultSet resultSet = mock(ResultSet.class);
+            when(resultSet.next()).thenReturn(true, false);
+            when(resultSet.getString(3)).thenReturn("user");
+            when(resultSet.getString(8)).thenReturn("1");
+            when(resultSet.getString(9)).thenReturn("Aa");
+            return resultSet;
+        });
+    }
+
+    @Test
+    void testVerdictCache() throws Throwable {
+        IllegalSQLInterceptor interceptor = new IllegalSQLInterceptor();
+        prepare(interceptor, "select * from user where Aa = 1");
+        Assertions.assertEquals(1, interceptor.getVerdictCache().size());
+        // "Aa" 与 "BB" 的 hash 相同, 不能命中已验证的 SQL
+        Assertions.assertEquals("Aa".hashCode(), "BB".hashCode());
+        Assertions.assertThrows(MybatisPlusException.class, () -> prepare(interceptor, "select * from user where BB = 1"));
+        Assertions.assertEquals(1, interceptor.getVerdictCache().size());
+    }
+
+    @Test
+    void testVerdictCacheDisabled() throws Throwable {
+        IllegalSQLInterceptor interceptor = new IllegalSQLInterceptor().setVerdictCacheSize(0);
+        prepare(interceptor, "select * from user where Aa = 1");
+        Assertions.assertNull(interceptor.getVerdictCache());
+        Properties properties = new Properties();
+        properties.setProperty("verdictCacheSize", "-1");
+        interceptor = new IllegalSQLInterceptor();
+        interceptor.setProperties(properties);
+        prepare(interceptor, "select * from user where Aa = 1");
+        Assertions.assertNull(interceptor.getVerdictCache());
+        Assertions.assertThrows(MybatisPlusException.class, () -> prepare(new IllegalSQLInterceptor().setVerdictCacheSize(0), "select * from user"));
+    }
+
+    @Test
+    void testIndexInfoTtl() throws Throwable {
+        IllegalSQLInterceptor interceptor = new IllegalSQLInterceptor().setIndexInfoTtl(0);
+        prepare(interceptor, "select * from user where Aa = 1");
+        prepare(interceptor, "select * from user where Aa = 2");
+        verify(metaData, times(1)).getIndexInfo(any(), any(), any(), anyBoolean(), anyBoolean());
+
+        interceptor = new IllegalSQLInterceptor().setIndexInfoTtl(1);
+        prepare(interceptor, "select * from user where Aa = 1");
+        Thread.sleep(10);
+        prepare(interceptor, "select * from user where Aa = 2");
+        verify(metaData, times(3)).getIndexInfo(any(), any(), any(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    void testSampleRate() throws Throwable {
+        Assertions.assertThrows(MybatisPlusException.class, () -> new IllegalSQLInterceptor().setSampleRate(0));
+        Assertions.assertThrows(MybatisPlusException.class, () -> new IllegalSQLInterceptor().setSampleRate(1.5));
+        Assertions.assertThrows(MybatisPlusException.class, () -> new IllegalSQLInterceptor().setSampleRate(Double.NaN));
+        Assertions.assertThrows(MybatisPlusException.class, () -> prepare(new IllegalSQLInterceptor().setSampleRate(1), "select * from user"));
+        // 未抽中时不验证, 也不缓存
+        IllegalSQLInterceptor sampled = new IllegalSQLInterceptor().setSampleRate(Double.MIN_VALUE);
+        prepare(sampled, "select * from user");
+        Assertions.assertEquals(0, sampled.getVerdictCache().size());
+    }
+
+    private void prepare(IllegalSQLInterceptor interceptor, String sql) throws Throwable {
+        MappedStatement mappedStatement = new MappedStatement.Builder(configuration, "test.select",
+            new StaticSqlSource(configuration, sql), SqlCommandType.SELECT).build();
+        StatementHandler statementHandler = configuration.newStatementHandler(null, mappedStatement, null,
+            RowBounds.DEFAULT, null, mappedStatement.getBoundSql(null));
+        Invocation invocation = new Invocation(statementHandler,
+            StatementHandler.class.getMethod("prepare", Connection.class, Integer.class), new Object[]{connection, null});
+        interceptor.prepare(new PluginContext(invocation), () -> null);
+    }
+}
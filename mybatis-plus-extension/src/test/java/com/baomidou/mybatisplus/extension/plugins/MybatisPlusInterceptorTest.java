@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.extension.plugins;
+
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerChain;
+import com.baomidou.mybatisplus.extension.plugins.inner.InnerInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.PluginContext;
+import net.sf.jsqlparser.statement.Statement;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 统一拦截器测试
+ *
+ * @since 3.3.2
+ */
+class MybatisPlusInterceptorTest {
+
+    private final Configuration configuration = new Configuration();
+    private final MappedStatement mappedStatement = new MappedStatement.Builder(configuration, "test.update",
+        new StaticSqlSource(configuration, "UPDATE t SET a = 1"), SqlCommandType.UPDATE).build();
+
+    @Test
+    void testInnerInterceptorOrder() throws Exception {
+        List<String> calls = new ArrayList<>();
+        MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor()
+            .addInnerInterceptor(new Recorder("first", calls))
+            .addInnerInterceptor(new Recorder("second", calls));
+        Executor executor = (Executor) interceptor.plugin(executor(calls));
+        Assertions.assertEquals(1, executor.update(mappedStatement, "param"));
+        Assertions.assertEquals(Arrays.asList("first", "second", "target"), calls);
+        // 非拦截类型不包装
+        Object other = new Object();
+        Assertions.assertSame(other, interceptor.plugin(other));
+    }
+
+    @Test
+    void testShortCircuit() throws Exception {
+        List<String> calls = new ArrayList<>();
+        MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor()
+            .addInnerInterceptor(new InnerInterceptor() {
+                @Override
+                public Object update(PluginContext context, InnerChain chain) {
+                    calls.add("skip");
+                    return -1;
+                }
+            })
+            .addInnerInterceptor(new Recorder("second", calls));
+        Executor executor = (Executor) interceptor.plugin(executor(calls));
+        Assertions.assertEquals(-1, executor.update(mappedStatement, "param"));
+        Assertions.assertEquals(Arrays.asList("skip"), calls);
+    }
+
+    @Test
+    void testComplete() throws Exception {
+        List<String> calls = new ArrayList<>();
+        MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor()
+            .addInnerInterceptor(new InnerInterceptor() {
+                @Override
+                public Object complete(PluginContext context, InnerChain chain) throws Throwable {
+                    calls.add(context.getInvocation().getMethod().getName());
+                    return chain.proceed();
+                }
+            });
+        Executor executor = (Executor) interceptor.plugin(executor(calls));
+        executor.commit(true);
+        executor.rollback(true);
+        executor.close(false);
+        Assertions.assertEquals(Arrays.asList("commit", "rollback", "close"), calls);
+    }
+
+    @Test
+    void testSharedStatement() throws Exception {
+        MappedStatement select = new MappedStatement.Builder(configuration, "test.select",
+            new StaticSqlSource(configuration, "SELECT * FROM t WHERE a = 1"), SqlCommandType.SELECT).build();
+        StatementHandler statementHandler = configuration.newStatementHandler(null, select, null,
+            RowBounds.DEFAULT, null, select.getBoundSql(null));
+        PluginContext context = new PluginContext(new Invocation(statementHandler,
+            StatementHandler.class.getMethod("prepare", Connection.class, Integer.class), new Object[]{null, null}));
+        Statement statement = context.getStatement();
+        Assertions.assertSame(statement, context.getStatement());
+        // SQL 被改写后重新解析
+        context.getMetaObject().setValue("delegate.boundSql.sql", "SELECT * FROM t WHERE a = 2");
+        Statement rewritten = context.getStatement();
+        Assertions.assertNotSame(statement, rewritten);
+        Assertions.assertEquals("SELECT * FROM t WHERE a = 2", rewritten.toString());
+    }
+
+    private Executor executor(List<String> calls) {
+        return (Executor) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Executor.class},
+            (proxy, method, args) -> {
+                if ("update".equals(method.getName())) {
+                    calls.add("target");
+                    return 1;
+                }
+                return null;
+            });
+    }
+
+    private static class Recorder implements InnerInterceptor {
+
+        private final String name;
+        private final List<String> calls;
+
+        Recorder(String name, List<String> calls) {
+            this.name = name;
+            this.calls = calls;
+        }
+
+        @Override
+        public Object update(PluginContext context, InnerChain chain) throws Throwable {
+            Assertions.assertEquals("test.update", context.getMappedStatement().getId());
+            Assertions.assertEquals("param", context.getParameter());
+            calls.add(name);
+            return chain.proceed();
+        }
+    }
+}
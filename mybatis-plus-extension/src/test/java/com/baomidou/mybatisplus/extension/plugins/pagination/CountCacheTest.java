@@ -0,0 +1,124 @@
+package com.baomidou.mybatisplus.extension.plugins.pagination;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @since 3.3.2
+ */
+class CountCacheTest {
+
+    private static final String COUNT_SQL = "SELECT COUNT(1) FROM user u LEFT JOIN role r ON r.id = u.role_id WHERE u.age > ?";
+
+    private static CacheKey key(Object param) {
+        CacheKey key = new CacheKey();
+        key.update(COUNT_SQL);
+        key.update(param);
+        return key;
+    }
+
+    @Test
+    void testInvalidate() throws Throwable {
+        CountCache countCache = new CountCache(16, 0);
+        AtomicInteger loads = new AtomicInteger();
+        assertThat(countCache.get(key(1), COUNT_SQL, loads::incrementAndGet)).isEqualTo(1);
+        assertThat(countCache.get(key(1), COUNT_SQL, loads::incrementAndGet)).isEqualTo(1);
+        assertThat(countCache.get(key(2), COUNT_SQL, loads::incrementAndGet)).isEqualTo(2);
+        countCache.invalidate("update dept set name = ? where id = ?");
+        assertThat(countCache.get(key(1), COUNT_SQL, loads::incrementAndGet)).isEqualTo(1);
+        countCache.invalidate("INSERT INTO `role` (id, name) VALUES (?, ?)");
+        assertThat(countCache.get(key(1), COUNT_SQL, loads::incrementAndGet)).isEqualTo(3);
+        countCache.invalidate("delete from test.USER where id = ?");
+        assertThat(countCache.get(key(1), COUNT_SQL, loads::incrementAndGet)).isEqualTo(4);
+    }
+
+    @Test
+    void testPendingWrite() throws Throwable {
+        CountCache countCache = new CountCache(16, 0);
+        AtomicInteger loads = new AtomicInteger();
+        String write = "update user set age = ? where id = ?";
+        countCache.beginWrite(write);
+        assertThat(countCache.get(key(1), COUNT_SQL, loads::incrementAndGet)).isEqualTo(1);
+        // 写语句未结束, 结果不缓存
+        assertThat(countCache.get(key(1), COUNT_SQL, loads::incrementAndGet)).isEqualTo(2);
+        countCache.endWrite(write);
+        assertThat(countCache.get(key(1), COUNT_SQL, loads::incrementAndGet)).isEqualTo(3);
+        assertThat(countCache.get(key(1), COUNT_SQL, loads::incrementAndGet)).isEqualTo(3);
+    }
+
+    @Test
+    void testWriteDuringLoad() throws Throwable {
+        CountCache countCache = new CountCache(16, 0);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        String write = "insert into user (id, age) values (?, ?)";
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Long> stale = executor.submit(() -> {
+                try {
+                    return countCache.get(key(1), COUNT_SQL, () -> {
+                        // 读到写入提交前的数据
+                        long count = loads.incrementAndGet();
+                        loading.countDown();
+                        written.await();
+                        return count;
+                    });
+                } catch (Throwable t) {
+                    throw new IllegalStateException(t);
+                }
+            });
+            loading.await();
+            countCache.beginWrite(write);
+            countCache.endWrite(write);
+            written.countDown();
+            assertThat(stale.get()).isEqualTo(1L);
+            assertThat(countCache.get(key(1), COUNT_SQL, loads::incrementAndGet)).isEqualTo(2);
+            assertThat(countCache.get(key(1), COUNT_SQL, loads::incrementAndGet)).isEqualTo(2);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testSingleFlight() throws Exception {
+        CountCache countCache = new CountCache(16, 0);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        return countCache.get(key(1), COUNT_SQL, () -> {
+                            loads.incrementAndGet();
+                            latch.await();
+                            return 100L;
+                        });
+                    } catch (Throwable t) {
+                        throw new IllegalStateException(t);
+                    }
+                }));
+            }
+            Thread.sleep(200);
+            latch.countDown();
+            for (Future<Long> future : futures) {
+                assertThat(future.get()).isEqualTo(100L);
+            }
+            assertThat(loads.get()).isEqualTo(1);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.baomidou.mybatisplus.extension.plugins.pagination;
 
 import com.baomidou.mybatisplus.annotation.DbType;
+import com.baomidou.mybatisplus.core.exceptions.MybatisPlusException;
+import com.baomidou.mybatisplus.core.metadata.OrderItem;
+import com.baomidou.mybatisplus.core.parser.SqlInfo;
+import com.baomidou.mybatisplus.core.toolkit.support.LruCache;
 import com.baomidou.mybatisplus.extension.parsers.BlockAttackSqlParser;
 import com.baomidou.mybatisplus.extension.plugins.PaginationInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.pagination.dialects.DB2Dialect;
@@ -8,13 +12,24 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.dialects.MySqlDiale
 import com.baomidou.mybatisplus.extension.plugins.tenant.TenantSqlParser;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.Configuration;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Properties;
 
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
 
 /**
  * @author nieqiurong 2020/4/10.
@@ -91,4 +106,90 @@ class PaginationInterceptorTest {
         Assertions.assertEquals(10010L, metaObject.getValue("limit"));
     }
     
+    @Test
+    void testCountSqlCache() {
+        PaginationInterceptor paginationInterceptor = new PaginationInterceptor();
+        Properties properties = new Properties();
+        properties.setProperty("countSqlCacheSize", "8");
+        properties.setProperty("countSqlCacheStats", "true");
+        paginationInterceptor.setProperties(properties);
+        LruCache<String, SqlInfo> cache = paginationInterceptor.getCountSqlCache();
+        Assertions.assertEquals(8, cache.getMaximumSize());
+        Assertions.assertTrue(cache.isRecordStats());
+        paginationInterceptor.setCountSqlCacheSize(0);
+        Assertions.assertNull(paginationInterceptor.getCountSqlCache());
+    }
+
+    @Test
+    void testOrderBySqlCache() {
+        PaginationInterceptor paginationInterceptor = new PaginationInterceptor();
+        Page<Object> page = new Page<>();
+        page.addOrder(OrderItem.desc("id"));
+        String sql = "select * from user where age > ?";
+        Assertions.assertEquals("SELECT * FROM user WHERE age > ? ORDER BY id DESC", paginationInterceptor.getOrderBySql(sql, page));
+        Assertions.assertEquals(1, paginationInterceptor.getOrderBySqlCache().size());
+        Assertions.assertEquals("SELECT * FROM user WHERE age > ? ORDER BY id DESC", paginationInterceptor.getOrderBySql(sql, page));
+        Assertions.assertEquals(1, paginationInterceptor.getOrderBySqlCache().size());
+        page.addOrder(OrderItem.asc("name"));
+        Assertions.assertEquals("SELECT * FROM user WHERE age > ? ORDER BY id DESC, name ASC", paginationInterceptor.getOrderBySql(sql, page));
+        Assertions.assertEquals(2, paginationInterceptor.getOrderBySqlCache().size());
+    }
+
+    @Test
+    void testDbTypeCacheByUrl() throws SQLException {
+        ExposedInterceptor interceptor = new ExposedInterceptor();
+        // 同一个(动态)数据源路由到不同类型的数据库
+        Assertions.assertEquals(DbType.MYSQL, interceptor.dbType(connection("jdbc:mysql://localhost:3306/test")));
+        Assertions.assertEquals(DbType.POSTGRE_SQL, interceptor.dbType(connection("jdbc:postgresql://localhost:5432/test")));
+        Assertions.assertEquals(DbType.MYSQL, interceptor.dbType(connection("jdbc:mysql://localhost:3306/test")));
+    }
+
+    @Test
+    void testKeysetSqlWithAlias() {
+        ExposedInterceptor interceptor = new ExposedInterceptor();
+        KeysetPage<Object> page = new KeysetPage<>(10, "a", 1L);
+        // 排序别名替换为对应字段
+        Assertions.assertEquals("SELECT id, name AS n FROM user WHERE (age > ?) AND (name < ? OR name = ? AND id > ?) ORDER BY n DESC, id",
+            interceptor.keysetSql("SELECT id, name AS n FROM user WHERE age > ? ORDER BY n DESC, id", page));
+        Assertions.assertEquals("SELECT id, age + 1 AS a FROM user WHERE (age + 1 > ? OR age + 1 = ? AND id > ?) ORDER BY a, id",
+            interceptor.keysetSql("SELECT id, age + 1 AS a FROM user ORDER BY a, id", page));
+        Assertions.assertThrows(MybatisPlusException.class, () -> interceptor.keysetSql("SELECT id, name FROM user ORDER BY 2, id", page));
+    }
+
+    @Test
+    void testConcurrentCountDataSource() throws SQLException {
+        ExposedInterceptor interceptor = new ExposedInterceptor();
+        Assertions.assertTrue(interceptor.supportsConcurrentCount(mock(DataSource.class)));
+        // 动态数据源在线程池中拿不到调用线程的路由键
+        Assertions.assertFalse(interceptor.supportsConcurrentCount(new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return null;
+            }
+        }));
+    }
+
+    private static Connection connection(String url) throws SQLException {
+        Connection connection = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getURL()).thenReturn(url);
+        return connection;
+    }
+
+    private static class ExposedInterceptor extends PaginationInterceptor {
+
+        DbType dbType(Connection connection) throws SQLException {
+            return findDbType(null, connection);
+        }
+
+        @Override
+        protected boolean supportsConcurrentCount(DataSource dataSource) throws SQLException {
+            return super.supportsConcurrentCount(dataSource);
+        }
+
+        String keysetSql(String sql, KeysetPage<?> page) {
+            return buildKeysetSql(sql, page, new Configuration(), new ArrayList<>(), new HashMap<>());
+        }
+    }
 }
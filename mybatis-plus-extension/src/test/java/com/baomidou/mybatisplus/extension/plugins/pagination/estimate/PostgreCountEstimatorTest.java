@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.extension.plugins.pagination.estimate;
+
+import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @since 3.3.2
+ */
+class PostgreCountEstimatorTest {
+
+    private final PostgreCountEstimator estimator = new PostgreCountEstimator();
+
+    @Test
+    void estimate() throws SQLException {
+        Connection connection = connection(true);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getString(1)).thenReturn("[{\"Plan\": {\"Node Type\": \"Seq Scan\", \"Plan Rows\": 1200}}]");
+        Assertions.assertEquals(1200L, estimator.estimate("select * from user", connection, mock(ParameterHandler.class)));
+        verify(connection, never()).setSavepoint();
+    }
+
+    @Test
+    void estimateInTransaction() throws SQLException {
+        Connection connection = connection(false);
+        Savepoint savepoint = mock(Savepoint.class);
+        when(connection.setSavepoint()).thenReturn(savepoint);
+        SQLException error = new SQLException("syntax error");
+        when(connection.prepareStatement(anyString())).thenThrow(error);
+        // 失败时回滚到保存点, 事务可以继续执行精确 COUNT
+        Assertions.assertSame(error, Assertions.assertThrows(SQLException.class,
+            () -> estimator.estimate("select * from user", connection, mock(ParameterHandler.class))));
+        verify(connection).rollback(savepoint);
+        verify(connection, never()).releaseSavepoint(savepoint);
+    }
+
+    private static Connection connection(boolean autoCommit) throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.getAutoCommit()).thenReturn(autoCommit);
+        return connection;
+    }
+}
@@ -0,0 +1,84 @@
+package com.baomidou.mybatisplus.extension.plugins.pagination.optimize;
+
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.DialectModel;
+import com.baomidou.mybatisplus.extension.plugins.pagination.dialects.MySqlDialect;
+import com.baomidou.mybatisplus.extension.plugins.pagination.dialects.OracleDialect;
+import com.baomidou.mybatisplus.extension.plugins.pagination.dialects.SQLServer2005Dialect;
+import lombok.Data;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @since 3.3.2
+ */
+class DeferredJoinOptimizeTest {
+
+    private final DeferredJoinOptimize optimize = new DeferredJoinOptimize();
+
+    @BeforeAll
+    static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), DjUser.class);
+    }
+
+    @Test
+    void buildPaginationSql() {
+        assertThat(optimize.buildPaginationSql("SELECT id, name FROM dj_user WHERE age > ? ORDER BY name",
+            new MySqlDialect(), 100, 10).getDialectSql())
+            .isEqualTo("SELECT id, name FROM dj_user JOIN (SELECT id AS mp_dj_key FROM dj_user WHERE age > ? ORDER BY name LIMIT ?,?) mp_dj" +
+                " ON dj_user.id = mp_dj.mp_dj_key ORDER BY name");
+    }
+
+    @Test
+    void orderByAlias() {
+        // 内层只查询主键, 别名替换为对应字段
+        assertThat(optimize.buildPaginationSql("SELECT id, name AS n FROM dj_user ORDER BY n DESC",
+            new MySqlDialect(), 100, 10).getDialectSql())
+            .isEqualTo("SELECT id, name AS n FROM dj_user JOIN (SELECT id AS mp_dj_key FROM dj_user ORDER BY name DESC LIMIT ?,?) mp_dj" +
+                " ON dj_user.id = mp_dj.mp_dj_key ORDER BY n DESC");
+        // 别名对应表达式或按序号排序, 不优化
+        assertThat(optimize.buildPaginationSql("SELECT id, age + 1 AS a FROM dj_user ORDER BY a", new MySqlDialect(), 100, 10)).isNull();
+        assertThat(optimize.buildPaginationSql("SELECT id, name FROM dj_user ORDER BY 2", new MySqlDialect(), 100, 10)).isNull();
+    }
+
+    @Test
+    void unsupportedDialect() {
+        String sql = "SELECT id, name FROM dj_user ORDER BY name";
+        assertThat(optimize.buildPaginationSql(sql, new OracleDialect(), 100, 10)).isNull();
+        assertThat(optimize.buildPaginationSql(sql, new SQLServer2005Dialect(), 100, 10)).isNull();
+        assertThat(optimize.buildPaginationSql(sql, new MySqlDialect(), 100, 10)).isNotNull();
+    }
+
+    @Test
+    void lateTableInfo() {
+        String sql = "SELECT id, name FROM dj_late ORDER BY name";
+        assertThat(optimize.buildPaginationSql(sql, new MySqlDialect(), 100, 10)).isNull();
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), DjLate.class);
+        DialectModel model = optimize.buildPaginationSql(sql, new MySqlDialect(), 100, 10);
+        assertThat(model).isNotNull();
+        assertThat(model.getDialectSql()).contains("JOIN (SELECT id AS mp_dj_key FROM dj_late");
+    }
+
+    @Data
+    @TableName("dj_user")
+    private static class DjUser {
+        @TableId
+        private Long id;
+        private String name;
+        private Integer age;
+    }
+
+    @Data
+    @TableName("dj_late")
+    private static class DjLate {
+        @TableId
+        private Long id;
+        private String name;
+    }
+}
@@ -47,6 +47,31 @@ public class TenantSqlParserTest {
             "select * from user where (id = 1 or id in (select id from user where user.t_id = 1)) and user.t_id = 1");
     }
 
+    @Test
+    public void bindTenantIdTemplate() {
+        TenantSqlParser bindParser = new TenantSqlParser(parser.getTenantHandler()).setBindTenantId(true);
+        TenantSqlParser.SqlTemplate template = bindParser.getTemplateCache()
+            .computeIfAbsent("select * from user where id = ? and name = 'a?b'", bindParser::buildTemplate);
+        assertThat(template.getSql().toLowerCase()).isEqualTo("select * from user where id = ? and name = 'a?b' and user.t_id = ?");
+        assertThat(template.getParamIndexes()).containsExactly(1);
+
+        template = bindParser.buildTemplate("update user set name = ? where id = ?");
+        assertThat(template.getSql().toLowerCase()).isEqualTo("update user set name = ? where user.t_id = ? and id = ?");
+        assertThat(template.getParamIndexes()).containsExactly(1);
+
+        template = bindParser.buildTemplate("select * from user u left join role r on r.id = u.rid where u.id in (select uid from log where id > ?)");
+        assertThat(template.getSql().toLowerCase()).isEqualTo("select * from user u left join role r on r.id = u.rid and r.t_id = ? " +
+            "where u.id in (select uid from log where id > ? and log.t_id = ?) and u.t_id = ?");
+        assertThat(template.getParamIndexes()).containsExactly(0, 2, 3);
+        assertThat(bindParser.getTenantHandler().getTenantIdValue()).isEqualTo(1L);
+    }
+
+    @Test
+    public void templateCacheDisabled() {
+        TenantSqlParser bindParser = new TenantSqlParser(parser.getTenantHandler()).setBindTenantId(true).setTemplateCacheSize(0);
+        assertThat(bindParser.getTemplateCache()).isNull();
+    }
+
     private void select(String sql, String target) throws JSQLParserException {
         Statements statement = CCJSqlParserUtil.parseStatements(sql);
         Select select = (Select) statement.getStatements().get(0);
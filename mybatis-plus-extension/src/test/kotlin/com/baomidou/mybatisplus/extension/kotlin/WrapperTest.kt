@@ -19,6 +19,7 @@ import com.baomidou.mybatisplus.core.MybatisConfiguration
 import com.baomidou.mybatisplus.core.conditions.ISqlSegment
 import com.baomidou.mybatisplus.core.metadata.TableInfoHelper
 import org.apache.ibatis.builder.MapperBuilderAssistant
+import org.junit.jupiter.api.Assertions.assertEquals
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 
@@ -45,4 +46,18 @@ class WrapperTest {
         logSqlSegment("测试2.1 LambdaKt", KtUpdateWrapper(User()).eq(User::name, "sss").eq(User::roleId, "sss2"))
         logSqlSegment("测试2.2 LambdaKt", KtUpdateWrapper(User::class.java).eq(User::name, "sss").eq(User::roleId, "sss2"))
     }
+
+    @Test
+    fun testClone() {
+        val query = KtQueryWrapper(User::class.java).select(User::id, User::name).eq(User::roleId, 1)
+        val queryClone = query.clone().select(User::id)
+        assertEquals("id,username AS name", query.sqlSelect)
+        assertEquals("id", queryClone.sqlSelect)
+
+        val update = KtUpdateWrapper(User::class.java).set(User::name, "a").eq(User::id, 1)
+        val updateClone = update.clone().set(User::roleId, 2)
+        assertEquals("username=#{ew.paramNameValuePairs.MPGENVAL1},role_id=#{ew.paramNameValuePairs.MPGENVAL3}", updateClone.sqlSet)
+        assertEquals("username=#{ew.paramNameValuePairs.MPGENVAL1}", update.sqlSet)
+        assertEquals("(id = ?)", updateClone.targetSql)
+    }
 }
@@ -20,11 +20,14 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.core.toolkit.Assert;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.baomidou.mybatisplus.extension.plugins.PaginationInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.test.h2.entity.H2Student;
 import com.baomidou.mybatisplus.test.h2.enums.GenderEnum;
 import com.baomidou.mybatisplus.test.h2.enums.GradeEnum;
 import com.baomidou.mybatisplus.test.h2.mapper.H2StudentMapper;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
@@ -50,6 +53,8 @@ class H2StudentMapperTest extends BaseTest {
 
     @Resource
     protected H2StudentMapper studentMapper;
+    @Resource
+    protected SqlSessionFactory sqlSessionFactory;
 
     @Test
     @Order(1)
@@ -93,6 +98,24 @@ class H2StudentMapperTest extends BaseTest {
         }
     }
 
+    @Test
+    void estimateCountTest() {
+        PaginationInterceptor interceptor = (PaginationInterceptor) sqlSessionFactory.getConfiguration().getInterceptors()
+            .stream().filter(i -> i instanceof PaginationInterceptor).findFirst().orElseThrow(IllegalStateException::new);
+        try {
+            interceptor.setEstimateCountThreshold(1L);
+            IPage<H2Student> page = studentMapper.selectPage(new Page<>(1, 2), null);
+            Assertions.assertTrue(page.isTotalEstimated());
+            Assertions.assertTrue(page.getTotal() > 0);
+            // 带条件的查询 H2 无法估算, 使用精确 COUNT
+            page = studentMapper.selectPage(new Page<>(1, 2), Wrappers.<H2Student>query().eq("name", "Tom"));
+            Assertions.assertFalse(page.isTotalEstimated());
+            Assertions.assertEquals(1, page.getTotal());
+        } finally {
+            interceptor.setEstimateCountThreshold(0L);
+        }
+    }
+
     /**
      * group 或者 order 测试
      */
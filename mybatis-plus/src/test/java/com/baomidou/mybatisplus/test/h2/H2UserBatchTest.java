@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2011-2019, hubin (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.test.h2;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.enums.SqlMethod;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.baomidou.mybatisplus.extension.toolkit.SqlHelper;
+import com.baomidou.mybatisplus.test.h2.config.MybatisPlusConfigBatch;
+import com.baomidou.mybatisplus.test.h2.entity.H2User;
+import com.baomidou.mybatisplus.test.h2.entity.H2UserStrategy;
+import com.baomidou.mybatisplus.test.h2.enums.AgeEnum;
+import com.baomidou.mybatisplus.test.h2.mapper.H2UserMapper;
+import com.baomidou.mybatisplus.test.h2.mapper.H2UserStrategyMapper;
+import com.baomidou.mybatisplus.test.h2.service.IH2UserService;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.binding.MapperMethod;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 批量相关可选优化测试, 使用单独开启优化选项的配置
+ *
+ * @since 3.3.2
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(locations = {"classpath:h2/spring-batch-h2.xml"})
+class H2UserBatchTest extends BaseTest {
+
+    @Autowired
+    private IH2UserService userService;
+
+    @Autowired
+    private H2UserMapper userMapper;
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Test
+    void testInListPadding() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            H2User user = new H2User("inListPadding" + i, AgeEnum.ONE);
+            userService.save(user);
+            ids.add(user.getTestId());
+        }
+        // 3 个参数补齐为 8 个
+        BoundSql boundSql = sqlSessionFactory.getConfiguration().getMappedStatement(H2UserMapper.class.getName() + ".selectBatchIds")
+            .getBoundSql(Collections.singletonMap(Constants.COLLECTION, ids));
+        Assertions.assertEquals(8, boundSql.getParameterMappings().size());
+        Assertions.assertEquals(3, userMapper.selectBatchIds(ids).size());
+        LambdaQueryWrapper<H2User> wrapper = Wrappers.lambdaQuery(H2User.class).in(H2User::getTestId, ids);
+        // 补齐的位置重复最后一个参数占位符
+        Assertions.assertEquals(8, wrapper.getSqlSegment().split("#\\{").length - 1);
+        Assertions.assertEquals(3, wrapper.getParamNameValuePairs().size());
+        Assertions.assertEquals(3, userMapper.selectCount(wrapper));
+        Assertions.assertTrue(userService.removeByIds(ids));
+    }
+
+    @Test
+    void testSaveBatchMultiRow() {
+        Assertions.assertTrue(sqlSessionFactory.getConfiguration().hasStatement(H2UserMapper.class.getName() + "."
+            + SqlMethod.INSERT_MULTI_ROW.getMethod()));
+        List<H2User> users = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            users.add(i % 2 == 0 ? new H2User("multiRow" + i, AgeEnum.ONE) : new H2User("multiRow" + i));
+        }
+        MybatisPlusConfigBatch.UpdateRecorder.clear();
+        Assertions.assertTrue(userService.saveBatch(users, 3));
+        // 按插入字段分组, 每组按 batchSize 拆分: 有 age 的 4 行拆为 3 + 1, 无 age 的 3 行
+        String multiRow = H2UserMapper.class.getName() + "." + SqlMethod.INSERT_MULTI_ROW.getMethod();
+        Assertions.assertEquals(Arrays.asList(multiRow, multiRow, multiRow), MybatisPlusConfigBatch.UpdateRecorder.STATEMENTS);
+        Assertions.assertEquals(Arrays.asList(3, 1, 3), MybatisPlusConfigBatch.UpdateRecorder.PARAMETERS.stream()
+            .map(p -> ((List<?>) ((Map<?, ?>) p).get("list")).size()).collect(Collectors.toList()));
+        List<H2User> list = userService.list(new QueryWrapper<H2User>().likeRight("name", "multiRow").orderByAsc("name"));
+        Assertions.assertEquals(7, list.size());
+        for (int i = 0; i < 7; i++) {
+            H2User user = users.get(i);
+            H2User row = list.get(i);
+            Assertions.assertNotNull(user.getTestId());
+            Assertions.assertEquals(user.getTestId(), row.getTestId());
+            Assertions.assertEquals("multiRow" + i, row.getName());
+            Assertions.assertEquals(i % 2 == 0 ? AgeEnum.ONE : null, row.getAge());
+            Assertions.assertEquals(Integer.valueOf(0), row.getDeleted());
+        }
+        Assertions.assertTrue(userService.removeByIds(users.stream().map(H2User::getTestId).collect(Collectors.toList())));
+
+        // insertFill 填充的字段同样写入
+        List<H2UserStrategy> strategies = Arrays.asList(new H2UserStrategy().setName("multiRowFill0"),
+            new H2UserStrategy().setName("multiRowFill1").setTestType(5));
+        MybatisPlusConfigBatch.UpdateRecorder.clear();
+        Assertions.assertTrue(new ServiceImpl<H2UserStrategyMapper, H2UserStrategy>() {
+        }.saveBatch(strategies));
+        Assertions.assertEquals(Collections.singletonList(H2UserStrategyMapper.class.getName() + "."
+            + SqlMethod.INSERT_MULTI_ROW.getMethod()), MybatisPlusConfigBatch.UpdateRecorder.STATEMENTS);
+        List<Long> strategyIds = strategies.stream().map(H2UserStrategy::getTestId).collect(Collectors.toList());
+        Assertions.assertEquals(Arrays.asList(3, 5), userService.listByIds(strategyIds).stream()
+            .sorted(Comparator.comparing(H2User::getName)).map(H2User::getTestType).collect(Collectors.toList()));
+        Assertions.assertTrue(userService.removeByIds(strategyIds));
+    }
+
+    @Test
+    void testBatchGroupBySql() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            H2User user = new H2User("groupBatch" + i, AgeEnum.ONE);
+            userService.save(user);
+            ids.add(user.getTestId());
+        }
+        try (SqlSession sqlSession = SqlHelper.sqlSessionBatch(H2User.class)) {
+            H2UserMapper mapper = sqlSession.getMapper(H2UserMapper.class);
+            mapper.updateById(new H2User(ids.get(0), "groupBatchA"));
+            mapper.updateById(new H2User(ids.get(1), AgeEnum.TWO));
+            mapper.updateById(new H2User(ids.get(2), "groupBatchA"));
+            mapper.updateById(new H2User(ids.get(0), AgeEnum.TWO));
+            List<BatchResult> results = sqlSession.flushStatements();
+            Assertions.assertEquals(2, results.size());
+            Assertions.assertEquals(2, results.get(0).getParameterObjects().size());
+            Assertions.assertEquals(2, results.get(1).getParameterObjects().size());
+            sqlSession.commit();
+        }
+        Assertions.assertEquals(2, userService.count(new QueryWrapper<H2User>().eq("name", "groupBatchA")));
+        Assertions.assertEquals(AgeEnum.TWO, userService.getById(ids.get(0)).getAge());
+        Assertions.assertEquals(AgeEnum.TWO, userService.getById(ids.get(1)).getAge());
+
+        try (SqlSession sqlSession = SqlHelper.sqlSessionBatch(H2User.class)) {
+            H2UserMapper mapper = sqlSession.getMapper(H2UserMapper.class);
+            // 同一行先后更新为不同的值, 不能提前执行
+            mapper.updateById(new H2User(ids.get(0), "groupBatchB"));
+            mapper.updateById(new H2User(ids.get(0), AgeEnum.THREE));
+            mapper.updateById(new H2User(ids.get(0), "groupBatchC"));
+            // 不同的 MappedStatement 之间不能越过
+            mapper.updateById(new H2User(ids.get(1), "groupBatchB"));
+            mapper.deleteById(ids.get(2));
+            mapper.updateById(new H2User(ids.get(2), "groupBatchB"));
+            List<BatchResult> results = sqlSession.flushStatements();
+            Assertions.assertEquals(Arrays.asList(1, 1, 2, 1, 1), results.stream()
+                .map(r -> r.getParameterObjects().size()).collect(Collectors.toList()));
+            sqlSession.commit();
+        }
+        Assertions.assertEquals("groupBatchC", userService.getById(ids.get(0)).getName());
+        Assertions.assertEquals(AgeEnum.THREE, userService.getById(ids.get(0)).getAge());
+        Assertions.assertEquals("groupBatchB", userService.getById(ids.get(1)).getName());
+        Assertions.assertNull(userService.getById(ids.get(2)));
+        Assertions.assertTrue(userService.removeByIds(ids));
+    }
+
+    @Test
+    void testUpdateBatchGroupByColumns() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            H2User user = new H2User("groupUpdate" + i, AgeEnum.ONE);
+            userService.save(user);
+            ids.add(user.getTestId());
+        }
+        MybatisPlusConfigBatch.UpdateRecorder.clear();
+        Assertions.assertTrue(userService.updateBatchById(Arrays.asList(new H2User(ids.get(0), "groupUpdateA"),
+            new H2User(ids.get(1), AgeEnum.TWO), new H2User(ids.get(2), "groupUpdateA"), new H2User(ids.get(3), AgeEnum.TWO)), 3));
+        // set 字段一致的行连续执行
+        Assertions.assertEquals(Arrays.asList(ids.get(0), ids.get(2), ids.get(1), ids.get(3)),
+            MybatisPlusConfigBatch.UpdateRecorder.PARAMETERS.stream()
+                .map(p -> ((H2User) ((MapperMethod.ParamMap<?>) p).get(Constants.ENTITY)).getTestId())
+                .collect(Collectors.toList()));
+        Assertions.assertEquals(2, userService.count(new QueryWrapper<H2User>().eq("name", "groupUpdateA").eq("age", AgeEnum.ONE)));
+        Assertions.assertEquals(2, userService.count(new QueryWrapper<H2User>().likeRight("name", "groupUpdate").eq("age", AgeEnum.TWO)));
+
+        // 主键重复时按原顺序执行, 分组会把最后一次更新提前
+        MybatisPlusConfigBatch.UpdateRecorder.clear();
+        Assertions.assertTrue(userService.updateBatchById(Arrays.asList(new H2User(ids.get(1), "groupUpdateB"),
+            new H2User(ids.get(0), "groupUpdateC", AgeEnum.THREE, 1), new H2User(ids.get(0), "groupUpdateD"))));
+        Assertions.assertEquals(Arrays.asList(ids.get(1), ids.get(0), ids.get(0)),
+            MybatisPlusConfigBatch.UpdateRecorder.PARAMETERS.stream()
+                .map(p -> ((H2User) ((MapperMethod.ParamMap<?>) p).get(Constants.ENTITY)).getTestId())
+                .collect(Collectors.toList()));
+        H2User updated = userService.getById(ids.get(0));
+        Assertions.assertEquals("groupUpdateD", updated.getName());
+        Assertions.assertEquals(AgeEnum.THREE, updated.getAge());
+        Assertions.assertTrue(userService.removeByIds(ids));
+    }
+}
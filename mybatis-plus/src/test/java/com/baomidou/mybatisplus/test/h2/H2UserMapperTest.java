@@ -15,26 +15,44 @@
  */
 package com.baomidou.mybatisplus.test.h2;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.core.toolkit.CollectionUtils;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.baomidou.mybatisplus.extension.plugins.PaginationInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.pagination.CountCache;
+import com.baomidou.mybatisplus.extension.plugins.pagination.KeysetPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.test.h2.entity.H2User;
 import com.baomidou.mybatisplus.test.h2.entity.SuperEntity;
 import com.baomidou.mybatisplus.test.h2.enums.AgeEnum;
 import com.baomidou.mybatisplus.test.h2.mapper.H2UserMapper;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.defaults.DefaultSqlSession;
+import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import javax.annotation.Resource;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 import static java.util.stream.Collectors.toList;
 
@@ -51,6 +69,8 @@ class H2UserMapperTest extends BaseTest {
 
     @Resource
     protected H2UserMapper userMapper;
+    @Resource
+    protected SqlSessionFactory sqlSessionFactory;
 
     @Test
     @Order(1)
@@ -208,4 +228,150 @@ class H2UserMapperTest extends BaseTest {
         userMapper.testPage1(new H2User(), page);
         userMapper.testPage2(page, new H2User());
     }
+
+    @Test
+    void testKeysetPage() {
+        LambdaQueryWrapper<H2User> wrapper = new QueryWrapper<H2User>().lambda().orderByDesc(H2User::getTestId);
+        List<Long> expected = userMapper.selectList(wrapper).stream().map(SuperEntity::getTestId).collect(toList());
+        List<Long> actual = new ArrayList<>();
+        KeysetPage<H2User> page = new KeysetPage<>(3);
+        while (true) {
+            userMapper.selectPage(page, wrapper);
+            page.getRecords().forEach(u -> actual.add(u.getTestId()));
+            if (!page.hasNext()) {
+                break;
+            }
+            page.next(SuperEntity::getTestId);
+        }
+        Assertions.assertFalse(expected.isEmpty());
+        Assertions.assertEquals(expected, actual);
+    }
+
+    @Test
+    void testConcurrentCount() throws IOException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertPageTotal(null, interceptor -> interceptor.setCountExecutor(executor),
+                interceptor -> interceptor.setCountExecutor(null), expected -> {
+                    IPage<H2User> actual = userMapper.selectPage(new Page<>(1, 3), null);
+                    Assertions.assertTrue(actual.getTotal() > 0);
+                    Assertions.assertEquals(expected.getTotal(), actual.getTotal());
+                    Assertions.assertEquals(expected.getRecords().size(), actual.getRecords().size());
+                    // 总数为 0
+                    IPage<H2User> empty = userMapper.selectPage(new Page<>(1, 3), new QueryWrapper<H2User>().lambda().eq(H2User::getTestId, -1L));
+                    Assertions.assertEquals(0, empty.getTotal());
+                    Assertions.assertTrue(empty.getRecords().isEmpty());
+                });
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 开启分页插件配置后执行分页断言, 并验证 ResultHandler 与游标查询的总数与未开启时一致, 结束后恢复配置
+     *
+     * @param wrapper    查询条件
+     * @param enable     开启配置
+     * @param disable    恢复配置
+     * @param pageAssert 分页断言, 参数为未开启配置时的第一页(每页 3 条)
+     */
+    private void assertPageTotal(Wrapper<H2User> wrapper, Consumer<PaginationInterceptor> enable,
+                                 Consumer<PaginationInterceptor> disable, Consumer<IPage<H2User>> pageAssert) throws IOException {
+        PaginationInterceptor interceptor = paginationInterceptor();
+        IPage<H2User> expected = userMapper.selectPage(new Page<>(1, 3), wrapper);
+        enable.accept(interceptor);
+        try {
+            pageAssert.accept(expected);
+            // ResultHandler 与游标查询 (REUSE 执行器会复用同一 SQL 的 Statement, 分别使用独立的会话)
+            String statement = H2UserMapper.class.getName() + ".selectPage";
+            Page<H2User> handlerPage = new Page<>(1, 3);
+            List<Object> handled = new ArrayList<>();
+            try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+                sqlSession.select(statement, pageParam(handlerPage, wrapper), context -> handled.add(context.getResultObject()));
+            }
+            Assertions.assertEquals(expected.getTotal(), handlerPage.getTotal());
+            Assertions.assertEquals(3, handled.size());
+            Page<H2User> cursorPage = new Page<>(1, 3);
+            int rows = 0;
+            try (SqlSession sqlSession = sqlSessionFactory.openSession();
+                 Cursor<H2User> cursor = sqlSession.selectCursor(statement, pageParam(cursorPage, wrapper))) {
+                for (H2User ignored : cursor) {
+                    rows++;
+                }
+            }
+            Assertions.assertEquals(expected.getTotal(), cursorPage.getTotal());
+            Assertions.assertEquals(3, rows);
+        } finally {
+            disable.accept(interceptor);
+        }
+    }
+
+    private PaginationInterceptor paginationInterceptor() {
+        return (PaginationInterceptor) sqlSessionFactory.getConfiguration().getInterceptors()
+            .stream().filter(i -> i instanceof PaginationInterceptor).findFirst().orElseThrow(IllegalStateException::new);
+    }
+
+    private Map<String, Object> pageParam(IPage<H2User> page, Wrapper<H2User> wrapper) {
+        Map<String, Object> param = new HashMap<>();
+        param.put("page", page);
+        param.put(Constants.WRAPPER, wrapper);
+        return param;
+    }
+
+    @Test
+    void testCountCache() {
+        PaginationInterceptor interceptor = paginationInterceptor();
+        LambdaQueryWrapper<H2User> wrapper = new QueryWrapper<H2User>().lambda().likeRight(H2User::getName, "countCache");
+        Configuration configuration = sqlSessionFactory.getConfiguration();
+        List<Long> ids = new ArrayList<>();
+        interceptor.setCountCache(new CountCache(16, 0));
+        try {
+            for (ExecutorType executorType : new ExecutorType[]{ExecutorType.SIMPLE, ExecutorType.BATCH}) {
+                long total = userMapper.selectPage(new Page<>(1, 3), wrapper).getTotal();
+                // 不经过 Spring 事务的非自动提交会话
+                Transaction transaction = new JdbcTransaction(configuration.getEnvironment().getDataSource(), null, false);
+                try (SqlSession sqlSession = new DefaultSqlSession(configuration, configuration.newExecutor(transaction, executorType), false)) {
+                    H2User user = new H2User("countCache" + executorType, AgeEnum.ONE);
+                    sqlSession.getMapper(H2UserMapper.class).insert(user);
+                    ids.add(user.getTestId());
+                    // 提交前其他连接读到的是旧数据, 不能缓存
+                    Assertions.assertEquals(total, userMapper.selectPage(new Page<>(1, 3), wrapper).getTotal());
+                    sqlSession.commit();
+                }
+                Assertions.assertEquals(total + 1, userMapper.selectPage(new Page<>(1, 3), wrapper).getTotal());
+                Assertions.assertEquals(total + 1, userMapper.selectPage(new Page<>(1, 3), wrapper).getTotal());
+            }
+        } finally {
+            interceptor.setCountCache(null);
+            userMapper.deleteBatchIds(ids);
+        }
+    }
+
+    @Test
+    void testDeferredJoinPage() {
+        LambdaQueryWrapper<H2User> wrapper = new QueryWrapper<H2User>().lambda().ge(H2User::getAge, AgeEnum.ONE).orderByAsc(H2User::getName);
+        IPage<H2User> expected = userMapper.selectPage(new Page<>(2, 3), wrapper);
+        IPage<H2User> actual = userMapper.selectPage(new Page<H2User>(2, 3).setDeferredJoin(true), wrapper);
+        Assertions.assertFalse(expected.getRecords().isEmpty());
+        Assertions.assertEquals(expected.getTotal(), actual.getTotal());
+        Assertions.assertEquals(expected.getRecords().stream().map(SuperEntity::getTestId).collect(toList()),
+            actual.getRecords().stream().map(SuperEntity::getTestId).collect(toList()));
+    }
+
+    @Test
+    void testOptimisticCount() throws IOException {
+        LambdaQueryWrapper<H2User> wrapper = new QueryWrapper<H2User>().lambda().ge(H2User::getAge, AgeEnum.ONE);
+        assertPageTotal(wrapper, interceptor -> interceptor.setOptimisticCount(true),
+            interceptor -> interceptor.setOptimisticCount(false), expected -> {
+                // 数据超过一页, 丢弃多取的一条并执行 COUNT
+                IPage<H2User> full = userMapper.selectPage(new Page<>(1, 3), wrapper);
+                Assertions.assertTrue(expected.getTotal() > 3);
+                Assertions.assertEquals(expected.getTotal(), full.getTotal());
+                Assertions.assertEquals(3, full.getRecords().size());
+                // 数据不足一页, 记录数即为总数
+                IPage<H2User> single = userMapper.selectPage(new Page<>(1, expected.getTotal() + 5), wrapper);
+                Assertions.assertEquals(expected.getTotal(), single.getTotal());
+                Assertions.assertEquals(expected.getTotal(), single.getRecords().size());
+            });
+    }
 }
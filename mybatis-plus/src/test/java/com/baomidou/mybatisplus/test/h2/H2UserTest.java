@@ -15,19 +15,28 @@
  */
 package com.baomidou.mybatisplus.test.h2;
 
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryTemplate;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.baomidou.mybatisplus.core.exceptions.MybatisPlusException;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.toolkit.CollectionUtils;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.baomidou.mybatisplus.test.h2.entity.H2User;
 import com.baomidou.mybatisplus.test.h2.enums.AgeEnum;
 import com.baomidou.mybatisplus.test.h2.service.IH2UserService;
+import lombok.Data;
+import lombok.experimental.Accessors;
 import net.sf.jsqlparser.parser.CCJSqlParserUtil;
 import net.sf.jsqlparser.statement.select.Select;
+import org.apache.ibatis.session.SqlSessionFactory;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,6 +48,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
 /**
  * Mybatis Plus H2 Junit Test
@@ -54,6 +66,9 @@ class H2UserTest extends BaseTest {
     @Autowired
     protected IH2UserService userService;
 
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
     @Test
     @Order(1)
     void testInsertMy() {
@@ -305,6 +320,55 @@ class H2UserTest extends BaseTest {
         Assertions.assertEquals(userService.getById(1012L).getName(), "batch1012");
     }
 
+    @Test
+    @Order(23)
+    void testSaveOrUpdateBatchSameNewId() {
+        long id = 996102920L;
+        Assertions.assertTrue(userService.saveOrUpdateBatch(Arrays.asList(new H2User(id, "sameNewId"),
+            new H2User("sameNewIdOther"), new H2User(id, "sameNewIdA")), 2));
+        Assertions.assertEquals("sameNewIdA", userService.getById(id).getName());
+        Assertions.assertEquals(1, userService.count(new QueryWrapper<H2User>().eq("name", "sameNewIdOther")));
+        Assertions.assertTrue(userService.remove(new QueryWrapper<H2User>().likeRight("name", "sameNewId")));
+    }
+
+    @Test
+    @Order(23)
+    void testSaveOrUpdateBatchUnequalId() {
+        if (!sqlSessionFactory.getConfiguration().hasMapper(DecimalIdUserMapper.class)) {
+            sqlSessionFactory.getConfiguration().addMapper(DecimalIdUserMapper.class);
+        }
+        H2User exist = new H2User("unequalId");
+        userService.save(exist);
+        // 数据库返回的主键 1 与传入的 1.0 不相等
+        DecimalIdUser update = new DecimalIdUser().setTestId(new BigDecimal(exist.getTestId()).setScale(1)).setName("unequalIdA");
+        DecimalIdUser created = new DecimalIdUser().setTestId(new BigDecimal(996102922L)).setName("unequalIdNew");
+        Assertions.assertTrue(new ServiceImpl<DecimalIdUserMapper, DecimalIdUser>() {
+        }.saveOrUpdateBatch(Arrays.asList(update, created)));
+        Assertions.assertEquals("unequalIdA", userService.getById(exist.getTestId()).getName());
+        Assertions.assertEquals("unequalIdNew", userService.getById(996102922L).getName());
+        Assertions.assertTrue(userService.removeByIds(Arrays.asList(exist.getTestId(), 996102922L)));
+    }
+
+    @Test
+    @Order(23)
+    void testInsertOrUpdateBatch() {
+        H2User exist = new H2User("insertOrUpdate", AgeEnum.ONE);
+        userService.save(exist);
+        Integer version = userService.getById(exist.getTestId()).getVersion();
+        H2User created = new H2User(996102921L, "insertOrUpdateNew");
+        // 主键冲突时不更新逻辑删除字段与乐观锁字段
+        H2User update = new H2User(exist.getTestId(), "insertOrUpdateA");
+        update.setDeleted(1);
+        update.setVersion(99);
+        Assertions.assertTrue(userService.insertOrUpdateBatch(Arrays.asList(update, created)));
+        H2User updated = userService.getById(exist.getTestId());
+        Assertions.assertEquals("insertOrUpdateA", updated.getName());
+        Assertions.assertEquals(AgeEnum.ONE, updated.getAge());
+        Assertions.assertEquals(version, updated.getVersion());
+        Assertions.assertEquals("insertOrUpdateNew", userService.getById(created.getTestId()).getName());
+        Assertions.assertTrue(userService.removeByIds(Arrays.asList(exist.getTestId(), created.getTestId())));
+    }
+
     @Test
     @Order(23)
     void testSaveOrUpdateBatch() {
@@ -496,6 +560,46 @@ class H2UserTest extends BaseTest {
         Assertions.assertTrue(userService.update(lambdaUpdateWrapper.eq(H2User::getName, "小红")));
     }
 
+    @Test
+    @Order(21)
+    void testListByIdsInBatches() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            H2User user = new H2User("batchIds" + i, AgeEnum.ONE);
+            userService.save(user);
+            ids.add(0, user.getTestId());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<H2User> list = userService.listByIds(ids, 2, executor, true);
+            Assertions.assertEquals(ids, list.stream().map(H2User::getTestId).collect(Collectors.toList()));
+        } finally {
+            executor.shutdown();
+        }
+        Assertions.assertEquals(5, userService.listByIds(ids, 2).size());
+        Assertions.assertTrue(userService.removeByIds(ids));
+    }
+
+    @Test
+    @Order(21)
+    void testQueryTemplate() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            H2User user = new H2User("template" + i, i == 0 ? AgeEnum.TWO : AgeEnum.ONE);
+            userService.save(user);
+            ids.add(user.getTestId());
+        }
+        QueryTemplate<H2User> template = Wrappers.template(w -> w.likeRight(H2User::getName, QueryTemplate.param(1))
+            .eq(H2User::getAge, QueryTemplate.param(2)).orderByDesc(H2User::getTestId));
+        Wrapper<H2User> one = template.bind("template", AgeEnum.ONE);
+        Wrapper<H2User> two = template.bind("template", AgeEnum.TWO);
+        Assertions.assertEquals(one.getSqlSegment(), two.getSqlSegment());
+        Assertions.assertEquals(Arrays.asList(ids.get(2), ids.get(1)),
+            userService.list(one).stream().map(H2User::getTestId).collect(Collectors.toList()));
+        Assertions.assertEquals(1, userService.count(two));
+        Assertions.assertTrue(userService.removeByIds(ids));
+    }
+
     /**
      * 观察 {@link com.baomidou.mybatisplus.core.toolkit.LambdaUtils#resolve(SFunction)}
      */
@@ -513,4 +617,21 @@ class H2UserTest extends BaseTest {
             .eq(H2User::getPrice, 2)
             .getTargetSql();
     }
+
+    /**
+     * 主键类型为 BigDecimal 的 h2user
+     */
+    @Data
+    @Accessors(chain = true)
+    @TableName("h2user")
+    public static class DecimalIdUser {
+
+        @TableId
+        private BigDecimal testId;
+
+        private String name;
+    }
+
+    public interface DecimalIdUserMapper extends BaseMapper<DecimalIdUser> {
+    }
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2011-2020, baomidou (jobob@qq.com).
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * <p>
+ * https://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.baomidou.mybatisplus.test.h2.config;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.config.GlobalConfig;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 开启批量相关可选优化的配置, 其余与 {@link MybatisPlusConfig} 一致
+ *
+ * @since 3.3.2
+ */
+@Configuration
+public class MybatisPlusConfigBatch extends MybatisPlusConfig {
+
+    @Bean("mybatisSqlSession")
+    @Override
+    public SqlSessionFactory sqlSessionFactory(DataSource dataSource, ResourceLoader resourceLoader, GlobalConfig globalConfig) throws Exception {
+        SqlSessionFactory sqlSessionFactory = super.sqlSessionFactory(dataSource, resourceLoader, globalConfig);
+        ((MybatisConfiguration) sqlSessionFactory.getConfiguration()).setGroupBatchBySql(true);
+        sqlSessionFactory.getConfiguration().addInterceptor(new UpdateRecorder());
+        return sqlSessionFactory;
+    }
+
+    @Bean
+    @Override
+    public GlobalConfig globalConfiguration() {
+        GlobalConfig conf = super.globalConfiguration();
+        conf.getDbConfig()
+            .setInListPadding(true)
+            .setMultiRowInsert(true)
+            .setGroupUpdateBatch(true);
+        return conf;
+    }
+
+    /**
+     * 按执行顺序记录提交给执行器的更新语句与参数
+     */
+    @Intercepts({@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})})
+    public static class UpdateRecorder implements Interceptor {
+
+        public static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+        public static final List<Object> PARAMETERS = new CopyOnWriteArrayList<>();
+
+        public static void clear() {
+            STATEMENTS.clear();
+            PARAMETERS.clear();
+        }
+
+        @Override
+        public Object intercept(Invocation invocation) throws Throwable {
+            STATEMENTS.add(((MappedStatement) invocation.getArgs()[0]).getId());
+            PARAMETERS.add(invocation.getArgs()[1]);
+            return invocation.proceed();
+        }
+    }
+}